@@ -0,0 +1,62 @@
+package com.codestorykh.generics.advanced;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts elements of an {@link OffHeapList} to and from bytes.
+ * A codec either writes every element with the same number of bytes, which lets the list
+ * address elements by index arithmetic, or reports {@link #VARIABLE_WIDTH} and sizes each
+ * element with {@link #encodedSize}. Null elements are not supported.
+ * @param <T> the element type
+ */
+public interface ElementCodec<T> {
+    int VARIABLE_WIDTH = -1;
+
+    // Bytes per element, or VARIABLE_WIDTH
+    int width();
+
+    default int encodedSize(T value) {
+        return width();
+    }
+
+    void encode(T value, ByteBuffer target, int offset);
+
+    T decode(ByteBuffer source, int offset, int length);
+
+    /**
+     * Decodes into an existing instance where the element type is mutable, so that a
+     * scan over millions of elements can reuse one object. Returns the decoded element,
+     * which is a new instance for codecs of immutable types. {@code reuse} is null on the first call.
+     */
+    default T decodeInto(ByteBuffer source, int offset, int length, T reuse) {
+        return decode(source, offset, length);
+    }
+
+    /**
+     * Compares two encoded elements in the natural order of the element type.
+     * The default decodes both; the standard codecs compare the bytes directly.
+     */
+    @SuppressWarnings("unchecked")
+    default int compareEncoded(ByteBuffer left, int leftOffset, int leftLength,
+                               ByteBuffer right, int rightOffset, int rightLength) {
+        Comparable<Object> first = (Comparable<Object>) decode(left, leftOffset, leftLength);
+        return first.compareTo(decode(right, rightOffset, rightLength));
+    }
+
+    static ElementCodec<Integer> ints() {
+        return StandardCodecs.INTS;
+    }
+
+    static ElementCodec<Long> longs() {
+        return StandardCodecs.LONGS;
+    }
+
+    static ElementCodec<Double> doubles() {
+        return StandardCodecs.DOUBLES;
+    }
+
+    // Two bytes per char, so strings round-trip exactly and compare in String.compareTo order
+    static ElementCodec<String> strings() {
+        return StandardCodecs.STRINGS;
+    }
+}
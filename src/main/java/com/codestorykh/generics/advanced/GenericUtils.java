@@ -1,8 +1,11 @@
 package com.codestorykh.generics.advanced;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 /**
  * Utility class demonstrating advanced generic concepts and methods.
@@ -65,20 +68,135 @@ public class GenericUtils {
         return result;
     }
 
+    // Arrays at least this long are reversed with a parallel blocked swap
+    static final int PARALLEL_REVERSE_THRESHOLD = 1 << 20;
+    private static final int REVERSE_BLOCK_SIZE = 1 << 16;
+
     /**
      * Reverses a list in place.
      * Demonstrates lower bounded wildcards.
+     * Random access lists are swapped by index; other lists are walked from both
+     * ends with ListIterators so a LinkedList is reversed in linear time.
      */
     public static void reverse(List<?> list) {
-        reverseHelper(list);
+        reverseRange(list, 0, list.size());
+    }
+
+    /**
+     * Reverses the elements of a list between fromIndex (inclusive) and toIndex (exclusive).
+     */
+    public static void reverseRange(List<?> list, int fromIndex, int toIndex) {
+        checkRange(list.size(), fromIndex, toIndex);
+        if (list instanceof OffHeapList<?> offHeap) {
+            // Swaps encoded elements instead of decoding each one
+            offHeap.reverse(fromIndex, toIndex);
+            return;
+        }
+        reverseHelper(list, fromIndex, toIndex);
+    }
+
+    private static <T> void reverseHelper(List<T> list, int fromIndex, int toIndex) {
+        if (list instanceof RandomAccess) {
+            for (int i = fromIndex, j = toIndex - 1; i < j; i++, j--) {
+                T temp = list.get(i);
+                list.set(i, list.get(j));
+                list.set(j, temp);
+            }
+            return;
+        }
+        ListIterator<T> forward = list.listIterator(fromIndex);
+        ListIterator<T> backward = list.listIterator(toIndex);
+        for (int i = 0, swaps = (toIndex - fromIndex) / 2; i < swaps; i++) {
+            T temp = forward.next();
+            forward.set(backward.previous());
+            backward.set(temp);
+        }
+    }
+
+    /**
+     * Reverses an array in place, switching to a parallel blocked swap for very large arrays.
+     */
+    public static <T> void reverse(T[] array) {
+        if (array.length >= PARALLEL_REVERSE_THRESHOLD) {
+            parallelReverse(array);
+        } else {
+            reverseRange(array, 0, array.length);
+        }
     }
 
-    private static <T> void reverseHelper(List<T> list) {
+    /**
+     * Reverses the elements of an array between fromIndex (inclusive) and toIndex (exclusive).
+     */
+    public static <T> void reverseRange(T[] array, int fromIndex, int toIndex) {
+        checkRange(array.length, fromIndex, toIndex);
+        for (int i = fromIndex, j = toIndex - 1; i < j; i++, j--) {
+            T temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+    }
+
+    /**
+     * Reverses an array using the common fork/join pool. The front half is split into
+     * contiguous blocks and each block is swapped with its mirror at the back, so every
+     * worker streams through two sequential memory regions.
+     */
+    public static <T> void parallelReverse(T[] array) {
+        int length = array.length;
+        int half = length / 2;
+        int blocks = (half + REVERSE_BLOCK_SIZE - 1) / REVERSE_BLOCK_SIZE;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int start = block * REVERSE_BLOCK_SIZE;
+            int end = Math.min(start + REVERSE_BLOCK_SIZE, half);
+            for (int i = start; i < end; i++) {
+                int j = length - 1 - i;
+                T temp = array[i];
+                array[i] = array[j];
+                array[j] = temp;
+            }
+        });
+    }
+
+    /**
+     * Rotates a list in place by the given distance; positive distances move elements
+     * towards the end. Implemented as three reversals, so it needs no extra storage.
+     */
+    public static void rotate(List<?> list, int distance) {
         int size = list.size();
-        for (int i = 0; i < size / 2; i++) {
-            T temp = list.get(i);
-            list.set(i, list.get(size - 1 - i));
-            list.set(size - 1 - i, temp);
+        if (size == 0) {
+            return;
+        }
+        int shift = Math.floorMod(distance, size);
+        if (shift == 0) {
+            return;
+        }
+        reverseRange(list, 0, size);
+        reverseRange(list, 0, shift);
+        reverseRange(list, shift, size);
+    }
+
+    /**
+     * Rotates an array in place by the given distance; positive distances move elements
+     * towards the end.
+     */
+    public static <T> void rotate(T[] array, int distance) {
+        int size = array.length;
+        if (size == 0) {
+            return;
+        }
+        int shift = Math.floorMod(distance, size);
+        if (shift == 0) {
+            return;
+        }
+        reverse(array);
+        reverseRange(array, 0, shift);
+        reverseRange(array, shift, size);
+    }
+
+    private static void checkRange(int size, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                "Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
         }
     }
 
@@ -106,17 +224,98 @@ public class GenericUtils {
     /**
      * Creates a type-safe heterogeneous container.
      * Demonstrates type tokens and heterogeneous containers.
+     * Backed by a ConcurrentHashMap so reads are lock-free and instances can be shared
+     * across threads; storing a null value removes the mapping.
      */
     public static class TypeSafeMap {
-        private Map<Class<?>, Object> map = new HashMap<>();
-        
+        private final Map<Class<?>, Object> map = new ConcurrentHashMap<>();
+
+        // Resolved registration key per looked-up class, owned by this map alone
+        private final Map<Class<?>, Resolution> resolutions = new ConcurrentHashMap<>();
+
+        // Bumped whenever the key set changes, so a resolution computed during a change can tell it may be stale
+        private final AtomicLong keyVersion = new AtomicLong();
+
         public <T> void put(Class<T> type, T value) {
-            map.put(Objects.requireNonNull(type), value);
+            Objects.requireNonNull(type);
+            Object previous = value == null ? map.remove(type) : map.put(type, value);
+            if (previous == null && value != null) {
+                keyVersion.incrementAndGet();
+                // Only classes at or below the new key can now resolve to it
+                resolutions.keySet().removeIf(type::isAssignableFrom);
+            } else if (previous != null && value == null) {
+                keyVersion.incrementAndGet();
+                resolutions.values().removeIf(resolution -> resolution.key == type);
+            }
         }
-        
-        @SuppressWarnings("unchecked")
+
         public <T> T get(Class<T> type) {
             return type.cast(map.get(type));
         }
+
+        /**
+         * Looks up a value registered under the given type or, failing that, under its nearest
+         * registered superclass or interface. Superclasses are preferred over interfaces, and
+         * the resolved key is cached per class so repeated lookups skip the hierarchy walk.
+         * Returns null if nothing is registered or the registered value is not a {@code T}.
+         */
+        public <T> T find(Class<T> type) {
+            Object exact = map.get(type);
+            if (exact != null) {
+                return type.cast(exact);
+            }
+            Resolution resolution = resolutions.get(type);
+            if (resolution == null) {
+                resolution = resolve(type);
+                resolutions.put(type, resolution);
+                // A key added or removed while resolving may have been missed; put's invalidation
+                // may also have run before this entry existed, so drop it rather than keep it stale
+                if (keyVersion.get() != resolution.version) {
+                    resolutions.remove(type, resolution);
+                }
+            }
+            if (resolution.key == null) {
+                return null;
+            }
+            Object value = map.get(resolution.key);
+            return type.isInstance(value) ? type.cast(value) : null;
+        }
+
+        public boolean containsKey(Class<?> type) {
+            return map.containsKey(type);
+        }
+
+        public int size() {
+            return map.size();
+        }
+
+        private Resolution resolve(Class<?> type) {
+            // Read the version first: a concurrent put makes this resolution stale, never wrong
+            long version = keyVersion.get();
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                if (map.containsKey(c)) {
+                    return new Resolution(c, version);
+                }
+            }
+            Deque<Class<?>> pending = new ArrayDeque<>();
+            Set<Class<?>> seen = new HashSet<>();
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                pending.addAll(Arrays.asList(c.getInterfaces()));
+            }
+            while (!pending.isEmpty()) {
+                Class<?> candidate = pending.poll();
+                if (!seen.add(candidate)) {
+                    continue;
+                }
+                if (map.containsKey(candidate)) {
+                    return new Resolution(candidate, version);
+                }
+                pending.addAll(Arrays.asList(candidate.getInterfaces()));
+            }
+            return new Resolution(null, version);
+        }
+
+        private record Resolution(Class<?> key, long version) {
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,433 @@
+package com.codestorykh.generics.advanced;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A list that keeps its elements encoded in direct byte buffers outside the Java heap,
+ * for datasets of hundreds of millions of small homogeneous elements where an
+ * {@code ArrayList} of objects would exhaust the heap.
+ *
+ * Elements of a fixed-width codec are stored back to back, so element {@code i} is found by
+ * arithmetic. Elements of a variable-width codec are appended to an arena and the list holds
+ * a (position, length) entry per element; sorting and reversing then move only the entries.
+ * Storage is split into chunks of at most 16 MB, and the first chunk grows gradually so
+ * small lists stay small. Overwriting a variable-width element appends its new encoding;
+ * the old bytes stay unused until {@link #clear()}.
+ *
+ * {@link #get} decodes a new object per call as the List contract requires. Scans that
+ * should not create an object per element use {@link #forEachFlyweight}, and sorting,
+ * reversing and merging work on the encoded bytes. The list supports appending and
+ * replacing, not inserting or removing in the middle. Not thread-safe.
+ * @param <T> the element type
+ */
+public class OffHeapList<T> extends AbstractList<T> implements RandomAccess {
+    private static final int MAX_CHUNK_BYTES = 1 << 24;
+    private static final int MIN_CHUNK_BYTES = 1 << 12;
+    // Position in the arena (chunk index in the upper half) followed by the length
+    private static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+    // Runs of this many elements are insertion-sorted before merging
+    private static final int INSERTION_SORT_RUN = 16;
+
+    private final ElementCodec<T> codec;
+    private final boolean fixedWidth;
+    private RecordArray records;
+    private final List<ByteBuffer> arena = new ArrayList<>();
+    private int arenaUsed;
+    private int size;
+
+    public OffHeapList(ElementCodec<T> codec) {
+        this.codec = codec;
+        this.fixedWidth = codec.width() != ElementCodec.VARIABLE_WIDTH;
+        if (fixedWidth && codec.width() < 1) {
+            throw new IllegalArgumentException("Codec width must be positive: " + codec.width());
+        }
+        this.records = newRecordArray();
+    }
+
+    public static <T> OffHeapList<T> of(ElementCodec<T> codec, Iterable<? extends T> elements) {
+        OffHeapList<T> list = new OffHeapList<>(codec);
+        for (T element : elements) {
+            list.add(element);
+        }
+        return list;
+    }
+
+    private RecordArray newRecordArray() {
+        return new RecordArray(fixedWidth ? codec.width() : ENTRY_BYTES);
+    }
+
+    public ElementCodec<T> getCodec() {
+        return codec;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        return decodeAt(index, null);
+    }
+
+    @Override
+    public T set(int index, T element) {
+        Objects.checkIndex(index, size);
+        Objects.requireNonNull(element, "OffHeapList does not support null elements");
+        T previous = decodeAt(index, null);
+        write(index, element);
+        return previous;
+    }
+
+    @Override
+    public boolean add(T element) {
+        Objects.requireNonNull(element, "OffHeapList does not support null elements");
+        records.ensureCapacity(size + 1);
+        write(size, element);
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        if (index != size) {
+            throw new UnsupportedOperationException("OffHeapList only supports appending");
+        }
+        add(element);
+    }
+
+    @Override
+    public void clear() {
+        // Dropping the buffers lets the collector release their native memory
+        records = newRecordArray();
+        arena.clear();
+        arenaUsed = 0;
+        size = 0;
+        modCount++;
+    }
+
+    private void write(int index, T element) {
+        ByteBuffer chunk = records.chunk(index);
+        int offset = records.offset(index);
+        if (fixedWidth) {
+            codec.encode(element, chunk, offset);
+            return;
+        }
+        int length = codec.encodedSize(element);
+        long position = reserve(length);
+        codec.encode(element, arena.get((int) (position >>> 32)), (int) position);
+        chunk.putLong(offset, position);
+        chunk.putInt(offset + Long.BYTES, length);
+    }
+
+    // Appends an element that is already encoded, without decoding it
+    private void addEncoded(ByteBuffer source, int sourceOffset, int length) {
+        records.ensureCapacity(size + 1);
+        ByteBuffer chunk = records.chunk(size);
+        int offset = records.offset(size);
+        if (fixedWidth) {
+            chunk.put(offset, source, sourceOffset, length);
+        } else {
+            long position = reserve(length);
+            arena.get((int) (position >>> 32)).put((int) position, source, sourceOffset, length);
+            chunk.putLong(offset, position);
+            chunk.putInt(offset + Long.BYTES, length);
+        }
+        size++;
+        modCount++;
+    }
+
+    private long reserve(int length) {
+        ByteBuffer current = arena.isEmpty() ? null : arena.get(arena.size() - 1);
+        if (current == null || current.capacity() - arenaUsed < length) {
+            int next = current == null ? MIN_CHUNK_BYTES : Math.min(MAX_CHUNK_BYTES, current.capacity() * 2);
+            arena.add(ByteBuffer.allocateDirect(Math.max(next, length)));
+            arenaUsed = 0;
+        }
+        long position = (long) (arena.size() - 1) << 32 | arenaUsed;
+        arenaUsed += length;
+        return position;
+    }
+
+    private T decodeAt(int index, T reuse) {
+        ByteBuffer chunk = records.chunk(index);
+        int offset = records.offset(index);
+        if (fixedWidth) {
+            return codec.decodeInto(chunk, offset, codec.width(), reuse);
+        }
+        long position = chunk.getLong(offset);
+        return codec.decodeInto(arena.get((int) (position >>> 32)), (int) position,
+            chunk.getInt(offset + Long.BYTES), reuse);
+    }
+
+    /**
+     * Calls the action for every element in order, decoding into a single reused instance
+     * where the codec supports it. The action must not keep the element it is given.
+     */
+    public void forEachFlyweight(Consumer<? super T> action) {
+        T reuse = null;
+        for (int i = 0; i < size; i++) {
+            reuse = decodeAt(i, reuse);
+            action.accept(reuse);
+        }
+    }
+
+    /**
+     * Like {@link GenericUtils#findAndTransform}, but reads through a reused instance and
+     * stores the results off-heap as well, so neither side is materialized on the heap.
+     */
+    public <R> OffHeapList<R> findAndTransform(Predicate<? super T> predicate,
+                                               Function<? super T, ? extends R> transformer,
+                                               ElementCodec<R> resultCodec) {
+        OffHeapList<R> result = new OffHeapList<>(resultCodec);
+        forEachFlyweight(element -> {
+            if (predicate.test(element)) {
+                result.add(transformer.apply(element));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sorts the encoded elements with a stable merge sort. A null comparator sorts in
+     * natural order by comparing the encoded bytes through the codec, without decoding
+     * anything for the standard codecs; a comparator decodes the two elements it compares.
+     * Needs a temporary copy of the element data, or of the entries for variable-width codecs.
+     */
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        if (size < 2) {
+            return;
+        }
+        ByteBuffer scratch = ByteBuffer.allocate(records.width);
+        for (int start = 0; start < size; start += INSERTION_SORT_RUN) {
+            int end = Math.min(start + INSERTION_SORT_RUN, size);
+            for (int i = start + 1; i < end; i++) {
+                for (int j = i; j > start && compare(records, j - 1, records, j, comparator) > 0; j--) {
+                    records.swap(j - 1, j, scratch);
+                }
+            }
+        }
+        RecordArray source = records;
+        RecordArray target = newRecordArray();
+        for (int run = INSERTION_SORT_RUN; run < size; run <<= 1) {
+            target.ensureCapacity(size);
+            for (int low = 0; low < size; low += run << 1) {
+                int middle = Math.min(low + run, size);
+                int high = Math.min(low + (run << 1), size);
+                merge(source, low, middle, high, target, comparator);
+            }
+            RecordArray sorted = target;
+            target = source;
+            source = sorted;
+        }
+        records = source;
+        modCount++;
+    }
+
+    private void merge(RecordArray source, int low, int middle, int high, RecordArray target,
+                       Comparator<? super T> comparator) {
+        int left = low;
+        int right = middle;
+        int out = low;
+        while (left < middle && right < high) {
+            // Taking the left element on ties keeps the sort stable
+            if (compare(source, right, source, left, comparator) < 0) {
+                source.copy(right++, target, out++);
+            } else {
+                source.copy(left++, target, out++);
+            }
+        }
+        while (left < middle) {
+            source.copy(left++, target, out++);
+        }
+        while (right < high) {
+            source.copy(right++, target, out++);
+        }
+    }
+
+    private int compare(RecordArray leftRecords, int leftIndex, RecordArray rightRecords, int rightIndex,
+                        Comparator<? super T> comparator) {
+        ByteBuffer leftChunk = leftRecords.chunk(leftIndex);
+        int leftOffset = leftRecords.offset(leftIndex);
+        ByteBuffer rightChunk = rightRecords.chunk(rightIndex);
+        int rightOffset = rightRecords.offset(rightIndex);
+        if (fixedWidth) {
+            int width = codec.width();
+            return compareElements(leftChunk, leftOffset, width, rightChunk, rightOffset, width, comparator);
+        }
+        long leftPosition = leftChunk.getLong(leftOffset);
+        long rightPosition = rightChunk.getLong(rightOffset);
+        return compareElements(
+            arena.get((int) (leftPosition >>> 32)), (int) leftPosition, leftChunk.getInt(leftOffset + Long.BYTES),
+            arena.get((int) (rightPosition >>> 32)), (int) rightPosition, rightChunk.getInt(rightOffset + Long.BYTES),
+            comparator);
+    }
+
+    private int compareElements(ByteBuffer left, int leftOffset, int leftLength,
+                                ByteBuffer right, int rightOffset, int rightLength,
+                                Comparator<? super T> comparator) {
+        if (comparator == null) {
+            return codec.compareEncoded(left, leftOffset, leftLength, right, rightOffset, rightLength);
+        }
+        return comparator.compare(codec.decode(left, leftOffset, leftLength),
+            codec.decode(right, rightOffset, rightLength));
+    }
+
+    // Reverses the list in place by swapping encoded elements, or entries for variable-width codecs
+    public void reverse() {
+        reverse(0, size);
+    }
+
+    public void reverse(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        ByteBuffer scratch = ByteBuffer.allocate(records.width);
+        for (int i = fromIndex, j = toIndex - 1; i < j; i++, j--) {
+            records.swap(i, j, scratch);
+        }
+    }
+
+    /**
+     * Merges two lists sorted in the codec's natural order into a new list, copying the
+     * encoded elements without decoding them. Both lists must use the same codec instance.
+     */
+    public static <T> OffHeapList<T> mergeSorted(OffHeapList<T> first, OffHeapList<T> second) {
+        if (first.codec != second.codec) {
+            throw new IllegalArgumentException("Lists must share a codec to be merged without decoding");
+        }
+        OffHeapList<T> result = new OffHeapList<>(first.codec);
+        result.records.ensureCapacity(first.size + second.size);
+        int i = 0;
+        int j = 0;
+        while (i < first.size && j < second.size) {
+            if (compareAcross(first, i, second, j) <= 0) {
+                first.copyTo(i++, result);
+            } else {
+                second.copyTo(j++, result);
+            }
+        }
+        while (i < first.size) {
+            first.copyTo(i++, result);
+        }
+        while (j < second.size) {
+            second.copyTo(j++, result);
+        }
+        return result;
+    }
+
+    private static <T> int compareAcross(OffHeapList<T> first, int i, OffHeapList<T> second, int j) {
+        ByteBuffer left = first.elementBuffer(i);
+        int leftOffset = first.elementOffset(i);
+        ByteBuffer right = second.elementBuffer(j);
+        int rightOffset = second.elementOffset(j);
+        return first.codec.compareEncoded(left, leftOffset, first.elementLength(i),
+            right, rightOffset, second.elementLength(j));
+    }
+
+    private void copyTo(int index, OffHeapList<T> target) {
+        target.addEncoded(elementBuffer(index), elementOffset(index), elementLength(index));
+    }
+
+    private ByteBuffer elementBuffer(int index) {
+        ByteBuffer chunk = records.chunk(index);
+        return fixedWidth ? chunk : arena.get((int) (chunk.getLong(records.offset(index)) >>> 32));
+    }
+
+    private int elementOffset(int index) {
+        int offset = records.offset(index);
+        return fixedWidth ? offset : (int) records.chunk(index).getLong(offset);
+    }
+
+    private int elementLength(int index) {
+        return fixedWidth ? codec.width() : records.chunk(index).getInt(records.offset(index) + Long.BYTES);
+    }
+
+    // Native memory held by this list, including unused capacity
+    public long getOffHeapBytes() {
+        long bytes = records.capacityBytes();
+        for (ByteBuffer chunk : arena) {
+            bytes += chunk.capacity();
+        }
+        return bytes;
+    }
+
+    // Fixed-width records in chunked direct buffers
+    private static final class RecordArray {
+        private final int width;
+        private final int perChunk;
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private int capacity;
+
+        private RecordArray(int width) {
+            this.width = width;
+            this.perChunk = Math.max(1, MAX_CHUNK_BYTES / width);
+        }
+
+        private void ensureCapacity(int count) {
+            while (capacity < count) {
+                if (chunks.isEmpty()) {
+                    capacity = Math.min(perChunk, Math.max(count, MIN_CHUNK_BYTES / width));
+                    chunks.add(ByteBuffer.allocateDirect(capacity * width));
+                } else if (capacity < perChunk) {
+                    // Grow the only chunk until it is full-sized, then add chunks
+                    int grown = (int) Math.min(perChunk, Math.max(count, 2L * capacity));
+                    ByteBuffer larger = ByteBuffer.allocateDirect(grown * width);
+                    larger.put(0, chunks.get(0), 0, capacity * width);
+                    chunks.set(0, larger);
+                    capacity = grown;
+                } else {
+                    chunks.add(ByteBuffer.allocateDirect(perChunk * width));
+                    capacity += perChunk;
+                }
+            }
+        }
+
+        private ByteBuffer chunk(int index) {
+            return chunks.get(index / perChunk);
+        }
+
+        private int offset(int index) {
+            return (index % perChunk) * width;
+        }
+
+        private void copy(int from, RecordArray target, int to) {
+            ByteBuffer source = chunk(from);
+            int sourceOffset = offset(from);
+            ByteBuffer destination = target.chunk(to);
+            int destinationOffset = target.offset(to);
+            // Single loads and stores for the common widths; a bulk copy costs more to set up
+            switch (width) {
+                case Integer.BYTES -> destination.putInt(destinationOffset, source.getInt(sourceOffset));
+                case Long.BYTES -> destination.putLong(destinationOffset, source.getLong(sourceOffset));
+                case ENTRY_BYTES -> {
+                    destination.putLong(destinationOffset, source.getLong(sourceOffset));
+                    destination.putInt(destinationOffset + Long.BYTES, source.getInt(sourceOffset + Long.BYTES));
+                }
+                default -> destination.put(destinationOffset, source, sourceOffset, width);
+            }
+        }
+
+        private void swap(int i, int j, ByteBuffer scratch) {
+            ByteBuffer first = chunk(i);
+            ByteBuffer second = chunk(j);
+            scratch.put(0, first, offset(i), width);
+            first.put(offset(i), second, offset(j), width);
+            second.put(offset(j), scratch, 0, width);
+        }
+
+        private long capacityBytes() {
+            return (long) capacity * width;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.codestorykh.generics.advanced;
 
+import java.util.Objects;
+
 /**
  * A generic class that holds a pair of values of different types.
  * Demonstrates multiple type parameters.
@@ -27,6 +29,32 @@ public class Pair<K, V> {
         this.value = value;
     }
 
+    /**
+     * Pairs are equal when both their keys and their values are equal. The value is
+     * mutable, so a pair used as a map key must not be changed; use {@link #toKey()} for
+     * a key that cannot change and hashes once.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Pair<?, ?> other)) {
+            return false;
+        }
+        return Objects.equals(key, other.key) && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return PairKey.hash(key, value);
+    }
+
+    // Immutable snapshot of this pair for use as a composite map key
+    public PairKey<K, V> toKey() {
+        return new PairKey<>(key, value);
+    }
+
     @Override
     public String toString() {
         return "(" + key + ", " + value + ")";
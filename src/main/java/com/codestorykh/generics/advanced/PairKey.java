@@ -0,0 +1,65 @@
+package com.codestorykh.generics.advanced;
+
+import java.util.Objects;
+
+/**
+ * An immutable two-part key with value semantics, for maps keyed by two components
+ * instead of a concatenated string. The hash is computed once, when the key is created,
+ * so repeated lookups with the same key only compare the components.
+ * @param <A> the type of the first component
+ * @param <B> the type of the second component
+ */
+public final class PairKey<A, B> {
+    private final A first;
+    private final B second;
+    private final int hash;
+
+    public PairKey(A first, B second) {
+        this.first = first;
+        this.second = second;
+        this.hash = hash(first, second);
+    }
+
+    public static <A, B> PairKey<A, B> of(A first, B second) {
+        return new PairKey<>(first, second);
+    }
+
+    // Shared with Pair and PairMap so that all three hash a combination the same way
+    static int hash(Object first, Object second) {
+        return 31 * Objects.hashCode(first) + Objects.hashCode(second);
+    }
+
+    public A getFirst() {
+        return first;
+    }
+
+    public B getSecond() {
+        return second;
+    }
+
+    // Whether this key has the given components, without creating a key for them
+    public boolean matches(Object first, Object second) {
+        return Objects.equals(this.first, first) && Objects.equals(this.second, second);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PairKey<?, ?> other)) {
+            return false;
+        }
+        return hash == other.hash && matches(other.first, other.second);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + first + ", " + second + ")";
+    }
+}
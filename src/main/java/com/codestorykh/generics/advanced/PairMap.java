@@ -0,0 +1,256 @@
+package com.codestorykh.generics.advanced;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * A hash map keyed by two components, looked up by (first, second) without creating a
+ * {@link Pair}, a {@link PairKey} or a concatenated string per lookup.
+ *
+ * Entries live in parallel arrays with linear probing: each slot holds the key's hash, its
+ * two components and the value, so a probe compares the cached hash before touching the
+ * components. Removal shifts later entries of the probe run back instead of leaving
+ * tombstones. Components and values may be null. Not thread-safe.
+ * @param <A> the type of the first key component
+ * @param <B> the type of the second key component
+ * @param <V> the type of the values
+ */
+public class PairMap<A, B, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    // Marks a free slot; stored hashes are never zero
+    private static final int FREE = 0;
+
+    private int[] hashes;
+    private Object[] firsts;
+    private Object[] seconds;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public PairMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Sized so that the expected number of entries fits without resizing
+    public PairMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 3 / 2 + 1) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Consumer of map entries, for iterating without creating an entry object per element.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<A, B, V> {
+        void accept(A first, B second, V value);
+    }
+
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        firsts = new Object[capacity];
+        seconds = new Object[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        // At most two thirds full, where linear probing runs stay short
+        resizeAt = capacity / 3 * 2;
+    }
+
+    private static int storedHash(Object first, Object second) {
+        int h = PairKey.hash(first, second);
+        // Spread the bits so that keys differing only in their upper bits use different slots
+        h *= 0x9E3779B9;
+        h ^= h >>> 16;
+        return h == FREE ? 1 : h;
+    }
+
+    // Slot of the given key, or the complement of the free slot where it would go
+    private int find(Object first, Object second, int hash) {
+        int slot = hash & mask;
+        while (true) {
+            int stored = hashes[slot];
+            if (stored == FREE) {
+                return ~slot;
+            }
+            if (stored == hash && Objects.equals(firsts[slot], first) && Objects.equals(seconds[slot], second)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object first, Object second) {
+        int slot = find(first, second, storedHash(first, second));
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object first, Object second, V defaultValue) {
+        int slot = find(first, second, storedHash(first, second));
+        return slot < 0 ? defaultValue : (V) values[slot];
+    }
+
+    public V get(PairKey<?, ?> key) {
+        return get(key.getFirst(), key.getSecond());
+    }
+
+    public boolean containsKey(Object first, Object second) {
+        return find(first, second, storedHash(first, second)) >= 0;
+    }
+
+    /**
+     * Associates the value with (first, second).
+     * @return the previous value, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(A first, B second, V value) {
+        int hash = storedHash(first, second);
+        int slot = find(first, second, hash);
+        if (slot >= 0) {
+            V previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(~slot, hash, first, second, value);
+        return null;
+    }
+
+    /**
+     * Combines the value with the existing one, or stores it if there is none; the
+     * aggregation step of a join or group-by in a single probe.
+     * A null result removes the entry.
+     * @return the new value
+     */
+    @SuppressWarnings("unchecked")
+    public V merge(A first, B second, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+        int hash = storedHash(first, second);
+        int slot = find(first, second, hash);
+        if (slot < 0) {
+            insert(~slot, hash, first, second, value);
+            return value;
+        }
+        V merged = remapping.apply((V) values[slot], value);
+        if (merged == null) {
+            removeAt(slot);
+        } else {
+            values[slot] = merged;
+        }
+        return merged;
+    }
+
+    private void insert(int slot, int hash, Object first, Object second, Object value) {
+        if (size >= resizeAt) {
+            resize();
+            slot = ~find(first, second, hash);
+        }
+        hashes[slot] = hash;
+        firsts[slot] = first;
+        seconds[slot] = second;
+        values[slot] = value;
+        size++;
+    }
+
+    private void resize() {
+        int[] oldHashes = hashes;
+        Object[] oldFirsts = firsts;
+        Object[] oldSeconds = seconds;
+        Object[] oldValues = values;
+        allocate(oldHashes.length << 1);
+        for (int i = 0; i < oldHashes.length; i++) {
+            int hash = oldHashes[i];
+            if (hash == FREE) {
+                continue;
+            }
+            int slot = hash & mask;
+            while (hashes[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            firsts[slot] = oldFirsts[i];
+            seconds[slot] = oldSeconds[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    /**
+     * Removes the entry for (first, second).
+     * @return the removed value, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object first, Object second) {
+        int slot = find(first, second, storedHash(first, second));
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        removeAt(slot);
+        return previous;
+    }
+
+    private void removeAt(int slot) {
+        int gap = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            int hash = hashes[next];
+            if (hash == FREE) {
+                break;
+            }
+            // An entry may fill the gap only if the gap lies between its home slot and its slot
+            if (((next - (hash & mask)) & mask) >= ((next - gap) & mask)) {
+                hashes[gap] = hash;
+                firsts[gap] = firsts[next];
+                seconds[gap] = seconds[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        hashes[gap] = FREE;
+        firsts[gap] = null;
+        seconds[gap] = null;
+        values[gap] = null;
+        size--;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super A, ? super B, ? super V> action) {
+        for (int slot = 0; slot < hashes.length; slot++) {
+            if (hashes[slot] != FREE) {
+                action.accept((A) firsts[slot], (B) seconds[slot], (V) values[slot]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(hashes, FREE);
+        Arrays.fill(firsts, null);
+        Arrays.fill(seconds, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((first, second, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append('(').append(first).append(", ").append(second).append(")=").append(value);
+        });
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,373 @@
+package com.codestorykh.generics.advanced;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Radix sorts for int, long and double keys, and for objects ordered by such a key.
+ * Unlike {@link java.util.Collections#sort} they never compare elements and never box
+ * keys: numbers are mapped to unsigned integers with the same order and distributed one
+ * byte at a time (LSD), skipping bytes that are equal for all keys. Sorting objects by a
+ * key extracts the keys once into a primitive array, sorts the keys together with the
+ * element positions and then rearranges the list, and is stable.
+ *
+ * The parallel variants first distribute by the highest byte in which the keys differ
+ * (MSD) and then sort the up to 256 resulting ranges on the common fork/join pool;
+ * inputs shorter than {@link #PARALLEL_THRESHOLD} are sorted sequentially.
+ * Doubles are ordered like {@link Double#compare}: -0.0 before 0.0 and NaN last.
+ */
+public class RadixSort {
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    public static void sort(int[] array) {
+        sortInts(array, null, false);
+    }
+
+    public static void parallelSort(int[] array) {
+        sortInts(array, null, true);
+    }
+
+    public static void sort(long[] array) {
+        sortLongs(array, null, false);
+    }
+
+    public static void parallelSort(long[] array) {
+        sortLongs(array, null, true);
+    }
+
+    public static void sort(double[] array) {
+        sortDoubles(array, false);
+    }
+
+    public static void parallelSort(double[] array) {
+        sortDoubles(array, true);
+    }
+
+    /**
+     * Sorts the list in place by an int key, without boxing and without comparisons.
+     * Elements with equal keys keep their order.
+     */
+    public static <T> void sortByIntKey(List<T> list, ToIntFunction<? super T> key) {
+        sortByIntKey(list, key, false);
+    }
+
+    public static <T> void parallelSortByIntKey(List<T> list, ToIntFunction<? super T> key) {
+        sortByIntKey(list, key, true);
+    }
+
+    public static <T> void sortByLongKey(List<T> list, ToLongFunction<? super T> key) {
+        sortByLongKey(list, key, false);
+    }
+
+    public static <T> void parallelSortByLongKey(List<T> list, ToLongFunction<? super T> key) {
+        sortByLongKey(list, key, true);
+    }
+
+    // Orders like Double.compare, so NumberBox values can be sorted by doubleValue
+    public static <T> void sortByDoubleKey(List<T> list, ToDoubleFunction<? super T> key) {
+        sortByDoubleKey(list, key, false);
+    }
+
+    public static <T> void parallelSortByDoubleKey(List<T> list, ToDoubleFunction<? super T> key) {
+        sortByDoubleKey(list, key, true);
+    }
+
+    private static <T> void sortByIntKey(List<T> list, ToIntFunction<? super T> key, boolean parallel) {
+        List<T> elements = new ArrayList<>(list);
+        int[] keys = new int[elements.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key.applyAsInt(elements.get(i));
+        }
+        int[] order = identity(keys.length);
+        sortInts(keys, order, parallel);
+        rearrange(list, elements, order);
+    }
+
+    private static <T> void sortByLongKey(List<T> list, ToLongFunction<? super T> key, boolean parallel) {
+        List<T> elements = new ArrayList<>(list);
+        long[] keys = new long[elements.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = key.applyAsLong(elements.get(i));
+        }
+        int[] order = identity(keys.length);
+        sortLongs(keys, order, parallel);
+        rearrange(list, elements, order);
+    }
+
+    private static <T> void sortByDoubleKey(List<T> list, ToDoubleFunction<? super T> key, boolean parallel) {
+        List<T> elements = new ArrayList<>(list);
+        long[] keys = new long[elements.size()];
+        for (int i = 0; i < keys.length; i++) {
+            // Already in unsigned order, so undo the sign flip sortLongs applies
+            keys[i] = toSortableBits(key.applyAsDouble(elements.get(i))) ^ Long.MIN_VALUE;
+        }
+        int[] order = identity(keys.length);
+        sortLongs(keys, order, parallel);
+        rearrange(list, elements, order);
+    }
+
+    private static int[] identity(int length) {
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    private static <T> void rearrange(List<T> list, List<T> elements, int[] order) {
+        ListIterator<T> iterator = list.listIterator();
+        for (int position : order) {
+            iterator.next();
+            iterator.set(elements.get(position));
+        }
+    }
+
+    private static void sortDoubles(double[] array, boolean parallel) {
+        long[] keys = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            keys[i] = toSortableBits(array[i]) ^ Long.MIN_VALUE;
+        }
+        sortLongs(keys, null, parallel);
+        for (int i = 0; i < array.length; i++) {
+            array[i] = fromSortableBits(keys[i] ^ Long.MIN_VALUE);
+        }
+    }
+
+    // Maps a double to a long whose unsigned order is the order of Double.compare
+    private static long toSortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+    }
+
+    private static double fromSortableBits(long bits) {
+        return Double.longBitsToDouble(bits < 0 ? bits ^ Long.MIN_VALUE : ~bits);
+    }
+
+    // Sorts the keys, moving each payload entry along with its key if there is a payload
+    private static void sortInts(int[] keys, int[] payload, boolean parallel) {
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+        // Flipping the sign bit turns signed order into unsigned order
+        int differing = 0;
+        int first = keys[0] ^ Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            keys[i] ^= Integer.MIN_VALUE;
+            differing |= keys[i] ^ first;
+        }
+        int bits = Integer.SIZE - Integer.numberOfLeadingZeros(differing);
+        int[] keyBuffer = new int[n];
+        int[] payloadBuffer = payload == null ? null : new int[n];
+        if (parallel && n >= PARALLEL_THRESHOLD && bits > RADIX_BITS) {
+            int shift = bits - RADIX_BITS;
+            int[] bounds = distributeInts(keys, payload, keyBuffer, payloadBuffer, shift);
+            List<RecursiveAction> ranges = new ArrayList<>();
+            for (int digit = 0; digit < RADIX; digit++) {
+                int from = bounds[digit];
+                int to = bounds[digit + 1];
+                if (to - from > 1) {
+                    ranges.add(new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            lsdInts(keys, payload, keyBuffer, payloadBuffer, from, to, shift);
+                        }
+                    });
+                }
+            }
+            ForkJoinTask.invokeAll(ranges);
+        } else {
+            lsdInts(keys, payload, keyBuffer, payloadBuffer, 0, n, bits);
+        }
+        for (int i = 0; i < n; i++) {
+            keys[i] ^= Integer.MIN_VALUE;
+        }
+    }
+
+    // Distributes by the digit at shift into the buffers and copies back; returns the range of each digit
+    private static int[] distributeInts(int[] keys, int[] payload, int[] keyBuffer, int[] payloadBuffer, int shift) {
+        int n = keys.length;
+        int[] bounds = new int[RADIX + 1];
+        for (int key : keys) {
+            bounds[((key >>> shift) & DIGIT_MASK) + 1]++;
+        }
+        for (int digit = 0; digit < RADIX; digit++) {
+            bounds[digit + 1] += bounds[digit];
+        }
+        int[] next = bounds.clone();
+        for (int i = 0; i < n; i++) {
+            int target = next[(keys[i] >>> shift) & DIGIT_MASK]++;
+            keyBuffer[target] = keys[i];
+            if (payload != null) {
+                payloadBuffer[target] = payload[i];
+            }
+        }
+        System.arraycopy(keyBuffer, 0, keys, 0, n);
+        if (payload != null) {
+            System.arraycopy(payloadBuffer, 0, payload, 0, n);
+        }
+        return bounds;
+    }
+
+    // Stable LSD sort of [from, to) by the lowest bits; the buffers are only used in that range
+    private static void lsdInts(int[] keys, int[] payload, int[] keyBuffer, int[] payloadBuffer,
+                                int from, int to, int bits) {
+        int[] sourceKeys = keys;
+        int[] sourcePayload = payload;
+        int[] targetKeys = keyBuffer;
+        int[] targetPayload = payloadBuffer;
+        int[] counts = new int[RADIX];
+        for (int shift = 0; shift < bits; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = from; i < to; i++) {
+                counts[(sourceKeys[i] >>> shift) & DIGIT_MASK]++;
+            }
+            if (counts[(sourceKeys[from] >>> shift) & DIGIT_MASK] == to - from) {
+                // Every key has the same digit here, so this pass would not move anything
+                continue;
+            }
+            int position = from;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int count = counts[digit];
+                counts[digit] = position;
+                position += count;
+            }
+            for (int i = from; i < to; i++) {
+                int target = counts[(sourceKeys[i] >>> shift) & DIGIT_MASK]++;
+                targetKeys[target] = sourceKeys[i];
+                if (sourcePayload != null) {
+                    targetPayload[target] = sourcePayload[i];
+                }
+            }
+            int[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            int[] swapPayload = sourcePayload;
+            sourcePayload = targetPayload;
+            targetPayload = swapPayload;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, from, keys, from, to - from);
+            if (payload != null) {
+                System.arraycopy(sourcePayload, from, payload, from, to - from);
+            }
+        }
+    }
+
+    private static void sortLongs(long[] keys, int[] payload, boolean parallel) {
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+        long differing = 0;
+        long first = keys[0] ^ Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            keys[i] ^= Long.MIN_VALUE;
+            differing |= keys[i] ^ first;
+        }
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(differing);
+        long[] keyBuffer = new long[n];
+        int[] payloadBuffer = payload == null ? null : new int[n];
+        if (parallel && n >= PARALLEL_THRESHOLD && bits > RADIX_BITS) {
+            int shift = bits - RADIX_BITS;
+            int[] bounds = distributeLongs(keys, payload, keyBuffer, payloadBuffer, shift);
+            List<RecursiveAction> ranges = new ArrayList<>();
+            for (int digit = 0; digit < RADIX; digit++) {
+                int from = bounds[digit];
+                int to = bounds[digit + 1];
+                if (to - from > 1) {
+                    ranges.add(new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            lsdLongs(keys, payload, keyBuffer, payloadBuffer, from, to, shift);
+                        }
+                    });
+                }
+            }
+            ForkJoinTask.invokeAll(ranges);
+        } else {
+            lsdLongs(keys, payload, keyBuffer, payloadBuffer, 0, n, bits);
+        }
+        for (int i = 0; i < n; i++) {
+            keys[i] ^= Long.MIN_VALUE;
+        }
+    }
+
+    private static int[] distributeLongs(long[] keys, int[] payload, long[] keyBuffer, int[] payloadBuffer,
+                                         int shift) {
+        int n = keys.length;
+        int[] bounds = new int[RADIX + 1];
+        for (long key : keys) {
+            bounds[(int) ((key >>> shift) & DIGIT_MASK) + 1]++;
+        }
+        for (int digit = 0; digit < RADIX; digit++) {
+            bounds[digit + 1] += bounds[digit];
+        }
+        int[] next = bounds.clone();
+        for (int i = 0; i < n; i++) {
+            int target = next[(int) ((keys[i] >>> shift) & DIGIT_MASK)]++;
+            keyBuffer[target] = keys[i];
+            if (payload != null) {
+                payloadBuffer[target] = payload[i];
+            }
+        }
+        System.arraycopy(keyBuffer, 0, keys, 0, n);
+        if (payload != null) {
+            System.arraycopy(payloadBuffer, 0, payload, 0, n);
+        }
+        return bounds;
+    }
+
+    private static void lsdLongs(long[] keys, int[] payload, long[] keyBuffer, int[] payloadBuffer,
+                                 int from, int to, int bits) {
+        long[] sourceKeys = keys;
+        int[] sourcePayload = payload;
+        long[] targetKeys = keyBuffer;
+        int[] targetPayload = payloadBuffer;
+        int[] counts = new int[RADIX];
+        for (int shift = 0; shift < bits; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = from; i < to; i++) {
+                counts[(int) ((sourceKeys[i] >>> shift) & DIGIT_MASK)]++;
+            }
+            if (counts[(int) ((sourceKeys[from] >>> shift) & DIGIT_MASK)] == to - from) {
+                continue;
+            }
+            int position = from;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int count = counts[digit];
+                counts[digit] = position;
+                position += count;
+            }
+            for (int i = from; i < to; i++) {
+                int target = counts[(int) ((sourceKeys[i] >>> shift) & DIGIT_MASK)]++;
+                targetKeys[target] = sourceKeys[i];
+                if (sourcePayload != null) {
+                    targetPayload[target] = sourcePayload[i];
+                }
+            }
+            long[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            int[] swapPayload = sourcePayload;
+            sourcePayload = targetPayload;
+            targetPayload = swapPayload;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, from, keys, from, to - from);
+            if (payload != null) {
+                System.arraycopy(sourcePayload, from, payload, from, to - from);
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.codestorykh.generics.advanced;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Selection utilities that find the largest or smallest elements without sorting.
+ * Unlike {@link GenericUtils#findMax(Collection)} these work on any comparable type,
+ * accept sources of unknown size and keep at most k elements in memory.
+ */
+public class SelectionUtils {
+
+    /**
+     * Returns the k largest elements in descending order using a bounded min-heap.
+     * Runs in O(n log k) time and O(k) extra space.
+     */
+    public static <T extends Comparable<? super T>> List<T> topK(Iterable<? extends T> items, int k) {
+        return topK(items.iterator(), k, Comparator.naturalOrder());
+    }
+
+    public static <T> List<T> topK(Iterable<? extends T> items, int k, Comparator<? super T> comparator) {
+        return topK(items.iterator(), k, comparator);
+    }
+
+    public static <T> List<T> topK(Iterator<? extends T> items, int k, Comparator<? super T> comparator) {
+        BoundedHeap<T> heap = new BoundedHeap<>(k, comparator);
+        while (items.hasNext()) {
+            heap.offer(items.next());
+        }
+        return heap.toSortedList();
+    }
+
+    // Sequential streams are drained through their iterator; parallel ones use the collector
+    public static <T> List<T> topK(Stream<? extends T> items, int k, Comparator<? super T> comparator) {
+        if (items.isParallel()) {
+            return items.collect(toTopK(k, comparator));
+        }
+        return topK(items.iterator(), k, comparator);
+    }
+
+    /**
+     * Returns the k smallest elements in ascending order.
+     */
+    public static <T extends Comparable<? super T>> List<T> bottomK(Iterable<? extends T> items, int k) {
+        return topK(items.iterator(), k, Comparator.<T>naturalOrder().reversed());
+    }
+
+    public static <T> List<T> bottomK(Iterable<? extends T> items, int k, Comparator<? super T> comparator) {
+        return topK(items.iterator(), k, Collections.reverseOrder(comparator));
+    }
+
+    public static <T> List<T> bottomK(Stream<? extends T> items, int k, Comparator<? super T> comparator) {
+        return topK(items, k, Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Collector keeping the k largest elements, in descending order.
+     * Each parallel worker fills its own bounded heap and the heaps are merged pairwise,
+     * so a parallel stream never holds more than k elements per worker.
+     */
+    public static <T> Collector<T, ?, List<T>> toTopK(int k, Comparator<? super T> comparator) {
+        return Collector.of(
+            () -> new BoundedHeap<T>(k, comparator),
+            BoundedHeap::offer,
+            BoundedHeap::merge,
+            BoundedHeap::toSortedList,
+            Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Returns the largest element of a source of unknown size, or empty if it has none.
+     */
+    public static <T> Optional<T> max(Iterator<? extends T> items, Comparator<? super T> comparator) {
+        if (!items.hasNext()) {
+            return Optional.empty();
+        }
+        T best = items.next();
+        while (items.hasNext()) {
+            T candidate = items.next();
+            if (comparator.compare(candidate, best) > 0) {
+                best = candidate;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    public static <T extends Comparable<? super T>> Optional<T> max(Iterable<? extends T> items) {
+        return max(items.iterator(), Comparator.naturalOrder());
+    }
+
+    public static <T> Optional<T> max(Stream<? extends T> items, Comparator<? super T> comparator) {
+        if (items.isParallel()) {
+            return items.<T>map(item -> item).reduce((a, b) -> comparator.compare(a, b) >= 0 ? a : b);
+        }
+        return max(items.iterator(), comparator);
+    }
+
+    public static <T> Optional<T> min(Iterator<? extends T> items, Comparator<? super T> comparator) {
+        return max(items, Collections.reverseOrder(comparator));
+    }
+
+    public static <T extends Comparable<? super T>> Optional<T> min(Iterable<? extends T> items) {
+        return max(items.iterator(), Comparator.<T>naturalOrder().reversed());
+    }
+
+    public static <T> Optional<T> min(Stream<? extends T> items, Comparator<? super T> comparator) {
+        return max(items, Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Returns the element that would be at index k (zero based) if the list were sorted
+     * ascending, using quickselect in expected O(n) time.
+     * The elements are copied into a working array first, so the list is never reordered
+     * and unmodifiable lists such as {@link List#of()} are accepted.
+     */
+    public static <T extends Comparable<? super T>> T kthSmallest(List<T> list, int k) {
+        return kthSmallest(list, k, Comparator.naturalOrder());
+    }
+
+    public static <T> T kthSmallest(List<T> list, int k, Comparator<? super T> comparator) {
+        if (k < 0 || k >= list.size()) {
+            throw new IndexOutOfBoundsException("k " + k + " out of bounds for size " + list.size());
+        }
+        Object[] work = list.toArray();
+        int left = 0;
+        int right = work.length - 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (left < right) {
+            long equalRange = partition(work, left, right, elementAt(work, left + random.nextInt(right - left + 1)), comparator);
+            int equalFrom = (int) (equalRange >>> 32);
+            int equalTo = (int) equalRange;
+            if (k < equalFrom) {
+                right = equalFrom - 1;
+            } else if (k > equalTo) {
+                left = equalTo + 1;
+            } else {
+                break;
+            }
+        }
+        return elementAt(work, k);
+    }
+
+    /**
+     * Three-way partition of [left, right] around the pivot: smaller elements first, then the
+     * run of elements equal to it, then larger ones. Returns the inclusive bounds of the equal
+     * run packed as {@code from << 32 | to}, so duplicates of the pivot are settled in one pass
+     * instead of being partitioned again, which keeps inputs with many equal keys linear.
+     */
+    private static <T> long partition(Object[] work, int left, int right, T pivot,
+                                      Comparator<? super T> comparator) {
+        int less = left;
+        int greater = right;
+        int i = left;
+        while (i <= greater) {
+            int cmp = comparator.compare(elementAt(work, i), pivot);
+            if (cmp < 0) {
+                swap(work, i++, less++);
+            } else if (cmp > 0) {
+                swap(work, i, greater--);
+            } else {
+                i++;
+            }
+        }
+        return (long) less << 32 | greater;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T elementAt(Object[] work, int index) {
+        return (T) work[index];
+    }
+
+    private static void swap(Object[] work, int i, int j) {
+        Object tmp = work[i];
+        work[i] = work[j];
+        work[j] = tmp;
+    }
+
+    /**
+     * Bounded min-heap (with respect to the comparator) holding the k largest
+     * elements seen so far. The root is the smallest retained element, so most
+     * candidates are rejected with a single comparison. The backing array grows
+     * on demand up to k, so a large k over a short source stays small.
+     */
+    private static final class BoundedHeap<T> {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private Object[] elements;
+        private final int capacity;
+        private final Comparator<? super T> comparator;
+        private int size;
+
+        BoundedHeap(int capacity, Comparator<? super T> comparator) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("k must not be negative: " + capacity);
+            }
+            this.elements = new Object[Math.min(capacity, INITIAL_CAPACITY)];
+            this.capacity = capacity;
+            this.comparator = Objects.requireNonNull(comparator);
+        }
+
+        void offer(T item) {
+            if (size < capacity) {
+                if (size == elements.length) {
+                    elements = Arrays.copyOf(elements, (int) Math.min(capacity, 2L * size));
+                }
+                elements[size] = item;
+                siftUp(size++);
+            } else if (size > 0 && comparator.compare(item, elementAt(0)) > 0) {
+                elements[0] = item;
+                siftDown(0);
+            }
+        }
+
+        BoundedHeap<T> merge(BoundedHeap<T> other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.elementAt(i));
+            }
+            return this;
+        }
+
+        List<T> toSortedList() {
+            List<T> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(elementAt(i));
+            }
+            result.sort(Collections.reverseOrder(comparator));
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T elementAt(int index) {
+            return (T) elements[index];
+        }
+
+        private void siftUp(int index) {
+            T item = elementAt(index);
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                T parentItem = elementAt(parent);
+                if (comparator.compare(item, parentItem) >= 0) {
+                    break;
+                }
+                elements[index] = parentItem;
+                index = parent;
+            }
+            elements[index] = item;
+        }
+
+        private void siftDown(int index) {
+            T item = elementAt(index);
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                int right = child + 1;
+                if (right < size && comparator.compare(elementAt(right), elementAt(child)) < 0) {
+                    child = right;
+                }
+                if (comparator.compare(item, elementAt(child)) <= 0) {
+                    break;
+                }
+                elements[index] = elements[child];
+                index = child;
+            }
+            elements[index] = item;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.codestorykh.generics.advanced;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The codecs returned by the factory methods of {@link ElementCodec}.
+ */
+final class StandardCodecs {
+    static final ElementCodec<Integer> INTS = new ElementCodec<>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer value, ByteBuffer target, int offset) {
+            target.putInt(offset, value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer source, int offset, int length) {
+            return source.getInt(offset);
+        }
+
+        @Override
+        public int compareEncoded(ByteBuffer left, int leftOffset, int leftLength,
+                                  ByteBuffer right, int rightOffset, int rightLength) {
+            return Integer.compare(left.getInt(leftOffset), right.getInt(rightOffset));
+        }
+    };
+
+    static final ElementCodec<Long> LONGS = new ElementCodec<>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(Long value, ByteBuffer target, int offset) {
+            target.putLong(offset, value);
+        }
+
+        @Override
+        public Long decode(ByteBuffer source, int offset, int length) {
+            return source.getLong(offset);
+        }
+
+        @Override
+        public int compareEncoded(ByteBuffer left, int leftOffset, int leftLength,
+                                  ByteBuffer right, int rightOffset, int rightLength) {
+            return Long.compare(left.getLong(leftOffset), right.getLong(rightOffset));
+        }
+    };
+
+    static final ElementCodec<Double> DOUBLES = new ElementCodec<>() {
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void encode(Double value, ByteBuffer target, int offset) {
+            target.putDouble(offset, value);
+        }
+
+        @Override
+        public Double decode(ByteBuffer source, int offset, int length) {
+            return source.getDouble(offset);
+        }
+
+        @Override
+        public int compareEncoded(ByteBuffer left, int leftOffset, int leftLength,
+                                  ByteBuffer right, int rightOffset, int rightLength) {
+            return Double.compare(left.getDouble(leftOffset), right.getDouble(rightOffset));
+        }
+    };
+
+    static final ElementCodec<String> STRINGS = new ElementCodec<>() {
+        @Override
+        public int width() {
+            return VARIABLE_WIDTH;
+        }
+
+        @Override
+        public int encodedSize(String value) {
+            return value.length() * Character.BYTES;
+        }
+
+        @Override
+        public void encode(String value, ByteBuffer target, int offset) {
+            for (int i = 0; i < value.length(); i++) {
+                target.putChar(offset + i * Character.BYTES, value.charAt(i));
+            }
+        }
+
+        @Override
+        public String decode(ByteBuffer source, int offset, int length) {
+            char[] chars = new char[length / Character.BYTES];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = source.getChar(offset + i * Character.BYTES);
+            }
+            return new String(chars);
+        }
+
+        @Override
+        public int compareEncoded(ByteBuffer left, int leftOffset, int leftLength,
+                                  ByteBuffer right, int rightOffset, int rightLength) {
+            int common = Math.min(leftLength, rightLength);
+            for (int i = 0; i < common; i += Character.BYTES) {
+                char a = left.getChar(leftOffset + i);
+                char b = right.getChar(rightOffset + i);
+                if (a != b) {
+                    return a - b;
+                }
+            }
+            return leftLength - rightLength;
+        }
+    };
+
+    private StandardCodecs() {
+    }
+}
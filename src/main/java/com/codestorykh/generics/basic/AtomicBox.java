@@ -0,0 +1,119 @@
+package com.codestorykh.generics.basic;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread-safe generic holder whose content can be swapped atomically.
+ * Mirrors the {@link Box} API and adds lock-free compare-and-set style updates
+ * built on a {@link VarHandle}, so instances can be shared as handoff slots.
+ * @param <T> the type of object to be stored
+ */
+public class AtomicBox<T> {
+    private static final VarHandle CONTENT;
+
+    static {
+        try {
+            CONTENT = MethodHandles.lookup().findVarHandle(AtomicBox.class, "content", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile T content;
+
+    public AtomicBox() {
+    }
+
+    public AtomicBox(T content) {
+        this.content = content;
+    }
+
+    public T getContent() {
+        return content;
+    }
+
+    public void setContent(T content) {
+        this.content = content;
+    }
+
+    public boolean hasContent() {
+        return content != null;
+    }
+
+    public void clear() {
+        content = null;
+    }
+
+    /**
+     * Reads the content with acquire semantics: later reads and writes in this thread
+     * cannot be reordered before it. Pairs with {@link #setRelease(Object)}.
+     */
+    @SuppressWarnings("unchecked")
+    public T getAcquire() {
+        return (T) CONTENT.getAcquire(this);
+    }
+
+    /**
+     * Writes the content with release semantics: earlier reads and writes in this thread
+     * cannot be reordered after it. Cheaper than a volatile write for single-writer handoff.
+     */
+    public void setRelease(T newContent) {
+        CONTENT.setRelease(this, newContent);
+    }
+
+    /**
+     * Atomically sets the content to {@code newContent} if it is currently
+     * the same reference as {@code expected}.
+     */
+    public boolean compareAndSet(T expected, T newContent) {
+        return CONTENT.compareAndSet(this, expected, newContent);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getAndSet(T newContent) {
+        return (T) CONTENT.getAndSet(this, newContent);
+    }
+
+    /**
+     * Atomically replaces the content with the result of the update function and returns
+     * the previous content. The function may be re-applied under contention, so it should
+     * be side-effect free.
+     */
+    public T getAndUpdate(UnaryOperator<T> updateFunction) {
+        T prev;
+        do {
+            prev = content;
+        } while (!CONTENT.weakCompareAndSet(this, prev, updateFunction.apply(prev)));
+        return prev;
+    }
+
+    /**
+     * Same as {@link #getAndUpdate(UnaryOperator)} but returns the updated content.
+     */
+    public T updateAndGet(UnaryOperator<T> updateFunction) {
+        T prev;
+        T next;
+        do {
+            prev = content;
+            next = updateFunction.apply(prev);
+        } while (!CONTENT.weakCompareAndSet(this, prev, next));
+        return next;
+    }
+
+    @Override
+    public String toString() {
+        T current = content;
+        return current != null ? current.toString() : "empty box";
+    }
+
+    // Transforms a snapshot of the current content into a new box
+    public <U> AtomicBox<U> transform(Box.Transformer<T, U> transformer) {
+        T current = content;
+        if (current == null) {
+            return new AtomicBox<>();
+        }
+        return new AtomicBox<>(transformer.transform(current));
+    }
+}
@@ -43,6 +43,14 @@ public class Box<T> {
         return new Box<>(transformer.transform(content));
     }
 
+    /**
+     * Starts a lazy transformation pipeline over this box.
+     * Chained transform calls are fused into one function that runs on {@link BoxPipeline#get()}.
+     */
+    public BoxPipeline<T, T> lazy() {
+        return BoxPipeline.of(this);
+    }
+
     // Functional interface for transformation
     @FunctionalInterface
     public interface Transformer<T, U> {
@@ -0,0 +1,84 @@
+package com.codestorykh.generics.basic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A lazily composed chain of {@link Box.Transformer}s.
+ * Each {@link #transform(Box.Transformer)} call only composes functions; nothing runs
+ * until a terminal method is called, and no intermediate {@link Box} is created.
+ * As with {@link Box#transform(Box.Transformer)}, a null value at any stage short-circuits
+ * the rest of the chain and the result is an empty box.
+ * @param <S> the content type of the source boxes
+ * @param <T> the content type produced by the pipeline
+ */
+public final class BoxPipeline<S, T> {
+    private final Box<S> source;
+    private final Box.Transformer<S, T> function;
+
+    private BoxPipeline(Box<S> source, Box.Transformer<S, T> function) {
+        this.source = source;
+        this.function = function;
+    }
+
+    // Starts an unbound pipeline that can be applied to many boxes
+    public static <S> BoxPipeline<S, S> start() {
+        return new BoxPipeline<>(null, input -> input);
+    }
+
+    // Starts a pipeline bound to a single source box, see Box#lazy()
+    static <S> BoxPipeline<S, S> of(Box<S> source) {
+        return new BoxPipeline<>(source, input -> input);
+    }
+
+    public <U> BoxPipeline<S, U> transform(Box.Transformer<T, U> next) {
+        Box.Transformer<S, T> current = function;
+        return new BoxPipeline<>(source, input -> {
+            T value = current.transform(input);
+            return value == null ? null : next.transform(value);
+        });
+    }
+
+    /**
+     * Runs the pipeline against the bound source box.
+     * @throws IllegalStateException if the pipeline was created with {@link #start()}
+     */
+    public Box<T> get() {
+        if (source == null) {
+            throw new IllegalStateException("Pipeline is not bound to a source box");
+        }
+        return apply(source);
+    }
+
+    // Runs the pipeline against the given box's current content
+    public Box<T> apply(Box<? extends S> box) {
+        return new Box<>(applyTo(box.getContent()));
+    }
+
+    // Runs the pipeline on a raw value, returning null for an empty result
+    public T applyTo(S input) {
+        return input == null ? null : function.transform(input);
+    }
+
+    // Bulk form: one result box per source box, no intermediate boxes per stage
+    public List<Box<T>> applyAll(Box<? extends S>[] boxes) {
+        List<Box<T>> result = new ArrayList<>(boxes.length);
+        for (Box<? extends S> box : boxes) {
+            result.add(apply(box));
+        }
+        return result;
+    }
+
+    public List<Box<T>> applyAll(List<? extends Box<? extends S>> boxes) {
+        List<Box<T>> result = new ArrayList<>(boxes.size());
+        for (Box<? extends S> box : boxes) {
+            result.add(apply(box));
+        }
+        return result;
+    }
+
+    public Stream<Box<T>> applyAll(Stream<? extends Box<? extends S>> boxes) {
+        return boxes.map(this::apply);
+    }
+}
@@ -0,0 +1,81 @@
+package com.codestorykh.generics.basic;
+
+import java.util.function.Supplier;
+
+/**
+ * A generic holder whose content is computed on first access and then cached.
+ * The supplier runs at most once even under contention: reads after initialisation
+ * take a lock-free fast path on a volatile field, and only the first readers
+ * synchronize. Transformations are deferred until the transformed box is read.
+ * @param <T> the type of object to be stored
+ */
+public class LazyBox<T> {
+    private final Object lock = new Object();
+    private Supplier<? extends T> supplier;
+    private volatile boolean computed;
+    private T content;
+
+    public LazyBox(Supplier<? extends T> supplier) {
+        if (supplier == null) {
+            throw new NullPointerException("Supplier must not be null");
+        }
+        this.supplier = supplier;
+    }
+
+    // Creates an already computed box, useful as the start of a deferred chain
+    public static <T> LazyBox<T> of(T content) {
+        LazyBox<T> box = new LazyBox<>(() -> content);
+        box.getContent();
+        return box;
+    }
+
+    public T getContent() {
+        // Fast path: the volatile read of computed publishes content
+        if (computed) {
+            return content;
+        }
+        synchronized (lock) {
+            if (!computed) {
+                content = supplier.get();
+                // Drop the supplier so anything it captured can be collected
+                supplier = null;
+                computed = true;
+            }
+            return content;
+        }
+    }
+
+    public boolean hasContent() {
+        return getContent() != null;
+    }
+
+    // Returns true once the supplier has run, without triggering it
+    public boolean isComputed() {
+        return computed;
+    }
+
+    /**
+     * Returns a box whose content is this box's content passed through the transformer.
+     * Nothing runs until the returned box is read; an empty source yields an empty box
+     * without calling the transformer, as with {@link Box#transform(Box.Transformer)}.
+     */
+    public <U> LazyBox<U> transform(Box.Transformer<T, U> transformer) {
+        return new LazyBox<>(() -> {
+            T current = getContent();
+            return current == null ? null : transformer.transform(current);
+        });
+    }
+
+    // Materializes the content into a plain Box
+    public Box<T> toBox() {
+        return new Box<>(getContent());
+    }
+
+    @Override
+    public String toString() {
+        if (!computed) {
+            return "lazy box";
+        }
+        return content != null ? content.toString() : "empty box";
+    }
+}
@@ -3,13 +3,21 @@ package com.codestorykh.taskmanager;
 import com.codestorykh.taskmanager.model.Task;
 import com.codestorykh.taskmanager.model.TaskPriority;
 import com.codestorykh.taskmanager.service.TaskManager;
+import com.codestorykh.taskmanager.service.WorkerResource;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class TaskManagerDemo {
+    private static final Pattern WORD = Pattern.compile("\\S+");
+    // Matchers are not thread-safe, so each worker keeps its own
+    private static final WorkerResource<Matcher> WORDS = WorkerResource.of(() -> WORD.matcher(""));
+
     public static void main(String[] args) {
         TaskManager taskManager = new TaskManager();
 
@@ -20,7 +28,16 @@ public class TaskManagerDemo {
                 "Word Count",
                 TaskPriority.HIGH,
                 "Hello World! Welcome to Task Management",
-                input -> input.split("\\s+").length
+                WORDS,
+                (matcher, input) -> {
+                    // Reuses the worker's matcher instead of compiling the pattern per task
+                    matcher.reset(input);
+                    int words = 0;
+                    while (matcher.find()) {
+                        words++;
+                    }
+                    return words;
+                }
             );
 
             // Example 2: Number processing task
@@ -94,8 +111,24 @@ public class TaskManagerDemo {
                 System.out.println("Task failed as expected: " + e.getCause().getMessage());
             }
 
+            // Example 6: Asynchronous I/O-style task
+            System.out.println("\nCreating asynchronous lookup task...");
+            Task<String, String> lookupTask = taskManager.submitAsyncTask(
+                "Async Lookup",
+                TaskPriority.MEDIUM,
+                "user-42",
+                key -> CompletableFuture.supplyAsync(
+                    () -> "profile of " + key,
+                    CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS))
+            );
+            CompletableFuture<String> lookupFuture = taskManager.executeTask(lookupTask);
+            System.out.println("Lookup status while waiting: " + lookupTask.getStatus());
+            System.out.println("Lookup result: " + lookupFuture.get());
+
         } catch (InterruptedException | ExecutionException e) {
             System.out.println("Error occurred: " + e.getMessage());
+        } finally {
+            taskManager.shutdown();
         }
     }
 
@@ -0,0 +1,824 @@
+package com.codestorykh.taskmanager.cluster;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+import com.codestorykh.taskmanager.service.TaskManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * One member of a TaskManager cluster.
+ *
+ * Task IDs are partitioned over the members by a {@link ConsistentHashRing}. A task submitted
+ * on any node is forwarded to the owner of its ID, which queues it, runs it through its local
+ * {@link TaskManager} and answers status lookups for it. Members find each other through seed
+ * nodes: a joining node asks a seed for the member list and the seed announces the newcomer to
+ * everyone else. Every heartbeat PING carries the sender's member list, so views converge even
+ * when announcements are missed: a node adds a sender it does not know, and probes listed members
+ * it does not know, adding them once they answer. A member is dropped after several missed
+ * heartbeats or an unreachable owner on submit, and is probed for a while afterwards so that it
+ * rejoins once it is reachable again; an ERROR reply means the member is alive.
+ * When membership changes, each node hands queued and finished tasks whose
+ * partition moved over to the new owner; running tasks follow once they finish.
+ * A node with free workers and an empty queue steals queued tasks from a random peer. The
+ * owner reports a lent task as RUNNING and records it in its TaskManager with the result the
+ * thief sends back; if the thief does not answer in time or drops out of the ring, the owner
+ * still holds the input and puts the task back in its queue.
+ * Finished tasks are kept for status lookups for a limited time and up to a limited number.
+ *
+ * Processors cannot be sent over the wire, so every node must register the same named
+ * processors with {@link #registerProcessor}. Inputs and outputs are byte arrays.
+ * Tasks held by a node that crashes are lost; a node leaving through {@link #close()}
+ * hands its tasks off first.
+ */
+public class ClusterNode implements AutoCloseable {
+    private static final int MAX_HOPS = 2;
+    private static final long REQUEST_TIMEOUT_MILLIS = 5_000;
+    private static final long STEAL_TIMEOUT_MILLIS = 60_000;
+    // How long, and how many, finished tasks are kept for status lookups
+    private static final long FINISHED_RETENTION_MILLIS = 10 * 60_000;
+    private static final int MAX_FINISHED_TASKS = 100_000;
+    private static final long HEARTBEAT_MILLIS = 1_000;
+    private static final int MISSES_BEFORE_DOWN = 3;
+    // How long a member dropped as unreachable is probed before it is forgotten
+    private static final long REPROBE_MILLIS = 5 * 60_000;
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private final TaskManager taskManager;
+    private final int maxRunning;
+    private final Map<String, Function<byte[], byte[]>> processors = new ConcurrentHashMap<>();
+    private final Map<String, ClusterTask> tasks = new ConcurrentHashMap<>();
+    private final Deque<ClusterTask> queue = new ConcurrentLinkedDeque<>();
+    // Finished tasks in completion order, the only ones evicted from tasks
+    private final Queue<ClusterTask> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedCount = new AtomicInteger();
+    private final Map<NodeAddress, PeerConnection> peers = new ConcurrentHashMap<>();
+    // Consecutive heartbeats each member failed to answer
+    private final Map<NodeAddress, Integer> missedHeartbeats = new ConcurrentHashMap<>();
+    // Members dropped as unreachable, with the time they were dropped
+    private final Map<NodeAddress, Long> unreachableSince = new ConcurrentHashMap<>();
+    private final Set<NodeAddress> probing = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger running = new AtomicInteger();
+    private final ExecutorService workers;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder stolenByPeers = new LongAdder();
+    private final LongAdder executedForPeers = new LongAdder();
+    private final LongAdder transferredOut = new LongAdder();
+    private final LongAdder transferredIn = new LongAdder();
+    private volatile NodeAddress self;
+    private volatile ConsistentHashRing ring;
+    private volatile ClusterServer server;
+    private volatile boolean closing;
+
+    /**
+     * @param address host and port to listen on; port 0 picks a free port
+     * @param taskManager runs the tasks this node owns
+     * @param maxRunning number of tasks this node executes at the same time
+     */
+    public ClusterNode(NodeAddress address, TaskManager taskManager, int maxRunning) {
+        if (maxRunning < 1) {
+            throw new IllegalArgumentException("Max running must be positive: " + maxRunning);
+        }
+        this.self = address;
+        this.taskManager = taskManager;
+        this.maxRunning = maxRunning;
+        this.workers = Executors.newFixedThreadPool(maxRunning, daemonThreads("cluster-worker"));
+        this.handlers = Executors.newCachedThreadPool(daemonThreads("cluster-handler"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("cluster-heartbeat"));
+        this.ring = new ConsistentHashRing(List.of(address));
+    }
+
+    // Makes a processor available to tasks submitted under this name on any node
+    public void registerProcessor(String processorName, Function<byte[], byte[]> processor) {
+        processors.put(processorName, processor);
+    }
+
+    /**
+     * Starts listening and joins the cluster through the first reachable seed.
+     * Without reachable seeds the node starts a cluster of its own.
+     */
+    public void start(List<NodeAddress> seeds) throws IOException {
+        ClusterServer started = new ClusterServer(new InetSocketAddress(self.host(), self.port()),
+            this::handle, handlers);
+        this.server = started;
+        if (self.port() == 0) {
+            self = new NodeAddress(self.host(), started.getPort());
+        }
+        this.ring = new ConsistentHashRing(List.of(self));
+        for (NodeAddress seed : seeds) {
+            if (!seed.equals(self) && join(seed)) {
+                break;
+            }
+        }
+        scheduler.scheduleWithFixedDelay(this::heartbeat, HEARTBEAT_MILLIS, HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::stealIfIdle, 100, 100, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean join(NodeAddress seed) {
+        try {
+            Frame members = connection(seed).request(MessageType.JOIN, new Frame.Writer().writeString(self.toString()))
+                .get(REQUEST_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            int count = members.readInt();
+            ConsistentHashRing joined = ring;
+            for (int i = 0; i < count; i++) {
+                joined = joined.with(NodeAddress.parse(members.readString()));
+            }
+            this.ring = joined;
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Submits a task to the cluster and returns its ID once the owning node has accepted it.
+     * The future fails with RejectedExecutionException if the nodes could not agree on an owner
+     * within the allowed number of forwards, for example while membership is changing.
+     */
+    public CompletableFuture<String> submit(String name, TaskPriority priority, String processorName, byte[] input) {
+        ClusterTask task = new ClusterTask(UUID.randomUUID().toString(), name, priority, processorName, input);
+        return route(task, 0).thenApply(accepted -> task.id);
+    }
+
+    private CompletableFuture<Void> route(ClusterTask task, int hops) {
+        NodeAddress owner = ring.ownerOf(task.id);
+        if (owner.equals(self)) {
+            accept(task);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (hops >= MAX_HOPS) {
+            // Owning the task only because the hops ran out would split its partition
+            return CompletableFuture.failedFuture(new RejectedExecutionException(String.format(
+                "Task %s not accepted: %s routes it to %s after %d hops", task.id, self, owner, hops)));
+        }
+        forwarded.increment();
+        return request(owner, MessageType.SUBMIT, task.write(new Frame.Writer()).writeByte(hops + 1))
+            .handle((response, error) -> {
+                if (error == null) {
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                if (cause instanceof PeerErrorException) {
+                    // The owner is alive and refused the task
+                    return CompletableFuture.<Void>failedFuture(cause);
+                }
+                // The owner is unreachable: drop it until it answers again and route again
+                memberDown(owner, true);
+                return route(task, hops + 1);
+            })
+            .thenCompose(result -> result);
+    }
+
+    /**
+     * Looks up a task on the node that owns it; empty if no node knows the ID.
+     */
+    public CompletableFuture<Optional<ClusterTaskStatus>> getStatus(String taskId) {
+        NodeAddress owner = ring.ownerOf(taskId);
+        if (owner.equals(self)) {
+            return CompletableFuture.completedFuture(localStatus(taskId));
+        }
+        return request(owner, MessageType.STATUS, new Frame.Writer().writeString(taskId))
+            .thenApply(response -> {
+                if (response.readByte() == 0) {
+                    return Optional.empty();
+                }
+                TaskStatus status = STATUSES[response.readByte()];
+                return Optional.of(new ClusterTaskStatus(taskId, owner, status, response.readBytes(),
+                    response.readString()));
+            });
+    }
+
+    private Optional<ClusterTaskStatus> localStatus(String taskId) {
+        ClusterTask task = tasks.get(taskId);
+        if (task == null) {
+            return Optional.empty();
+        }
+        Task<byte[], byte[]> local = task.task;
+        if (task.finishedStatus != null) {
+            return Optional.of(new ClusterTaskStatus(taskId, self, task.finishedStatus, task.result, task.error));
+        }
+        if (local == null) {
+            TaskStatus status = task.remote != null ? TaskStatus.RUNNING : TaskStatus.PENDING;
+            return Optional.of(new ClusterTaskStatus(taskId, self, status, null, null));
+        }
+        return Optional.of(new ClusterTaskStatus(taskId, self, local.getStatus(), local.getResult(),
+            local.getErrorMessage()));
+    }
+
+    // Queues a task this node owns
+    private void accept(ClusterTask task) {
+        tasks.put(task.id, task);
+        queue.offer(task);
+        drain();
+    }
+
+    private void drain() {
+        while (!closing && !queue.isEmpty() && tryAcquire()) {
+            ClusterTask next = queue.pollFirst();
+            if (next == null) {
+                running.decrementAndGet();
+                continue;
+            }
+            start(next, null);
+        }
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = running.get();
+            if (current >= maxRunning) {
+                return false;
+            }
+            if (running.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Registers the task with the local TaskManager and starts it, either on a local worker or,
+     * for a stolen task, completed by the thief's result.
+     */
+    private void start(ClusterTask task, CompletableFuture<byte[]> remote) {
+        task.remote = remote;
+        CompletableFuture<byte[]> done;
+        try {
+            Task<byte[], byte[]> local = taskManager.submitAsyncTask(task.id, task.name, task.priority, task.input,
+                input -> task.remote != null ? task.remote
+                    : CompletableFuture.supplyAsync(() -> process(task), workers));
+            task.task = local;
+            done = taskManager.executeTask(local);
+        } catch (RuntimeException e) {
+            task.finish(TaskStatus.FAILED, null, e.getMessage());
+            done = CompletableFuture.failedFuture(e);
+        }
+        done.whenComplete((result, error) -> {
+            if (remote == null) {
+                running.decrementAndGet();
+            }
+            retain(task);
+            if (!self.equals(ring.ownerOf(task.id))) {
+                // The partition moved while the task ran
+                transfer(task);
+            }
+            drain();
+        });
+    }
+
+    private byte[] process(ClusterTask task) {
+        Function<byte[], byte[]> processor = processors.get(task.processorName);
+        if (processor == null) {
+            throw new IllegalStateException("No processor registered under '" + task.processorName + "' on " + self);
+        }
+        return processor.apply(task.input);
+    }
+
+    // Runs when queued on this node and the free workers of another node are idle
+    private void stealIfIdle() {
+        if (closing || !queue.isEmpty()) {
+            return;
+        }
+        int free = maxRunning - running.get();
+        List<NodeAddress> others = new ArrayList<>(ring.getMembers());
+        others.remove(self);
+        if (free <= 0 || others.isEmpty()) {
+            return;
+        }
+        NodeAddress victim = others.get(ThreadLocalRandom.current().nextInt(others.size()));
+        request(victim, MessageType.STEAL, new Frame.Writer().writeInt(free).writeString(self.toString()))
+            .thenAccept(response -> {
+                int count = response.readInt();
+                for (int i = 0; i < count; i++) {
+                    runStolen(victim, ClusterTask.read(response));
+                }
+            });
+    }
+
+    private void runStolen(NodeAddress owner, ClusterTask task) {
+        running.incrementAndGet();
+        executedForPeers.increment();
+        CompletableFuture.supplyAsync(() -> process(task), workers).whenComplete((result, error) -> {
+            running.decrementAndGet();
+            Frame.Writer completion = new Frame.Writer().writeString(task.id);
+            if (error == null) {
+                completion.writeByte(1).writeBytes(result);
+            } else {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                completion.writeByte(0).writeString(String.valueOf(cause.getMessage()));
+            }
+            request(owner, MessageType.COMPLETE, completion);
+            drain();
+        });
+    }
+
+    /**
+     * Hands tasks whose partition now belongs to another node over to that node.
+     * Running tasks are handed over when they finish.
+     */
+    private void rebalance() {
+        for (ClusterTask task : tasks.values()) {
+            if (self.equals(ring.ownerOf(task.id))) {
+                continue;
+            }
+            if (task.task == null && task.finishedStatus == null) {
+                if (queue.remove(task)) {
+                    transfer(task);
+                }
+            } else if (task.isFinished()) {
+                transfer(task);
+            }
+        }
+    }
+
+    private void transfer(ClusterTask task) {
+        NodeAddress owner = ring.ownerOf(task.id);
+        if (owner == null || owner.equals(self)) {
+            return;
+        }
+        Frame.Writer payload = task.write(new Frame.Writer());
+        if (task.isFinished()) {
+            payload.writeByte(task.status().ordinal()).writeBytes(task.resultBytes()).writeString(task.errorMessage());
+        } else {
+            payload.writeByte(-1);
+        }
+        request(owner, MessageType.TRANSFER, payload).whenComplete((response, error) -> {
+            if (error == null) {
+                tasks.remove(task.id, task);
+                transferredOut.increment();
+            } else if (!task.isFinished() && task.task == null) {
+                // Keep a queued task runnable here if the new owner could not take it
+                queue.offer(task);
+                drain();
+            }
+        });
+    }
+
+    /**
+     * Pings every member with this node's member list. A member is dropped after
+     * MISSES_BEFORE_DOWN consecutive unanswered pings; members dropped that way are probed
+     * until they answer or REPROBE_MILLIS have passed.
+     */
+    private void heartbeat() {
+        if (closing) {
+            return;
+        }
+        evictFinished();
+        for (NodeAddress member : ring.getMembers()) {
+            if (member.equals(self)) {
+                continue;
+            }
+            request(member, MessageType.PING, membersPayload()).whenComplete((response, error) -> {
+                if (error == null || error instanceof PeerErrorException
+                    || error.getCause() instanceof PeerErrorException) {
+                    missedHeartbeats.remove(member);
+                } else if (missedHeartbeats.merge(member, 1, Integer::sum) >= MISSES_BEFORE_DOWN) {
+                    memberDown(member, true);
+                }
+            });
+        }
+        long now = System.currentTimeMillis();
+        unreachableSince.forEach((member, since) -> {
+            if (now - since > REPROBE_MILLIS) {
+                unreachableSince.remove(member, since);
+            } else {
+                probe(member);
+            }
+        });
+    }
+
+    // This node's address followed by every member it knows
+    private Frame.Writer membersPayload() {
+        ConsistentHashRing current = ring;
+        Frame.Writer payload = new Frame.Writer().writeString(self.toString()).writeInt(current.getMembers().size());
+        current.getMembers().forEach(member -> payload.writeString(member.toString()));
+        return payload;
+    }
+
+    // Adds the node if it answers a ping
+    private void probe(NodeAddress member) {
+        if (closing || member.equals(self) || ring.contains(member) || !probing.add(member)) {
+            return;
+        }
+        request(member, MessageType.PING, membersPayload()).whenComplete((response, error) -> {
+            probing.remove(member);
+            if (error == null) {
+                memberUp(member);
+            }
+        });
+    }
+
+    // A ping tells the receiver about the sender and, through the sender's member list, about the rest
+    private void receivePing(Frame request) {
+        if (closing) {
+            throw new IllegalStateException(self + " is leaving the cluster");
+        }
+        NodeAddress sender = NodeAddress.parse(request.readString());
+        memberUp(sender);
+        int count = request.readInt();
+        for (int i = 0; i < count; i++) {
+            probe(NodeAddress.parse(request.readString()));
+        }
+    }
+
+    private void memberUp(NodeAddress member) {
+        unreachableSince.remove(member);
+        missedHeartbeats.remove(member);
+        if (!closing && !member.equals(self) && !ring.contains(member)) {
+            synchronized (this) {
+                ring = ring.with(member);
+            }
+            rebalance();
+        }
+    }
+
+    /**
+     * Removes a member from the ring. A member that left on its own is forgotten; one dropped
+     * as unreachable is probed until it answers again.
+     */
+    private void memberDown(NodeAddress member, boolean unreachable) {
+        if (!member.equals(self) && ring.contains(member)) {
+            synchronized (this) {
+                ring = ring.without(member);
+            }
+            missedHeartbeats.remove(member);
+            if (unreachable) {
+                unreachableSince.put(member, System.currentTimeMillis());
+            }
+            PeerConnection connection = peers.remove(member);
+            if (connection != null) {
+                connection.close();
+            }
+            reclaimLentTo(member);
+        }
+    }
+
+    // Dispatches an incoming request; runs on a handler thread
+    private CompletableFuture<Frame> handle(Frame request) {
+        int id = request.correlationId();
+        switch (request.type()) {
+            case JOIN -> {
+                NodeAddress joining = NodeAddress.parse(request.readString());
+                for (NodeAddress member : ring.getMembers()) {
+                    if (!member.equals(self) && !member.equals(joining)) {
+                        request(member, MessageType.MEMBER_UP, new Frame.Writer().writeString(joining.toString()));
+                    }
+                }
+                memberUp(joining);
+                Frame.Writer members = new Frame.Writer().writeInt(ring.getMembers().size());
+                ring.getMembers().forEach(member -> members.writeString(member.toString()));
+                return CompletableFuture.completedFuture(Frame.of(MessageType.MEMBERS, id, members));
+            }
+            case MEMBER_UP -> memberUp(NodeAddress.parse(request.readString()));
+            case MEMBER_DOWN -> {
+                NodeAddress leaving = NodeAddress.parse(request.readString());
+                unreachableSince.remove(leaving);
+                memberDown(leaving, false);
+            }
+            case SUBMIT -> {
+                ClusterTask task = ClusterTask.read(request);
+                return route(task, request.readByte()).thenApply(accepted -> Frame.empty(MessageType.ACK, id));
+            }
+            case TRANSFER -> receiveTransfer(ClusterTask.read(request), request);
+            case STATUS -> {
+                Frame.Writer status = new Frame.Writer();
+                localStatus(request.readString()).ifPresentOrElse(
+                    found -> status.writeByte(1).writeByte(found.status().ordinal())
+                        .writeBytes(found.result()).writeString(found.errorMessage()),
+                    () -> status.writeByte(0));
+                return CompletableFuture.completedFuture(Frame.of(MessageType.STATUS_RESULT, id, status));
+            }
+            case STEAL -> {
+                int max = request.readInt();
+                NodeAddress thief = NodeAddress.parse(request.readString());
+                return CompletableFuture.completedFuture(Frame.of(MessageType.STOLEN, id, giveAway(max, thief)));
+            }
+            case COMPLETE -> {
+                ClusterTask task = tasks.get(request.readString());
+                boolean succeeded = request.readByte() == 1;
+                if (task != null && task.remote != null) {
+                    if (succeeded) {
+                        task.remote.complete(request.readBytes());
+                    } else {
+                        task.remote.completeExceptionally(new RuntimeException(request.readString()));
+                    }
+                }
+            }
+            case PING -> receivePing(request);
+            default -> throw new IllegalArgumentException("Unexpected request: " + request.type());
+        }
+        return CompletableFuture.completedFuture(Frame.empty(MessageType.ACK, id));
+    }
+
+    private void receiveTransfer(ClusterTask task, Frame request) {
+        transferredIn.increment();
+        byte status = request.readByte();
+        if (status < 0) {
+            accept(task);
+            return;
+        }
+        task.finish(STATUSES[status], request.readBytes(), request.readString());
+        tasks.put(task.id, task);
+        retain(task);
+    }
+
+    // Takes queued tasks from the back of the queue and marks them as running remotely
+    private Frame.Writer giveAway(int max, NodeAddress thief) {
+        List<ClusterTask> stolen = new ArrayList<>();
+        while (!closing && stolen.size() < max) {
+            ClusterTask task = queue.pollLast();
+            if (task == null) {
+                break;
+            }
+            stolen.add(task);
+        }
+        Frame.Writer payload = new Frame.Writer().writeInt(stolen.size());
+        for (ClusterTask task : stolen) {
+            stolenByPeers.increment();
+            task.write(payload);
+            lend(task, thief);
+        }
+        return payload;
+    }
+
+    /**
+     * Marks a task as running on the thief. It is started on the local TaskManager only once
+     * the thief's result arrives; on a timeout, or when the thief leaves the ring, it goes back
+     * to the front of the queue, since this node still holds its input.
+     */
+    private void lend(ClusterTask task, NodeAddress thief) {
+        CompletableFuture<byte[]> remote = new CompletableFuture<byte[]>()
+            .orTimeout(STEAL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        task.lentTo = thief;
+        task.remote = remote;
+        remote.whenComplete((result, error) -> {
+            task.lentTo = null;
+            if (error instanceof TimeoutException) {
+                task.remote = null;
+                queue.offerFirst(task);
+                drain();
+            } else {
+                start(task, remote);
+            }
+        });
+    }
+
+    // Takes back the tasks lent to a member that left the ring
+    private void reclaimLentTo(NodeAddress member) {
+        for (ClusterTask task : tasks.values()) {
+            CompletableFuture<byte[]> remote = task.remote;
+            if (member.equals(task.lentTo) && remote != null) {
+                remote.completeExceptionally(new TimeoutException("Thief " + member + " left the cluster"));
+            }
+        }
+    }
+
+    /**
+     * Queues a finished task for eviction and evicts the ones finished longer than
+     * FINISHED_RETENTION_MILLIS ago or beyond MAX_FINISHED_TASKS, oldest first.
+     */
+    private void retain(ClusterTask task) {
+        task.finishedAtMillis = System.currentTimeMillis();
+        finished.offer(task);
+        finishedCount.incrementAndGet();
+        evictFinished();
+    }
+
+    private void evictFinished() {
+        long expired = System.currentTimeMillis() - FINISHED_RETENTION_MILLIS;
+        ClusterTask oldest;
+        while ((oldest = finished.peek()) != null
+            && (oldest.finishedAtMillis < expired || finishedCount.get() > MAX_FINISHED_TASKS)) {
+            if (finished.remove(oldest)) {
+                finishedCount.decrementAndGet();
+                tasks.remove(oldest.id, oldest);
+            }
+        }
+    }
+
+    private CompletableFuture<Frame> request(NodeAddress peer, MessageType type, Frame.Writer payload) {
+        try {
+            return connection(peer).request(type, payload);
+        } catch (UncheckedIOException e) {
+            return CompletableFuture.failedFuture(e.getCause());
+        }
+    }
+
+    private PeerConnection connection(NodeAddress peer) {
+        PeerConnection existing = peers.get(peer);
+        if (existing != null && !existing.isClosed()) {
+            return existing;
+        }
+        return peers.compute(peer, (address, current) -> {
+            if (current != null && !current.isClosed()) {
+                return current;
+            }
+            try {
+                return new PeerConnection(address, REQUEST_TIMEOUT_MILLIS,
+                    closed -> peers.remove(closed.getPeer(), closed));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public NodeAddress getAddress() {
+        return self;
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    public TaskManager getTaskManager() {
+        return taskManager;
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(ring.getMembers().size(), tasks.size(), queue.size(), running.get(),
+            forwarded.sum(), stolenByPeers.sum(), executedForPeers.sum(), transferredOut.sum(), transferredIn.sum());
+    }
+
+    /**
+     * Leaves the cluster: announces the departure, hands queued and finished tasks to their
+     * new owners, waits up to the request timeout for running tasks and then stops.
+     */
+    @Override
+    public void close() {
+        closing = true;
+        List<CompletableFuture<Frame>> announcements = new ArrayList<>();
+        for (NodeAddress member : ring.getMembers()) {
+            if (!member.equals(self)) {
+                announcements.add(request(member, MessageType.MEMBER_DOWN,
+                    new Frame.Writer().writeString(self.toString())));
+            }
+        }
+        awaitQuietly(CompletableFuture.allOf(announcements.toArray(CompletableFuture[]::new)));
+        synchronized (this) {
+            ring = ring.without(self);
+        }
+        if (!ring.getMembers().isEmpty()) {
+            // Queued and finished tasks move now; running ones move as they complete
+            rebalance();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REQUEST_TIMEOUT_MILLIS);
+            while (!tasks.isEmpty() && System.nanoTime() < deadline) {
+                sleepQuietly();
+            }
+        }
+        stop();
+    }
+
+    // Stops without announcing the departure or handing off tasks, as if the process had died
+    void halt() {
+        closing = true;
+        stop();
+    }
+
+    private void stop() {
+        scheduler.shutdownNow();
+        ClusterServer current = server;
+        if (current != null) {
+            current.close();
+        }
+        peers.values().forEach(PeerConnection::close);
+        workers.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private static void awaitQuietly(CompletableFuture<?> future) {
+        try {
+            future.get(REQUEST_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Members that did not answer will notice through the heartbeat
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Snapshot of the node's share of the cluster.
+     *
+     * @param members number of nodes this node currently sees
+     * @param ownedTasks tasks this node owns, in any state
+     * @param queuedTasks owned tasks waiting for a worker
+     * @param runningTasks tasks running on this node's workers, including stolen ones
+     * @param forwardedSubmissions submissions routed to another owner
+     * @param stolenByPeers owned tasks executed by other nodes
+     * @param executedForPeers tasks stolen from other nodes and executed here
+     * @param transferredOut tasks handed to a new owner after a membership change
+     * @param transferredIn tasks received from a previous owner
+     */
+    public record Statistics(int members, int ownedTasks, int queuedTasks, int runningTasks,
+                             long forwardedSubmissions, long stolenByPeers, long executedForPeers,
+                             long transferredOut, long transferredIn) {
+    }
+
+    /**
+     * A task as known to its owner. Exactly one of the following holds: it is queued, it is
+     * lent to a thief, it was started on the local TaskManager, or it arrived already finished
+     * from a previous owner.
+     */
+    private static final class ClusterTask {
+        private final String id;
+        private final String name;
+        private final TaskPriority priority;
+        private final String processorName;
+        private final byte[] input;
+        private volatile Task<byte[], byte[]> task;
+        private volatile CompletableFuture<byte[]> remote;
+        // The node running a lent task, null once its result arrived or it was taken back
+        private volatile NodeAddress lentTo;
+        private volatile long finishedAtMillis;
+        private volatile TaskStatus finishedStatus;
+        private volatile byte[] result;
+        private volatile String error;
+
+        ClusterTask(String id, String name, TaskPriority priority, String processorName, byte[] input) {
+            this.id = id;
+            this.name = name;
+            this.priority = priority;
+            this.processorName = processorName;
+            this.input = input;
+        }
+
+        Frame.Writer write(Frame.Writer writer) {
+            return writer.writeString(id).writeString(name).writeByte(priority.ordinal())
+                .writeString(processorName).writeBytes(input);
+        }
+
+        static ClusterTask read(Frame frame) {
+            return new ClusterTask(frame.readString(), frame.readString(), PRIORITIES[frame.readByte()],
+                frame.readString(), frame.readBytes());
+        }
+
+        void finish(TaskStatus status, byte[] output, String errorMessage) {
+            this.result = output;
+            this.error = errorMessage;
+            this.finishedStatus = status;
+        }
+
+        boolean isFinished() {
+            if (finishedStatus != null) {
+                return true;
+            }
+            Task<byte[], byte[]> local = task;
+            return local != null && (local.getStatus() == TaskStatus.COMPLETED || local.getStatus() == TaskStatus.FAILED);
+        }
+
+        TaskStatus status() {
+            return finishedStatus != null ? finishedStatus : task.getStatus();
+        }
+
+        byte[] resultBytes() {
+            return finishedStatus != null ? result : task.getResult();
+        }
+
+        String errorMessage() {
+            return finishedStatus != null ? error : task.getErrorMessage();
+        }
+    }
+}
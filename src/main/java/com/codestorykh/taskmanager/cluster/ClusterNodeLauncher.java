@@ -0,0 +1,98 @@
+package com.codestorykh.taskmanager.cluster;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+import com.codestorykh.taskmanager.service.TaskManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Starts one cluster node in its own JVM, for trying a cluster out on localhost:
+ * <pre>
+ * java ... ClusterNodeLauncher 7001
+ * java ... ClusterNodeLauncher 7002 localhost:7001
+ * java ... ClusterNodeLauncher 7003 localhost:7001 --submit 200
+ * </pre>
+ * With {@code --submit N} the node submits N tasks, waits until all of them finished
+ * anywhere in the cluster and prints its statistics. Otherwise it runs until stopped and
+ * hands its tasks off on shutdown.
+ */
+public class ClusterNodeLauncher {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: ClusterNodeLauncher <port> [seedHost:seedPort ...] [--submit <count>]");
+            System.exit(1);
+        }
+        int port = Integer.parseInt(args[0]);
+        List<NodeAddress> seeds = new ArrayList<>();
+        int submit = 0;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--submit")) {
+                submit = Integer.parseInt(args[++i]);
+            } else {
+                seeds.add(NodeAddress.parse(args[i]));
+            }
+        }
+
+        ClusterNode node = new ClusterNode(new NodeAddress("localhost", port), new TaskManager(),
+            Runtime.getRuntime().availableProcessors());
+        registerProcessors(node);
+        node.start(seeds);
+        Runtime.getRuntime().addShutdownHook(new Thread(node::close));
+        System.out.println("Node " + node.getAddress() + " started, members: " + node.getRing().getMembers());
+
+        if (submit > 0) {
+            submitAndWait(node, submit);
+            System.out.println(node.getStatistics());
+            node.close();
+            System.exit(0);
+        }
+        while (true) {
+            Thread.sleep(5_000);
+            System.out.println(node.getStatistics());
+        }
+    }
+
+    private static void registerProcessors(ClusterNode node) {
+        node.registerProcessor("uppercase", input ->
+            new String(input, StandardCharsets.UTF_8).toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        // Simulates work of the given number of milliseconds
+        node.registerProcessor("sleep", input -> {
+            try {
+                Thread.sleep(ByteBuffer.wrap(input).getInt());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted");
+            }
+            return input;
+        });
+    }
+
+    private static void submitAndWait(ClusterNode node, int count) throws Exception {
+        long start = System.nanoTime();
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] millis = ByteBuffer.allocate(4).putInt(20).array();
+            ids.add(node.submit("sleep-" + i, TaskPriority.MEDIUM, "sleep", millis).get());
+        }
+        int finished = 0;
+        while (finished < count) {
+            Thread.sleep(100);
+            finished = 0;
+            for (String id : ids) {
+                Optional<ClusterTaskStatus> status = node.getStatus(id).get();
+                if (status.isPresent() && (status.get().status() == TaskStatus.COMPLETED
+                    || status.get().status() == TaskStatus.FAILED)) {
+                    finished++;
+                }
+            }
+        }
+        System.out.printf("%d tasks finished in %d ms%n", count, (System.nanoTime() - start) / 1_000_000);
+    }
+}
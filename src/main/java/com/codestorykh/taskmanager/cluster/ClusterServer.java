@@ -0,0 +1,187 @@
+package com.codestorykh.taskmanager.cluster;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Non-blocking server side of the cluster protocol. One selector thread accepts connections,
+ * reads frames and writes responses; requests are handled on the given executor, so a handler
+ * that forwards to another node never stalls the selector.
+ */
+class ClusterServer implements AutoCloseable {
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Function<Frame, CompletableFuture<Frame>> handler;
+    private final Executor handlerExecutor;
+    // Responses completed on handler threads, handed to the selector thread
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+    private final Thread selectorThread;
+    private volatile boolean closed;
+
+    ClusterServer(InetSocketAddress bindAddress, Function<Frame, CompletableFuture<Frame>> handler,
+                  Executor handlerExecutor) throws IOException {
+        this.handler = handler;
+        this.handlerExecutor = handlerExecutor;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(bindAddress);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.selectorThread = new Thread(this::selectLoop, "cluster-server-" + bindAddress.getPort());
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void selectLoop() {
+        try {
+            while (!closed) {
+                selector.select();
+                Runnable task;
+                while ((task = selectorTasks.poll()) != null) {
+                    task.run();
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) {
+                                read(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(key);
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        closeConnection(key);
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // Server is shutting down
+        } finally {
+            release();
+        }
+    }
+
+    private void release() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException | ClosedSelectorException e) {
+            // Best effort during shutdown
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection());
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        if (channel.read(connection.readBuffer) < 0) {
+            closeConnection(key);
+            return;
+        }
+        connection.readBuffer.flip();
+        Frame request;
+        while ((request = Frame.read(connection.readBuffer)) != null) {
+            Frame current = request;
+            CompletableFuture.supplyAsync(() -> handler.apply(current), handlerExecutor)
+                .thenCompose(response -> response)
+                .exceptionally(error -> errorFrame(current, error))
+                .thenAccept(response -> respond(key, response));
+        }
+        connection.readBuffer.compact();
+        if (!connection.readBuffer.hasRemaining()) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.min(Frame.MAX_FRAME_BYTES + 4,
+                connection.readBuffer.capacity() * 2));
+            connection.readBuffer.flip();
+            connection.readBuffer = larger.put(connection.readBuffer);
+        }
+    }
+
+    private static Frame errorFrame(Frame request, Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return Frame.of(MessageType.ERROR, request.correlationId(),
+            new Frame.Writer().writeString(String.valueOf(cause.getMessage())));
+    }
+
+    private void respond(SelectionKey key, Frame response) {
+        ByteBuffer encoded = response.encode();
+        selectorTasks.add(() -> {
+            if (!key.isValid()) {
+                return;
+            }
+            ((Connection) key.attachment()).writeQueue.add(encoded);
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        });
+        selector.wakeup();
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer next;
+        while ((next = connection.writeQueue.peek()) != null) {
+            channel.write(next);
+            if (next.hasRemaining()) {
+                // Socket buffer is full; continue when it is writable again
+                return;
+            }
+            connection.writeQueue.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void closeConnection(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    @Override
+    public void close() {
+        // The selector thread releases the channels once it sees the flag
+        closed = true;
+        selector.wakeup();
+    }
+
+    // Per-connection buffers, only touched by the selector thread
+    private static final class Connection {
+        private ByteBuffer readBuffer = ByteBuffer.allocate(64 * 1024);
+        private final Queue<ByteBuffer> writeQueue = new ArrayDeque<>();
+    }
+}
@@ -0,0 +1,16 @@
+package com.codestorykh.taskmanager.cluster;
+
+import com.codestorykh.taskmanager.model.TaskStatus;
+
+/**
+ * State of a clustered task as reported by its owner.
+ *
+ * @param taskId ID of the task
+ * @param owner node that owns the task's partition
+ * @param status current status
+ * @param result processor output once COMPLETED, otherwise null
+ * @param errorMessage failure message once FAILED, otherwise null
+ */
+public record ClusterTaskStatus(String taskId, NodeAddress owner, TaskStatus status, byte[] result,
+                                String errorMessage) {
+}
@@ -0,0 +1,98 @@
+package com.codestorykh.taskmanager.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Assigns task IDs to nodes by consistent hashing.
+ *
+ * Every node is placed on the ring at {@code virtualNodes} points, and a key belongs to the
+ * first node point at or after the key's hash. Adding or removing a node only moves the keys
+ * between that node's points and their predecessors, about 1/N of the key space.
+ * The hash does not depend on the JVM, so every node computes the same owners.
+ * Instances are immutable; membership changes return a new ring.
+ */
+public final class ConsistentHashRing {
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+    private static final Comparator<NodeAddress> BY_ADDRESS = Comparator.comparing(NodeAddress::toString);
+
+    private final int virtualNodes;
+    private final NavigableMap<Long, NodeAddress> points;
+    private final Set<NodeAddress> members;
+
+    public ConsistentHashRing(Collection<NodeAddress> members) {
+        this(members, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashRing(Collection<NodeAddress> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be positive: " + virtualNodes);
+        }
+        this.virtualNodes = virtualNodes;
+        this.members = new TreeSet<>(BY_ADDRESS);
+        this.members.addAll(members);
+        this.points = new TreeMap<>();
+        for (NodeAddress member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    public ConsistentHashRing with(NodeAddress member) {
+        if (members.contains(member)) {
+            return this;
+        }
+        Set<NodeAddress> next = new TreeSet<>(BY_ADDRESS);
+        next.addAll(members);
+        next.add(member);
+        return new ConsistentHashRing(next, virtualNodes);
+    }
+
+    public ConsistentHashRing without(NodeAddress member) {
+        if (!members.contains(member)) {
+            return this;
+        }
+        Set<NodeAddress> next = new TreeSet<>(BY_ADDRESS);
+        next.addAll(members);
+        next.remove(member);
+        return new ConsistentHashRing(next, virtualNodes);
+    }
+
+    // Node owning the key, null if the ring is empty
+    public NodeAddress ownerOf(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, NodeAddress> entry = points.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : points.firstEntry().getValue();
+    }
+
+    public Set<NodeAddress> getMembers() {
+        return Collections.unmodifiableSet(members);
+    }
+
+    public boolean contains(NodeAddress member) {
+        return members.contains(member);
+    }
+
+    // 64-bit FNV-1a over UTF-8 bytes with a final avalanche, identical on every JVM
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
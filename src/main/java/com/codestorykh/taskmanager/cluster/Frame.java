@@ -0,0 +1,152 @@
+package com.codestorykh.taskmanager.cluster;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One protocol message: {@code [int length][byte type][int correlationId][payload]},
+ * where length counts everything after itself. Strings and byte arrays in the payload are
+ * written as an int length followed by the bytes, null as length -1, and are read back
+ * in the order they were written.
+ */
+final class Frame {
+    static final int HEADER_BYTES = 4 + 1 + 4;
+    static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+
+    private final MessageType type;
+    private final int correlationId;
+    // Read position advances as fields are read
+    private final ByteBuffer payload;
+
+    Frame(MessageType type, int correlationId, ByteBuffer payload) {
+        this.type = type;
+        this.correlationId = correlationId;
+        this.payload = payload;
+    }
+
+    MessageType type() {
+        return type;
+    }
+
+    int correlationId() {
+        return correlationId;
+    }
+
+    ByteBuffer encode() {
+        ByteBuffer body = payload.duplicate();
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + body.remaining());
+        frame.putInt(1 + 4 + body.remaining()).put(type.code()).putInt(correlationId).put(body);
+        return frame.flip();
+    }
+
+    /**
+     * Takes one complete frame from a buffer in read mode, or returns null and leaves the
+     * buffer untouched if the frame has not fully arrived yet.
+     */
+    static Frame read(ByteBuffer buffer) {
+        if (buffer.remaining() < 4) {
+            return null;
+        }
+        int length = buffer.getInt(buffer.position());
+        if (length < 5 || length > MAX_FRAME_BYTES) {
+            throw new IllegalStateException("Invalid frame length: " + length);
+        }
+        if (buffer.remaining() < 4 + length) {
+            return null;
+        }
+        buffer.getInt();
+        MessageType type = MessageType.fromCode(buffer.get());
+        int correlationId = buffer.getInt();
+        byte[] payload = new byte[length - 5];
+        buffer.get(payload);
+        return new Frame(type, correlationId, ByteBuffer.wrap(payload));
+    }
+
+    static Frame of(MessageType type, int correlationId, Writer payload) {
+        return new Frame(type, correlationId, ByteBuffer.wrap(payload.toByteArray()));
+    }
+
+    static Frame empty(MessageType type, int correlationId) {
+        return new Frame(type, correlationId, ByteBuffer.allocate(0));
+    }
+
+    String readString() {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    byte[] readBytes() {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return bytes;
+    }
+
+    int readInt() {
+        return payload.getInt();
+    }
+
+    byte readByte() {
+        return payload.get();
+    }
+
+    /**
+     * Builds a payload.
+     */
+    static final class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        Writer writeString(String value) {
+            return writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Writer writeBytes(byte[] value) {
+            try {
+                if (value == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(value.length);
+                    out.write(value);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        Writer writeInt(int value) {
+            try {
+                out.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        Writer writeByte(int value) {
+            try {
+                out.writeByte(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
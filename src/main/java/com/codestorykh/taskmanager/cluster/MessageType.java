@@ -0,0 +1,37 @@
+package com.codestorykh.taskmanager.cluster;
+
+/**
+ * Message types of the cluster protocol. Every request is answered by exactly one response
+ * carrying the same correlation ID.
+ */
+enum MessageType {
+    // Requests
+    JOIN,
+    MEMBER_UP,
+    MEMBER_DOWN,
+    SUBMIT,
+    TRANSFER,
+    STATUS,
+    STEAL,
+    COMPLETE,
+    PING,
+    // Responses
+    ACK,
+    MEMBERS,
+    STATUS_RESULT,
+    STOLEN,
+    ERROR;
+
+    private static final MessageType[] VALUES = values();
+
+    byte code() {
+        return (byte) ordinal();
+    }
+
+    static MessageType fromCode(byte code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown message type: " + code);
+        }
+        return VALUES[code];
+    }
+}
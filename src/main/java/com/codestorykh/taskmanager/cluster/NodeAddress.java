@@ -0,0 +1,27 @@
+package com.codestorykh.taskmanager.cluster;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Host and port a cluster node listens on; also serves as the node's identity.
+ */
+public record NodeAddress(String host, int port) {
+
+    // Parses "host:port"
+    public static NodeAddress parse(String value) {
+        int colon = value.lastIndexOf(':');
+        if (colon <= 0 || colon == value.length() - 1) {
+            throw new IllegalArgumentException("Expected host:port but was: " + value);
+        }
+        return new NodeAddress(value.substring(0, colon), Integer.parseInt(value.substring(colon + 1)));
+    }
+
+    public InetSocketAddress toSocketAddress() {
+        return new InetSocketAddress(host, port);
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+}
@@ -0,0 +1,135 @@
+package com.codestorykh.taskmanager.cluster;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Outgoing connection to one peer. Requests from any thread are multiplexed over one
+ * socket and matched to their responses by correlation ID on a dedicated reader thread.
+ */
+class PeerConnection implements AutoCloseable {
+    private final NodeAddress peer;
+    private final SocketChannel channel;
+    private final Map<Integer, CompletableFuture<Frame>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger correlationIds = new AtomicInteger();
+    private final Consumer<PeerConnection> onClosed;
+    private final long timeoutMillis;
+    private volatile boolean closed;
+
+    PeerConnection(NodeAddress peer, long timeoutMillis, Consumer<PeerConnection> onClosed) throws IOException {
+        this.peer = peer;
+        this.timeoutMillis = timeoutMillis;
+        this.onClosed = onClosed;
+        this.channel = SocketChannel.open(peer.toSocketAddress());
+        channel.socket().setTcpNoDelay(true);
+        Thread reader = new Thread(this::readLoop, "cluster-peer-" + peer);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Sends a request and returns the future of its response. The future fails with a
+     * {@link PeerErrorException} if the peer answers with ERROR, and with another exception if
+     * it does not answer within the timeout or the connection drops.
+     */
+    CompletableFuture<Frame> request(MessageType type, Frame.Writer payload) {
+        int correlationId = correlationIds.incrementAndGet();
+        CompletableFuture<Frame> response = new CompletableFuture<>();
+        pending.put(correlationId, response);
+        if (closed) {
+            pending.remove(correlationId);
+            return CompletableFuture.failedFuture(new IOException("Connection to " + peer + " is closed"));
+        }
+        ByteBuffer frame = (payload == null ? Frame.empty(type, correlationId) : Frame.of(type, correlationId, payload))
+            .encode();
+        try {
+            synchronized (channel) {
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            }
+        } catch (IOException e) {
+            pending.remove(correlationId);
+            close();
+            return CompletableFuture.failedFuture(e);
+        }
+        return response.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+            .whenComplete((result, error) -> pending.remove(correlationId));
+    }
+
+    private void readLoop() {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try {
+            while (!closed) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+                buffer.flip();
+                Frame frame;
+                while ((frame = Frame.read(buffer)) != null) {
+                    complete(frame);
+                }
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    buffer = grow(buffer);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Treated like an orderly close below
+        }
+        close();
+    }
+
+    private void complete(Frame frame) {
+        CompletableFuture<Frame> response = pending.remove(frame.correlationId());
+        if (response == null) {
+            return;
+        }
+        if (frame.type() == MessageType.ERROR) {
+            response.completeExceptionally(new PeerErrorException(peer, frame.readString()));
+        } else {
+            response.complete(frame);
+        }
+    }
+
+    // Room for a frame larger than the current buffer, which still holds its unread prefix
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer larger = ByteBuffer.allocate(Math.min(Frame.MAX_FRAME_BYTES + 4, buffer.capacity() * 2));
+        buffer.flip();
+        return larger.put(buffer);
+    }
+
+    NodeAddress getPeer() {
+        return peer;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already unusable
+        }
+        IOException failure = new IOException("Connection to " + peer + " closed");
+        pending.values().forEach(response -> response.completeExceptionally(failure));
+        pending.clear();
+        onClosed.accept(this);
+    }
+}
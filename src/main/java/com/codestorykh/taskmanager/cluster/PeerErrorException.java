@@ -0,0 +1,15 @@
+package com.codestorykh.taskmanager.cluster;
+
+import java.io.IOException;
+
+/**
+ * A peer answered a request with ERROR: it is reachable but could not process the request.
+ * Unlike other failures of a request, this says nothing about whether the peer is alive.
+ */
+class PeerErrorException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    PeerErrorException(NodeAddress peer, String message) {
+        super(peer + ": " + message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.codestorykh.taskmanager.event;
+
+/**
+ * What happens when a subscriber falls a full ring behind the publishers.
+ */
+public enum OverflowPolicy {
+    /**
+     * The subscriber never holds back publishers; when lapped it skips ahead
+     * and the skipped events are counted as dropped.
+     */
+    DROP,
+    /**
+     * The subscriber gates the ring so it never misses events. Callers that may block
+     * (task submission) wait for space; worker threads never wait, so an event they
+     * cannot place in a full ring is counted as rejected by the bus instead.
+     */
+    BLOCK
+}
@@ -0,0 +1,18 @@
+package com.codestorykh.taskmanager.event;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+
+/**
+ * One entry of a {@link TaskChangeFeed}: a task reached a status.
+ *
+ * @param sequence position in the feed, increasing by one per change
+ * @param taskId ID of the task
+ * @param taskName name of the task
+ * @param priority priority of the task
+ * @param status status the task moved to
+ * @param timestampMillis wall-clock time of the change
+ */
+public record TaskChange(long sequence, String taskId, String taskName, TaskPriority priority,
+                         TaskStatus status, long timestampMillis) {
+}
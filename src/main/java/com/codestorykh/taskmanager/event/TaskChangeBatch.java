@@ -0,0 +1,14 @@
+package com.codestorykh.taskmanager.event;
+
+import java.util.List;
+
+/**
+ * Changes returned for a "since sequence N" request.
+ *
+ * @param changes changes in sequence order, possibly empty
+ * @param lastSequence sequence to pass as "since" in the next request
+ * @param gap true if changes after the requested sequence had already left the retention
+ *            window, so the caller must re-read current task state
+ */
+public record TaskChangeBatch(List<TaskChange> changes, long lastSequence, boolean gap) {
+}
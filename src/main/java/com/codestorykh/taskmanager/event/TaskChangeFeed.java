@@ -0,0 +1,174 @@
+package com.codestorykh.taskmanager.event;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sequenced, bounded history of task status changes that clients read from any point.
+ *
+ * Every change gets the next sequence number and is stored as an immutable record in a ring
+ * holding the last {@code retention} changes. Readers ask for the changes after the last
+ * sequence they saw, so each reader keeps its own position and a slow reader never delays
+ * writers or other readers; a reader that falls out of the window is told there was a gap.
+ * Appending never blocks: it claims a sequence, stores the record and, only if someone is
+ * long-polling, hands the wake-up to a notifier thread.
+ */
+public class TaskChangeFeed {
+    public static final int DEFAULT_RETENTION = 65_536;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<TaskChange> slots;
+    // Last sequence handed out; the first change is 1
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-change-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TaskChangeFeed() {
+        this(DEFAULT_RETENTION);
+    }
+
+    /**
+     * @param retention number of changes kept, must be a power of two
+     */
+    public TaskChangeFeed(int retention) {
+        if (retention < 2 || Integer.bitCount(retention) != 1) {
+            throw new IllegalArgumentException("Retention must be a power of two: " + retention);
+        }
+        this.capacity = retention;
+        this.mask = retention - 1;
+        this.slots = new AtomicReferenceArray<>(retention);
+    }
+
+    // Records a change and returns its sequence number
+    public long append(String taskId, String taskName, TaskPriority priority, TaskStatus status) {
+        long next = sequence.incrementAndGet();
+        slots.set((int) (next & mask), new TaskChange(next, taskId, taskName, priority, status,
+            System.currentTimeMillis()));
+        if (!waiters.isEmpty()) {
+            wakeWaiters();
+        }
+        return next;
+    }
+
+    /**
+     * Returns up to {@code max} changes with a sequence greater than {@code since}, without waiting.
+     * A change whose sequence was claimed but not yet stored ends the batch, so batches never
+     * skip a sequence except across a reported gap.
+     */
+    public TaskChangeBatch changesSince(long since, int max) {
+        long latest = sequence.get();
+        long from = Math.max(1, since + 1);
+        boolean gap = false;
+        long oldest = latest - capacity + 1;
+        if (from < oldest) {
+            from = oldest;
+            gap = true;
+        }
+        List<TaskChange> changes = new ArrayList<>(Math.max(0, (int) Math.min(max, latest - from + 1)));
+        long last = from - 1;
+        for (long current = from; current <= latest && changes.size() < max; current++) {
+            TaskChange change = slots.get((int) (current & mask));
+            if (change == null || change.sequence() < current) {
+                break;
+            }
+            if (change.sequence() > current) {
+                // Overwritten while reading: continue from the oldest change still held
+                gap = true;
+                current = sequence.get() - capacity;
+                last = current;
+                continue;
+            }
+            changes.add(change);
+            last = current;
+        }
+        return new TaskChangeBatch(changes, gap || !changes.isEmpty() ? last : since, gap);
+    }
+
+    /**
+     * Long-poll variant of {@link #changesSince}: completes as soon as there is at least one
+     * change after {@code since}, or with an empty batch once the timeout elapses.
+     */
+    public CompletableFuture<TaskChangeBatch> awaitChangesSince(long since, int max, Duration timeout) {
+        TaskChangeBatch available = changesSince(since, max);
+        if (!available.changes().isEmpty() || available.gap()) {
+            return CompletableFuture.completedFuture(available);
+        }
+        CompletableFuture<TaskChangeBatch> result = new CompletableFuture<>();
+        Waiter waiter = new Waiter(since, max, result);
+        waiters.add(waiter);
+        // Timed out, cancelled or answered: either way it must not stay queued until the next change
+        result.whenComplete((batch, error) -> waiters.remove(waiter));
+        // A change appended before the waiter was visible would not have woken it
+        TaskChangeBatch recheck = changesSince(since, max);
+        if (!recheck.changes().isEmpty() || recheck.gap()) {
+            result.complete(recheck);
+        }
+        return result.completeOnTimeout(new TaskChangeBatch(List.of(), since, false),
+            timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void wakeWaiters() {
+        List<Waiter> woken = new ArrayList<>();
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (!waiter.result.isDone()) {
+                woken.add(waiter);
+            }
+        }
+        if (woken.isEmpty()) {
+            return;
+        }
+        notifier.execute(() -> {
+            for (Waiter current : woken) {
+                TaskChangeBatch batch = changesSince(current.since, current.max);
+                if (batch.changes().isEmpty() && !batch.gap()) {
+                    // The change that woke it is still being stored; its writer wakes the waiter again
+                    waiters.add(current);
+                    if (current.result.isDone()) {
+                        // Timed out meanwhile, after its own removal ran
+                        waiters.remove(current);
+                        continue;
+                    }
+                    batch = changesSince(current.since, current.max);
+                }
+                if (!batch.changes().isEmpty() || batch.gap()) {
+                    current.result.complete(batch);
+                }
+            }
+        });
+    }
+
+    // Sequence of the most recent change, 0 if there was none
+    public long getLatestSequence() {
+        return sequence.get();
+    }
+
+    public int getRetention() {
+        return capacity;
+    }
+
+    // Number of long-polls waiting for a change
+    public int getWaitingCount() {
+        return waiters.size();
+    }
+
+    private record Waiter(long since, int max, CompletableFuture<TaskChangeBatch> result) {
+    }
+}
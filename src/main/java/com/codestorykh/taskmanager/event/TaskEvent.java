@@ -0,0 +1,62 @@
+package com.codestorykh.taskmanager.event;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+
+/**
+ * A task lifecycle event. Instances are preallocated and reused by {@link TaskEventBus},
+ * so listeners must copy any field they want to keep after {@code onEvent} returns.
+ */
+public final class TaskEvent {
+    private long sequence;
+    private TaskEventType type;
+    private String taskId;
+    private String taskName;
+    private TaskPriority priority;
+    private long timestampMillis;
+
+    TaskEvent() {
+    }
+
+    void set(TaskEventType type, String taskId, String taskName, TaskPriority priority, long timestampMillis) {
+        this.type = type;
+        this.taskId = taskId;
+        this.taskName = taskName;
+        this.priority = priority;
+        this.timestampMillis = timestampMillis;
+    }
+
+    void copyFrom(TaskEvent other, long sequence) {
+        set(other.type, other.taskId, other.taskName, other.priority, other.timestampMillis);
+        this.sequence = sequence;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public TaskEventType getType() {
+        return type;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TaskEvent[seq=%d, type=%s, id=%s, name=%s, priority=%s]",
+            sequence, type, taskId, taskName, priority);
+    }
+}
@@ -0,0 +1,206 @@
+package com.codestorykh.taskmanager.event;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Disruptor-style ring buffer delivering task lifecycle events to subscribers.
+ *
+ * Event slots are preallocated, so publishing only claims a sequence number and
+ * copies a few references into a slot: it never allocates. Every subscriber runs on
+ * its own thread with its own sequence, so a slow subscriber does not delay the others.
+ * A subscriber with {@link OverflowPolicy#DROP} can be lapped and skips ahead;
+ * one with {@link OverflowPolicy#BLOCK} gates publishers instead.
+ */
+public class TaskEventBus implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // Marks a slot whose fields are being overwritten
+    private static final long WRITING = Long.MIN_VALUE;
+
+    private final int capacity;
+    private final int mask;
+    private final TaskEvent[] slots;
+    private final AtomicLongArray published;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final LongAdder rejected = new LongAdder();
+    private volatile TaskSubscription[] subscriptions = new TaskSubscription[0];
+    private volatile TaskSubscription[] gatingSubscriptions = new TaskSubscription[0];
+    private volatile boolean closed;
+
+    public TaskEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of preallocated event slots, must be a power of two
+     */
+    public TaskEventBus(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.slots = new TaskEvent[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new TaskEvent();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Publishes an event, returning false if it was not placed in the ring.
+     * When {@code mayBlock} is false the call never waits: if a BLOCK subscriber
+     * has not freed the slot the event is counted as rejected instead.
+     */
+    public boolean publish(TaskEventType type, String taskId, String taskName, TaskPriority priority,
+                           boolean mayBlock) {
+        if (closed || subscriptions.length == 0) {
+            return false;
+        }
+        long sequence;
+        int idle = 0;
+        while (true) {
+            long current = cursor.get();
+            sequence = current + 1;
+            if (sequence - capacity > minimumGatingSequence(current)) {
+                if (!mayBlock) {
+                    rejected.increment();
+                    return false;
+                }
+                idle = WaitStrategy.PARKING.idle(idle);
+                continue;
+            }
+            if (cursor.compareAndSet(current, sequence)) {
+                break;
+            }
+        }
+
+        int index = (int) (sequence & mask);
+        // A publisher lapping a concurrent one must let it finish writing the slot first
+        while (true) {
+            long previous = published.get(index);
+            if (previous != WRITING && previous >= sequence - capacity) {
+                break;
+            }
+            Thread.onSpinWait();
+        }
+        published.set(index, WRITING);
+        VarHandle.storeStoreFence();
+        slots[index].set(type, taskId, taskName, priority, System.currentTimeMillis());
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    public TaskSubscription subscribe(TaskEventListener listener) {
+        return subscribe(listener, WaitStrategy.PARKING, OverflowPolicy.DROP);
+    }
+
+    /**
+     * Registers a listener that receives every event published from now on,
+     * delivered on a dedicated daemon thread.
+     */
+    public synchronized TaskSubscription subscribe(TaskEventListener listener, WaitStrategy waitStrategy,
+                                                   OverflowPolicy overflowPolicy) {
+        if (closed) {
+            throw new IllegalStateException("Event bus is closed");
+        }
+        TaskSubscription subscription = new TaskSubscription(this, listener, waitStrategy, overflowPolicy,
+            cursor.get());
+        subscriptions = append(subscriptions, subscription);
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            gatingSubscriptions = append(gatingSubscriptions, subscription);
+        }
+        subscription.start();
+        return subscription;
+    }
+
+    synchronized void unsubscribe(TaskSubscription subscription) {
+        subscriptions = remove(subscriptions, subscription);
+        gatingSubscriptions = remove(gatingSubscriptions, subscription);
+    }
+
+    // Number of events that could not be published without blocking a worker
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    // Sequence of the last claimed event, -1 if none has been published
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.length;
+    }
+
+    @Override
+    public void close() {
+        TaskSubscription[] current;
+        synchronized (this) {
+            closed = true;
+            current = subscriptions;
+        }
+        for (TaskSubscription subscription : current) {
+            subscription.close();
+        }
+    }
+
+    /**
+     * Reads the event at the given sequence into {@code target}.
+     * Returns 1 if it was read, 0 if it is not published yet and -1 if the
+     * subscriber has been lapped and the slot already holds a newer event.
+     */
+    int read(long sequence, TaskEvent target) {
+        int index = (int) (sequence & mask);
+        long state = published.get(index);
+        if (state == sequence) {
+            target.copyFrom(slots[index], sequence);
+            // Seqlock check: the slot must not have been reclaimed while we copied it
+            VarHandle.acquireFence();
+            if (published.get(index) == sequence) {
+                return 1;
+            }
+            return -1;
+        }
+        if (state > sequence || (state == WRITING && cursor.get() >= sequence + capacity)) {
+            return -1;
+        }
+        return 0;
+    }
+
+    // Oldest sequence still held in the ring after being lapped
+    long oldestAvailableSequence() {
+        return cursor.get() - capacity + 1;
+    }
+
+    private long minimumGatingSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (TaskSubscription subscription : gatingSubscriptions) {
+            minimum = Math.min(minimum, subscription.getSequence());
+        }
+        return minimum;
+    }
+
+    private static TaskSubscription[] append(TaskSubscription[] array, TaskSubscription element) {
+        TaskSubscription[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = element;
+        return copy;
+    }
+
+    private static TaskSubscription[] remove(TaskSubscription[] array, TaskSubscription element) {
+        return Arrays.stream(array)
+            .filter(candidate -> candidate != element)
+            .toArray(TaskSubscription[]::new);
+    }
+}
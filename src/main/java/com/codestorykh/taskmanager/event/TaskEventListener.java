@@ -0,0 +1,10 @@
+package com.codestorykh.taskmanager.event;
+
+/**
+ * Receives task lifecycle events on the subscriber's own thread.
+ * The event instance is reused for the next delivery.
+ */
+@FunctionalInterface
+public interface TaskEventListener {
+    void onEvent(TaskEvent event);
+}
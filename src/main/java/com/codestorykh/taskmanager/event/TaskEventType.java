@@ -0,0 +1,8 @@
+package com.codestorykh.taskmanager.event;
+
+public enum TaskEventType {
+    SUBMITTED,
+    STARTED,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,88 @@
+package com.codestorykh.taskmanager.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A registered listener on a {@link TaskEventBus}, consuming events on its own thread.
+ * Closing the subscription stops delivery and releases any gating it applied to publishers.
+ */
+public class TaskSubscription implements AutoCloseable {
+    private final TaskEventBus bus;
+    private final TaskEventListener listener;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong sequence;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    TaskSubscription(TaskEventBus bus, TaskEventListener listener, WaitStrategy waitStrategy,
+                     OverflowPolicy overflowPolicy, long startSequence) {
+        this.bus = bus;
+        this.listener = listener;
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.sequence = new AtomicLong(startSequence);
+        this.thread = new Thread(this::run, "task-event-subscriber");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    private void run() {
+        TaskEvent event = new TaskEvent();
+        long next = sequence.get() + 1;
+        int idle = 0;
+        while (running) {
+            int read = bus.read(next, event);
+            if (read > 0) {
+                try {
+                    listener.onEvent(event);
+                } catch (RuntimeException e) {
+                    // A failing listener must not stop delivery of later events
+                }
+                sequence.lazySet(next);
+                next++;
+                idle = 0;
+            } else if (read < 0) {
+                long resume = Math.max(next + 1, bus.oldestAvailableSequence());
+                dropped.add(resume - next);
+                next = resume;
+                sequence.lazySet(next - 1);
+            } else {
+                idle = waitStrategy.idle(idle);
+            }
+        }
+    }
+
+    // Sequence of the last event this subscriber consumed
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    // Number of events skipped because the subscriber was lapped
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public boolean isActive() {
+        return running;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        bus.unsubscribe(this);
+    }
+}
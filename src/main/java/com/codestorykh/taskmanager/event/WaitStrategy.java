@@ -0,0 +1,45 @@
+package com.codestorykh.taskmanager.event;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a subscriber waits when no new event is available.
+ * Trades latency for CPU: BUSY_SPIN reacts fastest and burns a core,
+ * PARKING is cheapest but adds up to a fraction of a millisecond of latency.
+ */
+public enum WaitStrategy {
+    BUSY_SPIN {
+        @Override
+        int idle(int counter) {
+            Thread.onSpinWait();
+            return counter + 1;
+        }
+    },
+    YIELDING {
+        @Override
+        int idle(int counter) {
+            if (counter < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return counter + 1;
+        }
+    },
+    PARKING {
+        @Override
+        int idle(int counter) {
+            if (counter < 100) {
+                Thread.onSpinWait();
+            } else if (counter < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(100_000L);
+            }
+            return counter + 1;
+        }
+    };
+
+    // Waits once and returns the updated idle counter; the counter resets when an event arrives
+    abstract int idle(int counter);
+}
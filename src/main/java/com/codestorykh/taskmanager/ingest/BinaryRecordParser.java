@@ -0,0 +1,66 @@
+package com.codestorykh.taskmanager.ingest;
+
+import com.codestorykh.taskmanager.model.TaskDescriptor;
+import com.codestorykh.taskmanager.model.TaskPriority;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * Parses the compact binary record payload:
+ * one byte of priority ordinal, a 2-byte name length, the UTF-8 name, then the input bytes.
+ * Used with {@link RecordFormat#LENGTH_PREFIXED} framing.
+ *
+ * @param <I> The input type of the described task
+ */
+public class BinaryRecordParser<I> implements RecordParser<I> {
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final Function<ByteBuffer, I> inputDecoder;
+
+    /**
+     * @param inputDecoder Decodes the remaining bytes of the record into the task input
+     */
+    public BinaryRecordParser(Function<ByteBuffer, I> inputDecoder) {
+        this.inputDecoder = inputDecoder;
+    }
+
+    @Override
+    public TaskDescriptor<I> parse(ByteBuffer record) throws IOException {
+        if (record.remaining() < 3) {
+            throw new IOException("Binary record too short: " + record.remaining() + " bytes");
+        }
+        int ordinal = record.get();
+        if (ordinal < 0 || ordinal >= PRIORITIES.length) {
+            throw new IOException("Unknown priority ordinal: " + ordinal);
+        }
+        int nameLength = Short.toUnsignedInt(record.getShort());
+        if (nameLength > record.remaining()) {
+            throw new IOException("Name length " + nameLength + " exceeds record");
+        }
+        byte[] name = new byte[nameLength];
+        record.get(name);
+        return TaskDescriptor.of(new String(name, StandardCharsets.UTF_8), PRIORITIES[ordinal],
+            inputDecoder.apply(record));
+    }
+
+    /**
+     * Encodes a record, including its length prefix, in the format read by this parser.
+     */
+    public static byte[] encode(String name, TaskPriority priority, byte[] input) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Name longer than 65535 bytes");
+        }
+        int payload = 1 + 2 + nameBytes.length + input.length;
+        return ByteBuffer.allocate(4 + payload)
+            .putInt(payload)
+            .put((byte) priority.ordinal())
+            .putShort((short) nameBytes.length)
+            .put(nameBytes)
+            .put(input)
+            .array();
+    }
+}
@@ -0,0 +1,20 @@
+package com.codestorykh.taskmanager.ingest;
+
+/**
+ * Outcome of ingesting one file.
+ *
+ * @param bytes size of the file in bytes
+ * @param records number of records parsed and submitted
+ * @param chunks number of record-aligned chunks parsed in parallel
+ * @param elapsedNanos wall-clock time from mapping the file to submitting the last task
+ */
+public record IngestionReport(long bytes, long records, int chunks, long elapsedNanos) {
+
+    public double megabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (bytes / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    public double recordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : records / (elapsedNanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,41 @@
+package com.codestorykh.taskmanager.ingest;
+
+import com.codestorykh.taskmanager.model.TaskDescriptor;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Parses NDJSON records of the form {@code {"name": "...", "priority": "HIGH", "input": ...}}.
+ * The input node is bound to the given type with Jackson; a missing priority means MEDIUM.
+ *
+ * @param <I> The input type of the described task
+ */
+public class JsonRecordParser<I> implements RecordParser<I> {
+    private final ObjectMapper mapper;
+    private final Class<I> inputType;
+
+    public JsonRecordParser(Class<I> inputType) {
+        this(new ObjectMapper(), inputType);
+    }
+
+    public JsonRecordParser(ObjectMapper mapper, Class<I> inputType) {
+        this.mapper = mapper;
+        this.inputType = inputType;
+    }
+
+    @Override
+    public TaskDescriptor<I> parse(ByteBuffer record) throws IOException {
+        JsonNode node = mapper.readTree(new ByteBufferBackedInputStream(record));
+        if (node == null || !node.isObject()) {
+            throw new IOException("Record is not a JSON object");
+        }
+        String priority = node.path("priority").asText(TaskPriority.MEDIUM.name());
+        I input = mapper.treeToValue(node.path("input"), inputType);
+        return TaskDescriptor.of(node.path("name").asText(), TaskPriority.valueOf(priority), input);
+    }
+}
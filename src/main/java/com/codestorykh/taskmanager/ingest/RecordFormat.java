@@ -0,0 +1,11 @@
+package com.codestorykh.taskmanager.ingest;
+
+/**
+ * How records are framed in an ingestion file.
+ */
+public enum RecordFormat {
+    // One JSON document per line, separated by '\n'
+    NDJSON,
+    // Each record is a 4-byte big-endian length followed by that many payload bytes
+    LENGTH_PREFIXED
+}
@@ -0,0 +1,17 @@
+package com.codestorykh.taskmanager.ingest;
+
+import com.codestorykh.taskmanager.model.TaskDescriptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Turns the payload of one framed record into a task descriptor.
+ * The buffer is a read-only view into the mapped file; implementations must not keep it.
+ *
+ * @param <I> The input type of the described task
+ */
+@FunctionalInterface
+public interface RecordParser<I> {
+    TaskDescriptor<I> parse(ByteBuffer record) throws IOException;
+}
@@ -0,0 +1,310 @@
+package com.codestorykh.taskmanager.ingest;
+
+import com.codestorykh.taskmanager.model.TaskDescriptor;
+import com.codestorykh.taskmanager.service.TaskManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Bulk-loads task descriptors from a file and executes them on a {@link TaskManager}.
+ *
+ * The file is memory-mapped instead of read through streams, split into chunks that start
+ * and end on record boundaries, and the chunks are parsed in parallel straight from the
+ * mapping. Parsed descriptors are submitted in batches with {@link TaskManager#submitAllAndExecute};
+ * at most {@code maxInFlight} tasks may be running or queued at once, so parsing
+ * slows down to the pace of execution instead of flooding the manager.
+ */
+public class TaskFileIngester {
+    // Largest region mapped at once; a single mapping is limited to 2 GB
+    private static final long MAX_CHUNK_BYTES = 256L * 1024 * 1024;
+    private static final long MAX_MAPPING_BYTES = Integer.MAX_VALUE;
+    private static final long MIN_CHUNK_BYTES = 1024 * 1024;
+    private static final int SCAN_BUFFER_BYTES = 8 * 1024;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    // Queued tasks per execution slot, enough to keep every slot busy between batches
+    private static final int IN_FLIGHT_PER_SLOT = 64;
+
+    private final TaskManager taskManager;
+    private final int parallelism;
+    private final int maxInFlight;
+    private final int batchSize;
+
+    // Backpressure follows the manager's execution capacity at the time the ingester is created
+    public TaskFileIngester(TaskManager taskManager) {
+        this(taskManager, Runtime.getRuntime().availableProcessors(),
+            Math.max(2 * DEFAULT_BATCH_SIZE, taskManager.getExecutionCapacity() * IN_FLIGHT_PER_SLOT),
+            DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param parallelism number of chunks parsed at the same time
+     * @param maxInFlight maximum number of submitted tasks that have not completed yet
+     * @param batchSize number of descriptors submitted per call
+     */
+    public TaskFileIngester(TaskManager taskManager, int parallelism, int maxInFlight, int batchSize) {
+        if (parallelism < 1 || batchSize < 1 || maxInFlight < batchSize) {
+            throw new IllegalArgumentException(String.format(
+                "Invalid ingestion settings: parallelism=%d, maxInFlight=%d, batchSize=%d",
+                parallelism, maxInFlight, batchSize));
+        }
+        this.taskManager = taskManager;
+        this.parallelism = parallelism;
+        this.maxInFlight = maxInFlight;
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Parses every record in the file and executes one task per record.
+     * Returns once all tasks were submitted; the last {@code maxInFlight} may still be running.
+     *
+     * @throws IOException if the file cannot be read, a record is truncated or cannot be parsed
+     */
+    public <I, O> IngestionReport ingest(Path file, RecordFormat format, RecordParser<I> parser,
+                                         Function<I, O> processor) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] boundaries = format == RecordFormat.NDJSON
+                ? lineAlignedBoundaries(channel, size)
+                : prefixAlignedBoundaries(channel, size);
+            int chunks = boundaries.length - 1;
+            Semaphore capacity = new Semaphore(maxInFlight);
+            ExecutorService parsers = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, chunks)), runnable -> {
+                Thread thread = new Thread(runnable, "task-ingest");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<Long>> results = new ArrayList<>(chunks);
+                for (int i = 0; i < chunks; i++) {
+                    long from = boundaries[i];
+                    long to = boundaries[i + 1];
+                    results.add(parsers.submit(() ->
+                        ingestChunk(channel, from, to, format, parser, processor, capacity)));
+                }
+                long records = 0;
+                for (Future<Long> result : results) {
+                    records += await(result);
+                }
+                return new IngestionReport(size, records, chunks, System.nanoTime() - start);
+            } finally {
+                parsers.shutdownNow();
+            }
+        }
+    }
+
+    private <I, O> long ingestChunk(FileChannel channel, long from, long to, RecordFormat format,
+                                    RecordParser<I> parser, Function<I, O> processor,
+                                    Semaphore capacity) throws IOException, InterruptedException {
+        MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        List<TaskDescriptor<I>> batch = new ArrayList<>(batchSize);
+        long records = 0;
+        int position = 0;
+        int limit = chunk.limit();
+        while (position < limit) {
+            int recordStart;
+            int recordEnd;
+            if (format == RecordFormat.NDJSON) {
+                recordStart = position;
+                int newline = indexOf(chunk, (byte) '\n', position, limit);
+                recordEnd = newline < 0 ? limit : newline;
+                position = recordEnd + 1;
+                if (recordEnd > recordStart && chunk.get(recordEnd - 1) == '\r') {
+                    recordEnd--;
+                }
+                if (isBlank(chunk, recordStart, recordEnd)) {
+                    continue;
+                }
+            } else {
+                int length = chunk.getInt(position);
+                recordStart = position + 4;
+                recordEnd = recordStart + length;
+                position = recordEnd;
+            }
+            ByteBuffer record = chunk.slice(recordStart, recordEnd - recordStart).asReadOnlyBuffer();
+            try {
+                batch.add(parser.parse(record));
+            } catch (IOException | RuntimeException e) {
+                throw new IOException("Invalid record at offset " + (from + recordStart) + ": " + e.getMessage(), e);
+            }
+            records++;
+            if (batch.size() == batchSize) {
+                submit(batch, processor, capacity);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            submit(batch, processor, capacity);
+        }
+        return records;
+    }
+
+    private <I, O> void submit(List<TaskDescriptor<I>> batch, Function<I, O> processor,
+                               Semaphore capacity) throws InterruptedException {
+        capacity.acquire(batch.size());
+        List<CompletableFuture<O>> futures;
+        try {
+            futures = taskManager.submitAllAndExecute(batch, processor);
+        } catch (RuntimeException e) {
+            capacity.release(batch.size());
+            throw e;
+        }
+        // Failed tasks are recorded on the task itself; the slot is freed either way
+        futures.forEach(future -> future.whenComplete((result, error) -> capacity.release()));
+    }
+
+    // Chunk boundaries moved forward to just past the next newline, each chunk small enough to map
+    private long[] lineAlignedBoundaries(FileChannel channel, long size) throws IOException {
+        long target = chunkSize(size);
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long previous = 0;
+        while (size - previous > target) {
+            // A chunk must fit in one mapping, so its closing newline has to come within the limit
+            long limit = Math.min(size, previous + MAX_MAPPING_BYTES);
+            long next = nextLineStart(channel, previous + target, limit, scan);
+            if (next < 0 && limit < size) {
+                throw new IOException("Line after offset " + previous + " is longer than the "
+                    + MAX_MAPPING_BYTES + " byte mapping limit");
+            }
+            if (next < 0 || next >= size) {
+                break;
+            }
+            boundaries.add(next);
+            previous = next;
+        }
+        boundaries.add(size);
+        return toArray(boundaries);
+    }
+
+    // Offset just past the first newline in [position, end), or -1 if there is none
+    private static long nextLineStart(FileChannel channel, long position, long end,
+                                      ByteBuffer scan) throws IOException {
+        while (position < end) {
+            scan.clear();
+            scan.limit((int) Math.min(scan.capacity(), end - position));
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return -1;
+    }
+
+    // Chunk boundaries found by hopping from one length prefix to the next
+    private long[] prefixAlignedBoundaries(FileChannel channel, long size) throws IOException {
+        long target = chunkSize(size);
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        long chunkStart = 0;
+        long position = 0;
+        MappedByteBuffer window = null;
+        long windowStart = 0;
+        while (position < size) {
+            if (size - position < 4) {
+                throw new IOException("Truncated length prefix at offset " + position);
+            }
+            if (window == null || position + 4 > windowStart + window.limit()) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAX_CHUNK_BYTES, size - position));
+            }
+            int length = window.getInt((int) (position - windowStart));
+            if (length < 0 || position + 4 + length > size) {
+                throw new IOException("Truncated record at offset " + position + " with length " + length);
+            }
+            if (4L + length > MAX_MAPPING_BYTES) {
+                throw new IOException("Record at offset " + position + " is longer than the "
+                    + MAX_MAPPING_BYTES + " byte mapping limit");
+            }
+            if (position > chunkStart && position + 4 + length - chunkStart > MAX_MAPPING_BYTES) {
+                // Close the chunk before a record that would push it past what one mapping can hold
+                boundaries.add(position);
+                chunkStart = position;
+            }
+            position += 4 + length;
+            if (position - chunkStart >= target && position < size) {
+                boundaries.add(position);
+                chunkStart = position;
+            }
+        }
+        boundaries.add(size);
+        return toArray(boundaries);
+    }
+
+    // Enough chunks to keep every parser busy, each small enough to map on its own
+    private long chunkSize(long size) {
+        long perParser = size / (parallelism * 4L);
+        return Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES - SCAN_BUFFER_BYTES, perParser));
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] toArray(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    private static long await(Future<Long> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Ingestion interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            throw new IOException("Ingestion failed: " + cause.getMessage(), cause);
+        }
+    }
+}
@@ -1,8 +1,18 @@
 package com.codestorykh.taskmanager.model;
 
+import com.codestorykh.taskmanager.profiling.TaskProfiler;
+import com.codestorykh.taskmanager.profiling.TaskResourceUsage;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -16,17 +26,37 @@ import java.util.function.Function;
  * @param <O> The output type that this task will produce
  */
 public class Task<I, O> {
+    // Leaving PENDING is a compare-and-set, so a task is either started or expired, never both
+    private static final VarHandle STATUS;
+
+    static {
+        try {
+            STATUS = MethodHandles.lookup().findVarHandle(Task.class, "status", TaskStatus.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final String taskId;
     private final String name;
     private final TaskPriority priority;
     private final I input;
     private final Function<I, O> processor;
-    private TaskStatus status;
+    private final Function<I, ? extends CompletionStage<O>> stageProcessor;
+    private volatile TaskStatus status;
     private O result;
     private LocalDateTime createdAt;
+    private final long createdNanos;
+    private volatile long startedNanos;
+    private volatile long completedNanos;
+    private volatile LocalDateTime deadline;
+    private volatile long deadlineNanos = Long.MAX_VALUE;
     private LocalDateTime startedAt;
     private LocalDateTime completedAt;
     private String errorMessage;
+    private final TaskListener listener;
+    private volatile TaskProfiler profiler;
+    private volatile TaskResourceUsage resourceUsage;
 
     /**
      * Creates a new task with the specified parameters.
@@ -37,13 +67,110 @@ public class Task<I, O> {
      * @param processor The function that will process the input and produce output
      */
     public Task(String name, TaskPriority priority, I input, Function<I, O> processor) {
-        this.taskId = UUID.randomUUID().toString();
+        this(name, priority, input, processor, null);
+    }
+
+    /**
+     * Creates a new task that reports its status changes to the given listener.
+     * 
+     * @param name The name of the task
+     * @param priority The priority level of the task
+     * @param input The input data to be processed
+     * @param processor The function that will process the input and produce output
+     * @param listener Notified when the task starts, completes or fails; may be null
+     */
+    public Task(String name, TaskPriority priority, I input, Function<I, O> processor, TaskListener listener) {
+        this(UUID.randomUUID().toString(), name, priority, input, processor, null, listener);
+    }
+
+    /**
+     * Creates a new task with a caller-assigned ID, for bulk submission where IDs are
+     * allocated in blocks instead of generating a random UUID per task.
+     * 
+     * @param taskId The unique ID of the task
+     * @param name The name of the task
+     * @param priority The priority level of the task
+     * @param input The input data to be processed
+     * @param processor The function that will process the input and produce output
+     * @param listener Notified when the task starts, completes or fails; may be null
+     */
+    public Task(String taskId, String name, TaskPriority priority, I input, Function<I, O> processor,
+                TaskListener listener) {
+        this(taskId, name, priority, input, processor, null, listener);
+    }
+
+    private Task(String taskId, String name, TaskPriority priority, I input, Function<I, O> processor,
+                 Function<I, ? extends CompletionStage<O>> stageProcessor, TaskListener listener) {
+        this.taskId = taskId;
         this.name = name;
         this.priority = priority;
         this.input = input;
         this.processor = processor;
+        this.stageProcessor = stageProcessor;
         this.status = TaskStatus.PENDING;
         this.createdAt = LocalDateTime.now();
+        this.createdNanos = System.nanoTime();
+        this.listener = listener;
+    }
+
+    /**
+     * Creates a task whose result is produced by a completion stage instead of being
+     * computed on a worker thread, for example non-blocking I/O or a micro-batcher that
+     * completes many tasks with one call. The task stays RUNNING until the stage completes
+     * but does not occupy a worker thread while waiting.
+     * 
+     * @param name The name of the task
+     * @param priority The priority level of the task
+     * @param input The input data to be processed
+     * @param stageProcessor Starts processing the input and returns a stage of the output
+     * @param listener Notified when the task starts, completes or fails; may be null
+     */
+    public static <I, O> Task<I, O> deferred(String name, TaskPriority priority, I input,
+                                             Function<I, ? extends CompletionStage<O>> stageProcessor,
+                                             TaskListener listener) {
+        return deferred(UUID.randomUUID().toString(), name, priority, input, stageProcessor, listener);
+    }
+
+    /**
+     * Creates a deferred task with a caller-assigned ID, for example one routed to this
+     * node by a cluster.
+     * 
+     * @param taskId The unique ID of the task
+     * @param name The name of the task
+     * @param priority The priority level of the task
+     * @param input The input data to be processed
+     * @param stageProcessor Starts processing the input and returns a stage of the output
+     * @param listener Notified when the task starts, completes or fails; may be null
+     */
+    public static <I, O> Task<I, O> deferred(String taskId, String name, TaskPriority priority, I input,
+                                             Function<I, ? extends CompletionStage<O>> stageProcessor,
+                                             TaskListener listener) {
+        return new Task<>(taskId, name, priority, input, null, stageProcessor, listener);
+    }
+
+    /**
+     * Rebuilds a task from stored metadata, for example a finished task kept only in an
+     * off-heap table. It has no input or result and fails if executed.
+     *
+     * @param taskId The unique ID of the task
+     * @param name The name of the task
+     * @param priority The priority level of the task
+     * @param status The stored status
+     * @param createdAt When the task was created
+     * @param startedAt When the task started, or null
+     * @param completedAt When the task finished, or null
+     */
+    public static Task<Object, Object> restored(String taskId, String name, TaskPriority priority,
+                                                TaskStatus status, LocalDateTime createdAt,
+                                                LocalDateTime startedAt, LocalDateTime completedAt) {
+        Task<Object, Object> task = new Task<>(taskId, name, priority, null, input -> {
+            throw new IllegalStateException("Task " + taskId + " was restored from stored metadata");
+        }, null, null);
+        task.status = status;
+        task.createdAt = createdAt;
+        task.startedAt = startedAt;
+        task.completedAt = completedAt;
+        return task;
     }
 
     /**
@@ -53,28 +180,114 @@ public class Task<I, O> {
      * @return CompletableFuture<O> containing the result of the task
      */
     public CompletableFuture<O> execute() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                this.status = TaskStatus.RUNNING;
-                this.startedAt = LocalDateTime.now();
-                
-                // Process the input using the provided function
-                O output = processor.apply(input);
-                
-                // Update task status and metadata
-                this.result = output;
-                this.status = TaskStatus.COMPLETED;
-                this.completedAt = LocalDateTime.now();
-                
-                return output;
-            } catch (Exception e) {
-                // Handle any errors during processing
-                this.status = TaskStatus.FAILED;
-                this.errorMessage = e.getMessage();
-                this.completedAt = LocalDateTime.now();
-                throw new RuntimeException("Task execution failed: " + e.getMessage(), e);
+        if (stageProcessor != null) {
+            return executeDeferred();
+        }
+        return CompletableFuture.supplyAsync(this::process);
+    }
+
+    /**
+     * Executes the task on the given executor instead of the common pool.
+     * Deferred tasks only start their stage on the calling thread and ignore the executor.
+     * 
+     * @param executor The executor that runs the processor
+     * @return CompletableFuture<O> containing the result of the task
+     */
+    public CompletableFuture<O> execute(Executor executor) {
+        if (stageProcessor != null) {
+            return executeDeferred();
+        }
+        return CompletableFuture.supplyAsync(this::process, executor);
+    }
+
+    private O process() {
+        if (!STATUS.compareAndSet(this, TaskStatus.PENDING, TaskStatus.RUNNING)) {
+            throw notPending();
+        }
+        TaskProfiler.Sample sample = null;
+        try {
+            this.startedAt = LocalDateTime.now();
+            this.startedNanos = System.nanoTime();
+            notifyListener(TaskStatus.RUNNING);
+            
+            // Process the input using the provided function
+            TaskProfiler currentProfiler = profiler;
+            sample = currentProfiler == null ? null : currentProfiler.begin(this);
+            O output = processor.apply(input);
+            if (sample != null) {
+                this.resourceUsage = sample.end();
             }
+            
+            // Update task status and metadata
+            this.result = output;
+            this.status = TaskStatus.COMPLETED;
+            this.completedAt = LocalDateTime.now();
+            this.completedNanos = System.nanoTime();
+            notifyListener(TaskStatus.COMPLETED);
+            
+            return output;
+        } catch (Exception e) {
+            // Handle any errors during processing
+            if (sample != null && resourceUsage == null) {
+                this.resourceUsage = sample.fail(e);
+            }
+            this.status = TaskStatus.FAILED;
+            this.errorMessage = e.getMessage();
+            this.completedAt = LocalDateTime.now();
+            this.completedNanos = System.nanoTime();
+            notifyListener(TaskStatus.FAILED);
+            throw new RuntimeException("Task execution failed: " + e.getMessage(), e);
+        }
+    }
+
+    private CompletableFuture<O> executeDeferred() {
+        if (!STATUS.compareAndSet(this, TaskStatus.PENDING, TaskStatus.RUNNING)) {
+            return CompletableFuture.failedFuture(notPending());
+        }
+        CompletableFuture<O> future = new CompletableFuture<>();
+        this.startedAt = LocalDateTime.now();
+        this.startedNanos = System.nanoTime();
+        notifyListener(TaskStatus.RUNNING);
+        CompletionStage<O> stage;
+        try {
+            stage = Objects.requireNonNull(stageProcessor.apply(input), "Processor returned a null stage");
+        } catch (Exception e) {
+            fail(future, e);
+            return future;
+        }
+        stage.whenComplete((output, error) -> {
+            if (error != null) {
+                fail(future, error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+                return;
+            }
+            this.result = output;
+            this.completedAt = LocalDateTime.now();
+            this.completedNanos = System.nanoTime();
+            this.status = TaskStatus.COMPLETED;
+            notifyListener(TaskStatus.COMPLETED);
+            future.complete(output);
         });
+        return future;
+    }
+
+    private IllegalStateException notPending() {
+        return new IllegalStateException("Task " + taskId + " cannot start from status " + status);
+    }
+
+    private void fail(CompletableFuture<O> future, Throwable error) {
+        this.errorMessage = error.getMessage();
+        this.completedAt = LocalDateTime.now();
+        this.completedNanos = System.nanoTime();
+        this.status = TaskStatus.FAILED;
+        notifyListener(TaskStatus.FAILED);
+        future.completeExceptionally(new RuntimeException("Task execution failed: " + error.getMessage(), error));
+    }
+
+    private void notifyListener(TaskStatus newStatus) {
+        if (listener != null) {
+            listener.onStatusChange(this, newStatus);
+        }
     }
 
     // Getters
@@ -129,6 +342,116 @@ public class Task<I, O> {
         return -1;
     }
 
+    /**
+     * Returns how long the task waited between creation and the start of execution,
+     * in nanoseconds. Returns -1 if the task hasn't started.
+     */
+    public long getQueueDelayNanos() {
+        long started = startedNanos;
+        return started == 0 ? -1 : started - createdNanos;
+    }
+
+    /**
+     * Returns how long the task has been running, or ran if it finished, in nanoseconds.
+     * Returns -1 if the task hasn't started.
+     */
+    public long getRunNanos() {
+        long started = startedNanos;
+        if (started == 0) {
+            return -1;
+        }
+        long completed = completedNanos;
+        return (completed == 0 ? System.nanoTime() : completed) - started;
+    }
+
+    /**
+     * Runs the processor on this task's input again, without changing the task's status,
+     * result or timestamps. Used to race a duplicate against a slow execution, so it is
+     * only safe for idempotent processors.
+     * 
+     * @param executor The executor that runs the processor; deferred tasks start their stage on the calling thread
+     * @return CompletableFuture<O> containing the duplicate's result
+     */
+    public CompletableFuture<O> executeDuplicate(Executor executor) {
+        if (stageProcessor == null) {
+            return CompletableFuture.supplyAsync(() -> processor.apply(input), executor);
+        }
+        CompletableFuture<O> duplicate = new CompletableFuture<>();
+        try {
+            stageProcessor.apply(input).whenComplete((output, error) -> {
+                if (error != null) {
+                    duplicate.completeExceptionally(error);
+                } else {
+                    duplicate.complete(output);
+                }
+            });
+        } catch (Exception e) {
+            duplicate.completeExceptionally(e);
+        }
+        return duplicate;
+    }
+
+    /**
+     * Measures CPU time and allocations of this task's execution if the profiler samples it.
+     * Deferred tasks are not measured, since their work does not run on one worker thread.
+     * 
+     * @param profiler The profiler deciding whether to sample; null disables profiling
+     */
+    public void setProfiler(TaskProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Returns the CPU time and allocated bytes of the execution,
+     * or null if it was not sampled or hasn't finished.
+     */
+    public TaskResourceUsage getResourceUsage() {
+        return resourceUsage;
+    }
+
+    /**
+     * Sets a deadline relative to the task's creation time. Deadline-aware schedulers
+     * run tasks with earlier deadlines first and drop tasks that can no longer meet theirs.
+     * 
+     * @param timeout How long after creation the task must have completed
+     */
+    public void setDeadline(Duration timeout) {
+        this.deadline = createdAt.plus(timeout);
+        this.deadlineNanos = createdNanos + timeout.toNanos();
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public boolean hasDeadline() {
+        return deadline != null;
+    }
+
+    /**
+     * Returns the deadline on the System.nanoTime() clock, or Long.MAX_VALUE if there is none.
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Marks a task that never started as FAILED without running it, for example because
+     * its deadline can no longer be met. Returns false if the task was already started;
+     * an expired task is never started afterwards.
+     * 
+     * @param reason The error message recorded on the task
+     */
+    public boolean expire(String reason) {
+        if (!STATUS.compareAndSet(this, TaskStatus.PENDING, TaskStatus.FAILED)) {
+            return false;
+        }
+        this.errorMessage = reason;
+        this.completedAt = LocalDateTime.now();
+        notifyListener(TaskStatus.FAILED);
+        return true;
+    }
+
     @Override
     public String toString() {
         return String.format("Task[id=%s, name=%s, status=%s, priority=%s]",
@@ -0,0 +1,14 @@
+package com.codestorykh.taskmanager.model;
+
+/**
+ * Describes a task to be created: its name, priority and input, without a processor.
+ * Used to submit many tasks that share one processor in a single call.
+ *
+ * @param <I> The input type of the task
+ */
+public record TaskDescriptor<I>(String name, TaskPriority priority, I input) {
+
+    public static <I> TaskDescriptor<I> of(String name, TaskPriority priority, I input) {
+        return new TaskDescriptor<>(name, priority, input);
+    }
+}
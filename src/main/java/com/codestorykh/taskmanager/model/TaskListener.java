@@ -0,0 +1,10 @@
+package com.codestorykh.taskmanager.model;
+
+/**
+ * Callback notified by a {@link Task} when its status changes.
+ * Invoked on the thread running the task, so implementations must be fast and must not block.
+ */
+@FunctionalInterface
+public interface TaskListener {
+    void onStatusChange(Task<?, ?> task, TaskStatus status);
+}
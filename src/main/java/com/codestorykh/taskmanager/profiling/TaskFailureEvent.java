@@ -0,0 +1,35 @@
+package com.codestorykh.taskmanager.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("com.codestorykh.taskmanager.TaskFailure")
+@Label("Task Failure")
+@Category({"Task Manager", "Tasks"})
+@Description("A sampled task failed; the event duration spans its execution")
+class TaskFailureEvent extends Event {
+    @Label("Task ID")
+    String taskId;
+
+    @Label("Name")
+    String name;
+
+    @Label("Priority")
+    String priority;
+
+    @Label("Error")
+    String error;
+
+    @Label("CPU Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long cpuTime;
+
+    @Label("Allocated")
+    @DataAmount(DataAmount.BYTES)
+    long allocated;
+}
@@ -0,0 +1,170 @@
+package com.codestorykh.taskmanager.profiling;
+
+import com.codestorykh.taskmanager.model.Task;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures CPU time and allocated bytes of a sample of task executions and reports
+ * them as JFR events.
+ *
+ * Only a {@code sampleRate} fraction of executions is measured; for the rest the cost is
+ * a single random number. A sampled execution reads the thread CPU and allocation
+ * counters before and after the processor runs and commits a start event and an end
+ * or failure event, which show up in a JFR recording under "Task Manager".
+ */
+public class TaskProfiler {
+    private final double sampleRate;
+    private final ThreadMXBean threads;
+    private final com.sun.management.ThreadMXBean allocations;
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder wallNanos = new LongAdder();
+
+    public TaskProfiler() {
+        this(0.01);
+    }
+
+    /**
+     * @param sampleRate fraction of task executions to measure, between 0 and 1
+     */
+    public TaskProfiler(double sampleRate) {
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threads = bean.isCurrentThreadCpuTimeSupported() ? bean : null;
+        if (threads != null && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        com.sun.management.ThreadMXBean extended = bean instanceof com.sun.management.ThreadMXBean sun
+            && sun.isThreadAllocatedMemorySupported() ? sun : null;
+        if (extended != null && !extended.isThreadAllocatedMemoryEnabled()) {
+            extended.setThreadAllocatedMemoryEnabled(true);
+        }
+        this.allocations = extended;
+    }
+
+    /**
+     * Starts measuring the execution of a task on the current thread, or returns null
+     * if this execution is not sampled. Must be ended on the same thread.
+     */
+    public Sample begin(Task<?, ?> task) {
+        if (sampleRate == 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return null;
+        }
+        TaskStartEvent start = new TaskStartEvent();
+        if (start.shouldCommit()) {
+            start.taskId = task.getTaskId();
+            start.name = task.getName();
+            start.priority = task.getPriority().name();
+            start.commit();
+        }
+        return new Sample(task);
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    // Number of measured executions
+    public long getSampledCount() {
+        return sampled.sum();
+    }
+
+    // Total CPU time of measured executions, in nanoseconds
+    public long getTotalCpuNanos() {
+        return cpuNanos.sum();
+    }
+
+    // Total bytes allocated by measured executions
+    public long getTotalAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    // Average resources of a measured execution, null if nothing was sampled yet
+    public TaskResourceUsage getAverageUsage() {
+        long count = sampled.sum();
+        if (count == 0) {
+            return null;
+        }
+        return new TaskResourceUsage(threads == null ? -1 : cpuNanos.sum() / count,
+            allocations == null ? -1 : allocatedBytes.sum() / count, wallNanos.sum() / count);
+    }
+
+    private long cpuTime() {
+        return threads == null ? -1 : threads.getCurrentThreadCpuTime();
+    }
+
+    private long allocated() {
+        return allocations == null ? -1 : allocations.getCurrentThreadAllocatedBytes();
+    }
+
+    private TaskResourceUsage record(long startCpu, long startAllocated, long startWall) {
+        long cpu = threads == null ? -1 : cpuTime() - startCpu;
+        long bytes = allocations == null ? -1 : allocated() - startAllocated;
+        long wall = System.nanoTime() - startWall;
+        sampled.increment();
+        cpuNanos.add(Math.max(0, cpu));
+        allocatedBytes.add(Math.max(0, bytes));
+        wallNanos.add(wall);
+        return new TaskResourceUsage(cpu, bytes, wall);
+    }
+
+    /**
+     * Measurement of one task execution in progress.
+     */
+    public final class Sample {
+        private final Task<?, ?> task;
+        private final long startCpu;
+        private final long startAllocated;
+        private final long startWall;
+        private final TaskEndEvent endEvent = new TaskEndEvent();
+        private final TaskFailureEvent failureEvent = new TaskFailureEvent();
+
+        private Sample(Task<?, ?> task) {
+            this.task = task;
+            endEvent.begin();
+            failureEvent.begin();
+            this.startWall = System.nanoTime();
+            this.startAllocated = allocated();
+            this.startCpu = cpuTime();
+        }
+
+        // Ends the measurement of a task that completed
+        public TaskResourceUsage end() {
+            TaskResourceUsage usage = record(startCpu, startAllocated, startWall);
+            endEvent.end();
+            if (endEvent.shouldCommit()) {
+                endEvent.taskId = task.getTaskId();
+                endEvent.name = task.getName();
+                endEvent.priority = task.getPriority().name();
+                endEvent.cpuTime = usage.cpuNanos();
+                endEvent.allocated = usage.allocatedBytes();
+                endEvent.commit();
+            }
+            return usage;
+        }
+
+        // Ends the measurement of a task whose processor threw
+        public TaskResourceUsage fail(Throwable error) {
+            TaskResourceUsage usage = record(startCpu, startAllocated, startWall);
+            failureEvent.end();
+            if (failureEvent.shouldCommit()) {
+                failureEvent.taskId = task.getTaskId();
+                failureEvent.name = task.getName();
+                failureEvent.priority = task.getPriority().name();
+                failureEvent.error = String.valueOf(error.getMessage());
+                failureEvent.cpuTime = usage.cpuNanos();
+                failureEvent.allocated = usage.allocatedBytes();
+                failureEvent.commit();
+            }
+            return usage;
+        }
+    }
+}
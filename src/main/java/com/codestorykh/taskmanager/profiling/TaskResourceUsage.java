@@ -0,0 +1,17 @@
+package com.codestorykh.taskmanager.profiling;
+
+/**
+ * Resources consumed by one sampled task execution, measured on the worker thread
+ * around the call to its processor.
+ *
+ * @param cpuNanos CPU time of the worker thread, -1 if the JVM does not measure it
+ * @param allocatedBytes bytes allocated by the worker thread, -1 if the JVM does not measure it
+ * @param wallNanos elapsed wall-clock time
+ */
+public record TaskResourceUsage(long cpuNanos, long allocatedBytes, long wallNanos) {
+
+    // Share of the wall-clock time spent on CPU; a low ratio means the task mostly waited
+    public double cpuRatio() {
+        return cpuNanos < 0 || wallNanos <= 0 ? -1 : (double) cpuNanos / wallNanos;
+    }
+}
@@ -0,0 +1,22 @@
+package com.codestorykh.taskmanager.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.codestorykh.taskmanager.TaskStart")
+@Label("Task Start")
+@Category({"Task Manager", "Tasks"})
+@Description("A sampled task started executing on a worker thread")
+class TaskStartEvent extends Event {
+    @Label("Task ID")
+    String taskId;
+
+    @Label("Name")
+    String name;
+
+    @Label("Priority")
+    String priority;
+}
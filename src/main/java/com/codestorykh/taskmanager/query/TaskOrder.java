@@ -0,0 +1,29 @@
+package com.codestorykh.taskmanager.query;
+
+import com.codestorykh.taskmanager.store.TaskRecord;
+
+import java.util.Comparator;
+
+/**
+ * Orders in which a {@link TaskQuery} can return its matches.
+ */
+public enum TaskOrder {
+    OLDEST_FIRST(Comparator.comparingLong(TaskRecord::createdAtMillis)),
+    NEWEST_FIRST(Comparator.comparingLong(TaskRecord::createdAtMillis).reversed()),
+    // Unfinished tasks have no duration and come last in both duration orders
+    LONGEST_FIRST(Comparator.comparingLong(TaskRecord::durationMillis).reversed()),
+    SHORTEST_FIRST(Comparator.comparingLong(record -> {
+        long duration = record.durationMillis();
+        return duration < 0 ? Long.MAX_VALUE : duration;
+    }));
+
+    private final Comparator<TaskRecord> comparator;
+
+    TaskOrder(Comparator<TaskRecord> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<TaskRecord> comparator() {
+        return comparator;
+    }
+}
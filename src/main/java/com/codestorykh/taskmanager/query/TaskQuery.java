@@ -0,0 +1,230 @@
+package com.codestorykh.taskmanager.query;
+
+import com.codestorykh.generics.advanced.SelectionUtils;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+import com.codestorykh.taskmanager.store.TaskFilter;
+import com.codestorykh.taskmanager.store.TaskRecord;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Conditions on status, priority, name, creation time and duration, plus an optional order
+ * and limit. Build one fluently or {@link #parse} it from text such as
+ * {@code status:FAILED priority:HIGH name:import-* created<10m duration>2s order:newest limit:20}.
+ * A query is compiled to a {@link TaskFilter} once per execution, so relative times like
+ * "created in the last 10 minutes" are resolved against the moment it runs.
+ */
+public class TaskQuery {
+    private final Set<TaskStatus> statuses = EnumSet.noneOf(TaskStatus.class);
+    private final Set<TaskPriority> priorities = EnumSet.noneOf(TaskPriority.class);
+    private String exactName;
+    private String namePrefix;
+    private Duration createdWithin;
+    private Duration olderThan;
+    private long minDurationMillis;
+    private long maxDurationMillis = Long.MAX_VALUE;
+    private TaskOrder order;
+    private int limit = Integer.MAX_VALUE;
+
+    public static TaskQuery tasks() {
+        return new TaskQuery();
+    }
+
+    // Repeated calls widen the set: status(FAILED).status(COMPLETED) matches either
+    public TaskQuery status(TaskStatus... statuses) {
+        this.statuses.addAll(Arrays.asList(statuses));
+        return this;
+    }
+
+    public TaskQuery priority(TaskPriority... priorities) {
+        this.priorities.addAll(Arrays.asList(priorities));
+        return this;
+    }
+
+    public TaskQuery named(String name) {
+        this.exactName = name;
+        return this;
+    }
+
+    public TaskQuery nameStartsWith(String prefix) {
+        this.namePrefix = prefix;
+        return this;
+    }
+
+    public TaskQuery createdWithin(Duration window) {
+        this.createdWithin = window;
+        return this;
+    }
+
+    public TaskQuery olderThan(Duration age) {
+        this.olderThan = age;
+        return this;
+    }
+
+    public TaskQuery durationAtLeast(Duration duration) {
+        this.minDurationMillis = duration.toMillis();
+        return this;
+    }
+
+    public TaskQuery durationAtMost(Duration duration) {
+        this.maxDurationMillis = duration.toMillis();
+        return this;
+    }
+
+    public TaskQuery orderBy(TaskOrder order) {
+        this.order = order;
+        return this;
+    }
+
+    public TaskQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    // Lowers the limit to max unless the query already asks for fewer, for callers that cap result sizes
+    public TaskQuery limitAtMost(int max) {
+        return limit(Math.min(limit, max));
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // Resolves relative times against nowMillis and reduces every condition to primitive bounds
+    public TaskFilter compile(long nowMillis) {
+        long createdFrom = createdWithin == null ? Long.MIN_VALUE : nowMillis - createdWithin.toMillis();
+        long createdTo = olderThan == null ? Long.MAX_VALUE : nowMillis - olderThan.toMillis();
+        return new TaskFilter(TaskFilter.stateMask(statuses, priorities), exactName, namePrefix,
+            createdFrom, createdTo, minDurationMillis, maxDurationMillis);
+    }
+
+    /**
+     * Applies the order and limit to matching records. An ordered query with a limit keeps only
+     * the best {@code limit} records while the matches stream past; an unordered one stops
+     * pulling matches once it has enough.
+     */
+    public Stream<TaskRecord> select(Stream<TaskRecord> matches) {
+        if (order == null) {
+            return limit == Integer.MAX_VALUE ? matches : matches.limit(limit);
+        }
+        if (limit == Integer.MAX_VALUE) {
+            return matches.sorted(order.comparator());
+        }
+        return SelectionUtils.bottomK(matches, limit, order.comparator()).stream();
+    }
+
+    /**
+     * Parses space-separated conditions:
+     * <ul>
+     *   <li>{@code status:FAILED,COMPLETED} and {@code priority:HIGH,CRITICAL}</li>
+     *   <li>{@code name:import-csv}, or {@code name:import-*} for a prefix</li>
+     *   <li>{@code created<10m} for created within the last 10 minutes, {@code created>1h} for older than an hour</li>
+     *   <li>{@code duration>2s} and {@code duration<500ms}, with units ms, s, m, h and d</li>
+     *   <li>{@code order:oldest|newest|longest|shortest} and {@code limit:20}</li>
+     * </ul>
+     */
+    public static TaskQuery parse(String text) {
+        TaskQuery query = new TaskQuery();
+        for (String token : text.trim().split("\\s+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (token.startsWith("status:")) {
+                for (String status : values(token, "status:")) {
+                    query.status(parseEnum(TaskStatus.class, status, token));
+                }
+            } else if (token.startsWith("priority:")) {
+                for (String priority : values(token, "priority:")) {
+                    query.priority(parseEnum(TaskPriority.class, priority, token));
+                }
+            } else if (token.startsWith("name:")) {
+                String name = token.substring("name:".length());
+                if (name.endsWith("*")) {
+                    query.nameStartsWith(name.substring(0, name.length() - 1));
+                } else {
+                    query.named(name);
+                }
+            } else if (token.startsWith("created<")) {
+                query.createdWithin(parseDuration(token, "created<"));
+            } else if (token.startsWith("created>")) {
+                query.olderThan(parseDuration(token, "created>"));
+            } else if (token.startsWith("duration>")) {
+                query.durationAtLeast(parseDuration(token, "duration>"));
+            } else if (token.startsWith("duration<")) {
+                query.durationAtMost(parseDuration(token, "duration<"));
+            } else if (token.startsWith("order:")) {
+                query.orderBy(parseOrder(token));
+            } else if (token.startsWith("limit:")) {
+                try {
+                    query.limit(Integer.parseInt(token.substring("limit:".length())));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid limit: " + token, e);
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown query condition: " + token);
+            }
+        }
+        return query;
+    }
+
+    private static String[] values(String token, String key) {
+        String values = token.substring(key.length());
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Missing value: " + token);
+        }
+        return values.split(",");
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String token) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " in " + token, e);
+        }
+    }
+
+    private static TaskOrder parseOrder(String token) {
+        return switch (token.substring("order:".length()).toLowerCase(Locale.ROOT)) {
+            case "oldest" -> TaskOrder.OLDEST_FIRST;
+            case "newest" -> TaskOrder.NEWEST_FIRST;
+            case "longest" -> TaskOrder.LONGEST_FIRST;
+            case "shortest" -> TaskOrder.SHORTEST_FIRST;
+            default -> throw new IllegalArgumentException("Unknown order: " + token);
+        };
+    }
+
+    // Amount followed by a unit: 250ms, 2s, 10m, 1h or 7d
+    private static Duration parseDuration(String token, String key) {
+        String value = token.substring(key.length()).toLowerCase(Locale.ROOT);
+        int unitStart = 0;
+        while (unitStart < value.length() && Character.isDigit(value.charAt(unitStart))) {
+            unitStart++;
+        }
+        if (unitStart == 0) {
+            throw new IllegalArgumentException("Invalid duration: " + token);
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(value.substring(0, unitStart));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration: " + token, e);
+        }
+        return switch (value.substring(unitStart)) {
+            case "ms" -> Duration.ofMillis(amount);
+            case "s" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            case "h" -> Duration.ofHours(amount);
+            case "d" -> Duration.ofDays(amount);
+            default -> throw new IllegalArgumentException("Invalid duration unit: " + token);
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.codestorykh.taskmanager.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-based concurrency limiter that resizes the number of tasks allowed in flight.
+ *
+ * Each completed task reports its latency. The limiter tracks the minimum latency as
+ * the no-load baseline and scales the limit by {@code baseline / latency}: when tasks
+ * start queueing on a saturated resource latency rises and the limit shrinks, when
+ * latency stays near the baseline the limit grows by roughly {@code sqrt(limit)}.
+ * The baseline is re-learned periodically so a shift between CPU-bound and I/O-bound
+ * workloads is picked up.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double SMOOTHING = 0.2;
+    private static final int BASELINE_RESET_SAMPLES = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private volatile double estimatedLimit;
+    private volatile long baselineNanos = Long.MAX_VALUE;
+    private volatile long lastLatencyNanos;
+    private long samplesSinceReset;
+    private long limitIncreases;
+    private long limitDecreases;
+
+    public AdaptiveConcurrencyLimiter() {
+        this(20, 1, 1000);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException(String.format(
+                "Invalid limits: initial=%d, min=%d, max=%d", initialLimit, minLimit, maxLimit));
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    // Takes a slot if fewer than limit tasks are in flight
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Returns a slot without reporting a latency sample
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Returns a slot and feeds the task latency into the limit estimate.
+     *
+     * @param latencyNanos measured latency of the completed task
+     * @param inFlightAtStart number of tasks in flight when it started
+     */
+    public void release(long latencyNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        onSample(latencyNanos, inFlightAtStart);
+    }
+
+    private synchronized void onSample(long latencyNanos, int inFlightAtStart) {
+        lastLatencyNanos = latencyNanos;
+        if (++samplesSinceReset >= BASELINE_RESET_SAMPLES) {
+            samplesSinceReset = 0;
+            baselineNanos = Math.max(1, latencyNanos);
+        } else if (latencyNanos < baselineNanos) {
+            baselineNanos = Math.max(1, latencyNanos);
+        }
+
+        double current = estimatedLimit;
+        double gradient = Math.max(0.5, Math.min(1.0, (double) baselineNanos / Math.max(1, latencyNanos)));
+        // Do not grow the limit when the caller is not using it
+        if (gradient == 1.0 && inFlightAtStart < current / 2) {
+            return;
+        }
+        double target = current * gradient + Math.sqrt(current);
+        double next = Math.max(minLimit, Math.min(maxLimit, current * (1 - SMOOTHING) + target * SMOOTHING));
+        estimatedLimit = next;
+
+        int newLimit = (int) next;
+        if (newLimit > limit) {
+            limitIncreases++;
+        } else if (newLimit < limit) {
+            limitDecreases++;
+        }
+        limit = newLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // Fastest recently observed task latency, -1 if nothing was measured yet
+    public long getBaselineLatencyNanos() {
+        long baseline = baselineNanos;
+        return baseline == Long.MAX_VALUE ? -1 : baseline;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized Metrics getMetrics() {
+        return new Metrics(limit, inFlight.get(),
+            baselineNanos == Long.MAX_VALUE ? -1 : baselineNanos / 1000, lastLatencyNanos / 1000,
+            limitIncreases, limitDecreases);
+    }
+
+    /**
+     * Snapshot of the limiter state; latencies are in microseconds, -1 if not measured yet.
+     */
+    public record Metrics(int limit, int inFlight, long baselineLatencyMicros, long lastLatencyMicros,
+                          long limitIncreases, long limitDecreases) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * CoDel-style admission control driven by task queue delay.
+ *
+ * Every started task reports how long it waited between creation and start. A delay
+ * above {@code target} alone is not a problem, since short bursts are expected; only when
+ * the delay has stayed above target for a whole {@code interval} is the system considered
+ * overloaded, and it stays overloaded until the delay has been below target for an interval.
+ * While overloaded, new work below {@code minimumPriority} is rejected and
+ * queued work is served newest first, so the tasks that do run still have waiting callers.
+ * CRITICAL work is always admitted. Since delays are only reported when tasks start, overload
+ * also ends once no task has started for an interval and the backlog probe reports an empty queue.
+ */
+public class CoDelAdmissionController {
+    private final long targetNanos;
+    private final long intervalNanos;
+    private final TaskPriority minimumPriority;
+    private final Map<TaskPriority, LongAdder> admitted = new EnumMap<>(TaskPriority.class);
+    private final Map<TaskPriority, LongAdder> rejected = new EnumMap<>(TaskPriority.class);
+    // Time at which the delay will have been above target for a full interval, 0 if below target
+    private volatile long firstAboveNanos;
+    // Time at which the delay will have been below target for a full interval, 0 if above target
+    private volatile long firstBelowNanos;
+    private volatile boolean overloaded;
+    private volatile long lastQueueDelayNanos;
+    private volatile long lastSampleNanos = System.nanoTime();
+    private volatile BooleanSupplier backlogEmpty = () -> true;
+
+    public CoDelAdmissionController() {
+        this(Duration.ofMillis(5), Duration.ofMillis(100), TaskPriority.HIGH);
+    }
+
+    /**
+     * @param target acceptable queue delay
+     * @param interval how long the delay must stay above target before shedding starts
+     * @param minimumPriority lowest priority still admitted while overloaded
+     */
+    public CoDelAdmissionController(Duration target, Duration interval, TaskPriority minimumPriority) {
+        this.targetNanos = target.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.minimumPriority = minimumPriority;
+        for (TaskPriority priority : TaskPriority.values()) {
+            admitted.put(priority, new LongAdder());
+            rejected.put(priority, new LongAdder());
+        }
+    }
+
+    // Records the queue delay of a task that just started
+    public void recordQueueDelay(long queueDelayNanos) {
+        lastQueueDelayNanos = queueDelayNanos;
+        long now = System.nanoTime();
+        lastSampleNanos = now;
+        if (queueDelayNanos < targetNanos) {
+            firstAboveNanos = 0;
+            // Leaving overload also takes a full interval, since LIFO serving hides the real backlog
+            long firstBelow = firstBelowNanos;
+            if (firstBelow == 0) {
+                firstBelowNanos = now + intervalNanos;
+            } else if (now - firstBelow >= 0) {
+                overloaded = false;
+            }
+            return;
+        }
+        firstBelowNanos = 0;
+        long firstAbove = firstAboveNanos;
+        if (firstAbove == 0) {
+            firstAboveNanos = now + intervalNanos;
+        } else if (now - firstAbove >= 0) {
+            overloaded = true;
+        }
+    }
+
+    // Tells the controller whether tasks are still waiting to start, checked when no delay was reported for an interval
+    public void setBacklogProbe(BooleanSupplier backlogEmpty) {
+        this.backlogEmpty = backlogEmpty;
+    }
+
+    // Decides whether new work of the given priority is accepted
+    public boolean admit(TaskPriority priority) {
+        if (overloaded) {
+            endOverloadIfIdle();
+        }
+        boolean accept = priority == TaskPriority.CRITICAL
+            || !overloaded
+            || priority.compareTo(minimumPriority) >= 0;
+        (accept ? admitted : rejected).get(priority).increment();
+        return accept;
+    }
+
+    // Without starts there are no new delay samples; an empty queue means the backlog has drained
+    private void endOverloadIfIdle() {
+        if (System.nanoTime() - lastSampleNanos >= intervalNanos && backlogEmpty.getAsBoolean()) {
+            firstAboveNanos = 0;
+            firstBelowNanos = 0;
+            overloaded = false;
+        }
+    }
+
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    public long getLastQueueDelayNanos() {
+        return lastQueueDelayNanos;
+    }
+
+    public long getAdmittedCount(TaskPriority priority) {
+        return admitted.get(priority).sum();
+    }
+
+    public long getRejectedCount(TaskPriority priority) {
+        return rejected.get(priority).sum();
+    }
+}
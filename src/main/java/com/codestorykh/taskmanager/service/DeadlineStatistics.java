@@ -0,0 +1,17 @@
+package com.codestorykh.taskmanager.service;
+
+/**
+ * SLA attainment of tasks that carried a deadline.
+ *
+ * @param met tasks that completed before their deadline
+ * @param missed tasks that failed, or completed after their deadline
+ * @param dropped tasks dropped before starting because they could no longer meet their deadline
+ */
+public record DeadlineStatistics(long met, long missed, long dropped) {
+
+    // Fraction of deadline tasks that met their deadline, 1.0 if there were none
+    public double attainment() {
+        long total = met + missed + dropped;
+        return total == 0 ? 1.0 : (double) met / total;
+    }
+}
@@ -0,0 +1,186 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.Task;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-expiring index from client idempotency keys to submitted tasks.
+ * A key stays valid while its task is in flight and for {@code retention} after it finished.
+ * A task that is never executed keeps its key for {@code retention} after submission, so
+ * abandoned submissions cannot pin keys forever.
+ * When the index is full the key of the earliest finished task is evicted; keys of tasks that
+ * are running are never evicted, so the index may exceed its size while they are in flight.
+ */
+class IdempotencyIndex {
+    private final int maxEntries;
+    private final long retentionNanos;
+    private final Map<String, Entry> byKey = new ConcurrentHashMap<>();
+    private final Map<String, Entry> byTaskId = new ConcurrentHashMap<>();
+    // Entries of finished tasks in completion order, the only ones that expire or get evicted
+    private final Queue<Entry> finished = new ConcurrentLinkedQueue<>();
+    // Entries in submission order, dropped once executed or expired unexecuted
+    private final Queue<Entry> submitted = new ConcurrentLinkedQueue<>();
+    private final LongAdder duplicates = new LongAdder();
+
+    IdempotencyIndex(int maxEntries, Duration retention) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.retentionNanos = retention.toNanos();
+    }
+
+    /**
+     * Returns the live task registered under the key, or registers the task created by
+     * the factory. The key is claimed with a placeholder first and the factory runs without
+     * any lock held, so submissions under other keys are never serialized behind it; a
+     * concurrent submission under the same key waits for the placeholder's task.
+     */
+    @SuppressWarnings("unchecked")
+    <I, O> Task<I, O> getOrRegister(String key, Supplier<Task<I, O>> factory) {
+        while (true) {
+            long now = System.nanoTime();
+            purgeExpired(now);
+            Entry claimed = new Entry(key);
+            Entry existing = byKey.putIfAbsent(key, claimed);
+            if (existing == null) {
+                return register(claimed, factory);
+            }
+            if (existing.isExpired(now, retentionNanos)) {
+                remove(existing);
+                continue;
+            }
+            Task<?, ?> task = existing.task.join();
+            if (task != null) {
+                duplicates.increment();
+                return (Task<I, O>) task;
+            }
+            // The first submission under this key failed and released it
+        }
+    }
+
+    private <I, O> Task<I, O> register(Entry entry, Supplier<Task<I, O>> factory) {
+        Task<I, O> task;
+        try {
+            task = factory.get();
+        } catch (RuntimeException | Error e) {
+            byKey.remove(entry.key, entry);
+            entry.task.complete(null);
+            throw e;
+        }
+        entry.submittedNanos = System.nanoTime();
+        byTaskId.put(task.getTaskId(), entry);
+        entry.task.complete(task);
+        submitted.offer(entry);
+        evictOverCapacity();
+        return task;
+    }
+
+    /**
+     * Runs a keyed task at most once and hands every caller the same future.
+     * Tasks that were not submitted with a key are executed by the fallback as usual.
+     */
+    @SuppressWarnings("unchecked")
+    <I, O> CompletableFuture<O> execute(Task<I, O> task, Function<Task<I, O>, CompletableFuture<O>> executor) {
+        Entry entry = byTaskId.get(task.getTaskId());
+        if (entry == null) {
+            return executor.apply(task);
+        }
+        synchronized (entry) {
+            if (entry.abandoned) {
+                // Expired before anyone executed it, the key no longer refers to this task
+                return executor.apply(task);
+            }
+            if (entry.future == null) {
+                CompletableFuture<O> future = executor.apply(task);
+                future.whenComplete((result, error) -> {
+                    entry.completedNanos = System.nanoTime();
+                    finished.offer(entry);
+                });
+                entry.future = future;
+            }
+            return (CompletableFuture<O>) entry.future;
+        }
+    }
+
+    // Number of submissions answered with an existing task
+    long getDuplicateCount() {
+        return duplicates.sum();
+    }
+
+    int size() {
+        return byKey.size();
+    }
+
+    private void purgeExpired(long now) {
+        // Finished entries are queued in completion order, so stop at the first one still retained
+        Entry oldest;
+        while ((oldest = finished.peek()) != null && oldest.isExpired(now, retentionNanos)) {
+            if (finished.remove(oldest)) {
+                remove(oldest);
+            }
+        }
+        // Likewise for submission order: stop at the first entry that is neither executed nor expired
+        while ((oldest = submitted.peek()) != null) {
+            synchronized (oldest) {
+                if (oldest.future == null && now - oldest.submittedNanos <= retentionNanos) {
+                    return;
+                }
+                if (oldest.future == null) {
+                    oldest.abandoned = true;
+                    remove(oldest);
+                }
+            }
+            submitted.remove(oldest);
+        }
+    }
+
+    private void evictOverCapacity() {
+        while (byKey.size() > maxEntries) {
+            Entry oldest = finished.poll();
+            if (oldest == null) {
+                // Only keys of unfinished tasks are left, and evicting them would allow duplicates
+                return;
+            }
+            remove(oldest);
+        }
+    }
+
+    private void remove(Entry entry) {
+        byKey.remove(entry.key, entry);
+        Task<?, ?> task = entry.task.getNow(null);
+        if (task != null) {
+            byTaskId.remove(task.getTaskId(), entry);
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        // Completed with the registered task, or with null if creating it failed
+        private final CompletableFuture<Task<?, ?>> task = new CompletableFuture<>();
+        private CompletableFuture<?> future;
+        private volatile long submittedNanos;
+        // Set when the entry expired before its task was executed
+        private boolean abandoned;
+        // Zero while the task has not finished
+        private volatile long completedNanos;
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        boolean isExpired(long now, long retentionNanos) {
+            long completed = completedNanos;
+            return completed != 0 && now - completed > retentionNanos;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.codestorykh.taskmanager.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency distribution with four buckets per power of two, so a percentile is
+ * accurate to within 25% at any scale from nanoseconds to hours. Recording is one atomic
+ * increment; reading a percentile walks the 256 buckets.
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+
+    void record(long nanos) {
+        buckets.incrementAndGet(bucketOf(Math.max(0, nanos)));
+        count.increment();
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile, in nanoseconds,
+     * or -1 if nothing was recorded yet.
+     *
+     * @param percentile between 0 and 1, for example 0.99
+     */
+    long percentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < buckets.length(); bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank) {
+                return upperBound(bucket);
+            }
+        }
+        // Counts recorded while walking; the last non-empty bucket holds the maximum
+        for (int bucket = buckets.length() - 1; bucket >= 0; bucket--) {
+            if (buckets.get(bucket) > 0) {
+                return upperBound(bucket);
+            }
+        }
+        return -1;
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return exponent * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        int exponent = bucket / SUB_BUCKETS;
+        if (exponent < SUB_BUCKET_BITS) {
+            return bucket;
+        }
+        int sub = bucket % SUB_BUCKETS;
+        long next = (long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS);
+        // The top bucket would overflow
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
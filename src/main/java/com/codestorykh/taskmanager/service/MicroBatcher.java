@@ -0,0 +1,170 @@
+package com.codestorykh.taskmanager.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Buffers individual inputs and hands them to a batch processor in one call.
+ * A batch is flushed when it reaches {@code maxBatchSize} or when its oldest input
+ * has waited {@code maxLinger}, whichever comes first. Each input gets its own future,
+ * completed from the matching position of the batch result. Buffered inputs are plain
+ * values with a future; how a flushed batch is run is up to the batch runner.
+ *
+ * @param <I> The input type of a single item
+ * @param <O> The output type of a single item
+ */
+public class MicroBatcher<I, O> {
+    private final String name;
+    private final Function<List<I>, ? extends CompletionStage<List<O>>> batchRunner;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Object lock = new Object();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder itemCount = new LongAdder();
+    private List<I> inputs;
+    private List<CompletableFuture<O>> futures;
+    // Identifies the current buffer so a linger timer never flushes a later batch
+    private long generation;
+
+    // Runs each flushed batch through the processor on the executor
+    public MicroBatcher(String name, Function<List<I>, List<O>> processor, int maxBatchSize, Duration maxLinger,
+                        Executor executor, ScheduledExecutorService scheduler) {
+        this(name, batch -> CompletableFuture.supplyAsync(() -> processor.apply(batch), executor),
+            maxBatchSize, maxLinger, scheduler);
+    }
+
+    /**
+     * @param batchRunner starts processing a flushed batch and returns its outputs, one per input in input order
+     */
+    public MicroBatcher(String name, Function<List<I>, ? extends CompletionStage<List<O>>> batchRunner,
+                        int maxBatchSize, Duration maxLinger, ScheduledExecutorService scheduler) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize);
+        }
+        this.name = name;
+        this.batchRunner = batchRunner;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.scheduler = scheduler;
+        resetBuffer();
+    }
+
+    // Adds an input to the current batch and returns the future of its output
+    public CompletableFuture<O> enqueue(I input) {
+        CompletableFuture<O> future = new CompletableFuture<>();
+        List<I> fullInputs = null;
+        List<CompletableFuture<O>> fullFutures = null;
+        long scheduleGeneration = -1;
+        synchronized (lock) {
+            inputs.add(input);
+            futures.add(future);
+            if (inputs.size() >= maxBatchSize) {
+                fullInputs = inputs;
+                fullFutures = futures;
+                resetBuffer();
+            } else if (inputs.size() == 1) {
+                scheduleGeneration = generation;
+            }
+        }
+        if (fullInputs != null) {
+            dispatch(fullInputs, fullFutures);
+        } else if (scheduleGeneration >= 0) {
+            long expected = scheduleGeneration;
+            scheduler.schedule(() -> flush(expected), maxLingerNanos, TimeUnit.NANOSECONDS);
+        }
+        return future;
+    }
+
+    // Flushes whatever is buffered right now
+    public void flush() {
+        List<I> pendingInputs;
+        List<CompletableFuture<O>> pendingFutures;
+        synchronized (lock) {
+            if (inputs.isEmpty()) {
+                return;
+            }
+            pendingInputs = inputs;
+            pendingFutures = futures;
+            resetBuffer();
+        }
+        dispatch(pendingInputs, pendingFutures);
+    }
+
+    private void flush(long expectedGeneration) {
+        List<I> pendingInputs;
+        List<CompletableFuture<O>> pendingFutures;
+        synchronized (lock) {
+            if (generation != expectedGeneration || inputs.isEmpty()) {
+                return;
+            }
+            pendingInputs = inputs;
+            pendingFutures = futures;
+            resetBuffer();
+        }
+        dispatch(pendingInputs, pendingFutures);
+    }
+
+    private void resetBuffer() {
+        inputs = new ArrayList<>(maxBatchSize);
+        futures = new ArrayList<>(maxBatchSize);
+        generation++;
+    }
+
+    private void dispatch(List<I> batch, List<CompletableFuture<O>> batchFutures) {
+        batchCount.increment();
+        itemCount.add(batch.size());
+        CompletionStage<List<O>> result;
+        try {
+            result = batchRunner.apply(batch);
+        } catch (RuntimeException e) {
+            batchFutures.forEach(future -> future.completeExceptionally(e));
+            return;
+        }
+        result.whenComplete((outputs, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                batchFutures.forEach(future -> future.completeExceptionally(cause));
+                return;
+            }
+            if (outputs == null || outputs.size() != batch.size()) {
+                IllegalStateException mismatch = new IllegalStateException(String.format(
+                    "Batch processor '%s' returned %s results for %d inputs",
+                    name, outputs == null ? "null" : outputs.size(), batch.size()));
+                batchFutures.forEach(future -> future.completeExceptionally(mismatch));
+                return;
+            }
+            for (int i = 0; i < batchFutures.size(); i++) {
+                batchFutures.get(i).complete(outputs.get(i));
+            }
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public long getItemCount() {
+        return itemCount.sum();
+    }
+
+    // Average number of items per flushed batch, 0 if nothing was flushed yet
+    public double getAverageBatchSize() {
+        long batches = batchCount.sum();
+        return batches == 0 ? 0 : (double) itemCount.sum() / batches;
+    }
+}
@@ -0,0 +1,13 @@
+package com.codestorykh.taskmanager.service;
+
+/**
+ * Order in which the dispatcher starts queued tasks.
+ */
+public enum SchedulingMode {
+    // Submission order, or newest first while admission control reports overload
+    FIFO,
+    // Earliest deadline first regardless of priority; tasks without a deadline go last
+    EARLIEST_DEADLINE_FIRST,
+    // Highest priority first, earliest deadline first within a priority
+    PRIORITY_THEN_DEADLINE
+}
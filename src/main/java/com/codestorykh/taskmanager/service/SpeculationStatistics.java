@@ -0,0 +1,15 @@
+package com.codestorykh.taskmanager.service;
+
+/**
+ * Outcome of speculative re-execution of straggling tasks.
+ *
+ * @param speculated tasks that ran past their latency threshold and got a duplicate
+ * @param duplicateWins tasks whose duplicate finished before the original
+ * @param savedNanos time by which winning duplicates beat originals that finished later
+ */
+public record SpeculationStatistics(long speculated, long duplicateWins, long savedNanos) {
+
+    public long savedMillis() {
+        return savedNanos / 1_000_000;
+    }
+}
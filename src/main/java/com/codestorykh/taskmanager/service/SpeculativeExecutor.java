@@ -0,0 +1,258 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.Task;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detects straggling tasks and races a duplicate against them.
+ *
+ * Completed run times are recorded per task name. A task executed through this executor is
+ * checked once it has run for the configured percentile of its name's run times; if it is
+ * still running then, a duplicate runs the same processor on the same input and the first
+ * successful copy provides the result. A losing duplicate is cancelled and its thread
+ * interrupted. A losing original keeps running until its processor returns, since
+ * interrupting it would fail the task; its status and result then describe its own run.
+ * Duplicates run outside the task manager's limiter and admission control, on a pool capped
+ * at {@code maxDuplicates} threads; when every thread is busy a straggler gets no duplicate,
+ * so speculation never adds more than that much load.
+ * Only idempotent tasks may be executed this way.
+ */
+public final class SpeculativeExecutor implements AutoCloseable {
+    // How often tasks whose name has too few samples for a threshold are looked at again
+    private static final long SWEEP_MILLIS = 10;
+
+    private final double percentile;
+    private final int minSamples;
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    // Watched tasks whose name has no threshold yet, checked together by one periodic sweep
+    private final Queue<Speculation<?, ?>> belowMinSamples = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-straggler-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService duplicates;
+    private final LongAdder speculated = new LongAdder();
+    private final LongAdder duplicateWins = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+
+    /**
+     * @param percentile run time percentile past which a task counts as a straggler, for example 0.95
+     * @param minSamples completed runs of a task name needed before its tasks are speculated
+     */
+    public SpeculativeExecutor(double percentile, int minSamples) {
+        this(percentile, minSamples, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param percentile run time percentile past which a task counts as a straggler, for example 0.95
+     * @param minSamples completed runs of a task name needed before its tasks are speculated
+     * @param maxDuplicates duplicates that may run at the same time
+     */
+    public SpeculativeExecutor(double percentile, int minSamples, int maxDuplicates) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1: " + percentile);
+        }
+        if (minSamples < 1) {
+            throw new IllegalArgumentException("Min samples must be positive: " + minSamples);
+        }
+        if (maxDuplicates < 1) {
+            throw new IllegalArgumentException("Max duplicates must be positive: " + maxDuplicates);
+        }
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        // No queue: a duplicate that cannot start right away is not worth starting
+        this.duplicates = new ThreadPoolExecutor(0, maxDuplicates, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "task-speculative");
+                thread.setDaemon(true);
+                return thread;
+            });
+        checker.scheduleWithFixedDelay(this::sweep, SWEEP_MILLIS, SWEEP_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Adds a completed task's run time to the distribution of its name
+    void recordCompletion(Task<?, ?> task) {
+        long runNanos = task.getRunNanos();
+        if (runNanos >= 0) {
+            latencies.computeIfAbsent(task.getName(), name -> new LatencyHistogram()).record(runNanos);
+        }
+    }
+
+    /**
+     * Returns the run time past which tasks of the given name are speculated, in nanoseconds,
+     * or -1 while fewer than the minimum number of runs completed.
+     */
+    public long getThresholdNanos(String taskName) {
+        LatencyHistogram histogram = latencies.get(taskName);
+        if (histogram == null || histogram.getCount() < minSamples) {
+            return -1;
+        }
+        return histogram.percentile(percentile);
+    }
+
+    /**
+     * Watches a task whose original execution was already started and returns the result
+     * of whichever copy succeeds first. Fails only when every copy failed.
+     */
+    <I, O> CompletableFuture<O> watch(Task<I, O> task, CompletableFuture<O> original) {
+        Speculation<I, O> speculation = new Speculation<>(task);
+        original.whenComplete(speculation::originalDone);
+        if (!speculation.result.isDone()) {
+            scheduleOrPark(speculation);
+        }
+        return speculation.result;
+    }
+
+    // Schedules the check at the task's threshold, or leaves the task to the sweep if there is none yet
+    private void scheduleOrPark(Speculation<?, ?> speculation) {
+        long threshold = getThresholdNanos(speculation.task.getName());
+        if (threshold < 0) {
+            belowMinSamples.add(speculation);
+            return;
+        }
+        long running = speculation.task.getRunNanos();
+        // A queued task has not started its clock yet
+        schedule(speculation, running < 0 ? threshold : Math.max(0, threshold - running));
+    }
+
+    /**
+     * Drops finished tasks from the tasks waiting for their name's threshold and schedules
+     * the check of those whose name now has one. Each name's threshold is looked up once per sweep.
+     */
+    private void sweep() {
+        Map<String, Boolean> ready = new HashMap<>();
+        for (Iterator<Speculation<?, ?>> waiting = belowMinSamples.iterator(); waiting.hasNext(); ) {
+            Speculation<?, ?> speculation = waiting.next();
+            if (speculation.result.isDone()) {
+                waiting.remove();
+            } else if (ready.computeIfAbsent(speculation.task.getName(), name -> getThresholdNanos(name) >= 0)) {
+                waiting.remove();
+                scheduleOrPark(speculation);
+            }
+        }
+    }
+
+    private void schedule(Speculation<?, ?> speculation, long delayNanos) {
+        try {
+            checker.schedule(() -> check(speculation), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed: the original alone decides the result
+        }
+    }
+
+    private void check(Speculation<?, ?> speculation) {
+        if (speculation.result.isDone()) {
+            return;
+        }
+        long threshold = getThresholdNanos(speculation.task.getName());
+        long running = speculation.task.getRunNanos();
+        if (threshold < 0 || running < threshold) {
+            scheduleOrPark(speculation);
+            return;
+        }
+        speculation.launchDuplicate();
+    }
+
+    public SpeculationStatistics getStatistics() {
+        return new SpeculationStatistics(speculated.sum(), duplicateWins.sum(), savedNanos.sum());
+    }
+
+    // Stops watching; running duplicates are interrupted
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        duplicates.shutdownNow();
+    }
+
+    // Race state of one task, guarded by its own monitor
+    private final class Speculation<I, O> {
+        private final Task<I, O> task;
+        private final CompletableFuture<O> result = new CompletableFuture<>();
+        private int running = 1;
+        private Throwable firstError;
+        private CompletableFuture<O> duplicate;
+        private Future<?> duplicateThread;
+        private long duplicateWonNanos;
+
+        private Speculation(Task<I, O> task) {
+            this.task = task;
+        }
+
+        private void launchDuplicate() {
+            CompletableFuture<O> launched;
+            synchronized (this) {
+                if (result.isDone() || duplicate != null) {
+                    return;
+                }
+                try {
+                    launched = task.executeDuplicate(runnable -> duplicateThread = duplicates.submit(runnable));
+                } catch (RejectedExecutionException e) {
+                    // Every duplicate thread is busy, or the executor is closed: the original decides alone
+                    return;
+                } catch (RuntimeException e) {
+                    launched = CompletableFuture.failedFuture(e);
+                }
+                running++;
+                speculated.increment();
+                duplicate = launched;
+            }
+            launched.whenComplete(this::duplicateDone);
+        }
+
+        private synchronized void originalDone(O output, Throwable error) {
+            running--;
+            if (error != null) {
+                failed(error);
+            } else if (result.complete(output)) {
+                cancelDuplicate();
+            } else if (duplicateWonNanos != 0) {
+                savedNanos.add(System.nanoTime() - duplicateWonNanos);
+            }
+        }
+
+        private synchronized void duplicateDone(O output, Throwable error) {
+            running--;
+            if (error != null) {
+                failed(error);
+            } else if (result.complete(output)) {
+                duplicateWins.increment();
+                duplicateWonNanos = System.nanoTime();
+            }
+        }
+
+        private void failed(Throwable error) {
+            if (firstError == null) {
+                firstError = error;
+            }
+            if (running == 0) {
+                result.completeExceptionally(firstError);
+            }
+        }
+
+        private void cancelDuplicate() {
+            if (duplicate != null) {
+                duplicate.cancel(false);
+            }
+            if (duplicateThread != null) {
+                duplicateThread.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.Task;
+
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Starts tasks only while the concurrency limiter has room and queues the rest.
+ * Each completion releases its slot, reports its latency and starts queued tasks,
+ * so callers never block waiting for capacity. Queued tasks are served in FIFO order
+ * unless the LIFO condition holds, for example while admission control reports overload.
+ * In a deadline scheduling mode queued tasks are ordered by deadline instead, and a task
+ * whose deadline is closer than the fastest observed execution is dropped without running.
+ */
+public class TaskDispatcher {
+    private static final Comparator<PendingExecution<?>> BY_DEADLINE =
+        Comparator.<PendingExecution<?>, Boolean>comparing(execution -> !execution.task.hasDeadline())
+            .thenComparingLong(execution -> execution.task.getDeadlineNanos())
+            .thenComparingLong(execution -> execution.sequence);
+    private static final Comparator<PendingExecution<?>> BY_PRIORITY_THEN_DEADLINE =
+        Comparator.<PendingExecution<?>, Integer>comparing(execution -> -execution.task.getPriority().ordinal())
+            .thenComparing(BY_DEADLINE);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Executor executor;
+    private final Deque<PendingExecution<?>> pending = new ConcurrentLinkedDeque<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private volatile BooleanSupplier lifoCondition = () -> false;
+    private volatile SchedulingMode schedulingMode = SchedulingMode.FIFO;
+    private volatile Queue<PendingExecution<?>> ordered = new PriorityBlockingQueue<>(16, BY_DEADLINE);
+    // Set once this dispatcher is replaced; queued executions are forwarded to it
+    private volatile TaskDispatcher successor;
+
+    public TaskDispatcher(AdaptiveConcurrencyLimiter limiter, Executor executor) {
+        this.limiter = limiter;
+        this.executor = executor;
+    }
+
+    public <O> CompletableFuture<O> dispatch(Task<?, O> task) {
+        PendingExecution<O> execution = new PendingExecution<>(task, sequence.getAndIncrement());
+        enqueue(execution);
+        drain();
+        return execution.future;
+    }
+
+    /**
+     * Forwards queued executions, and any dispatched from now on, to the given dispatcher.
+     * Tasks already running finish here and return their slots to this dispatcher's limiter.
+     */
+    public void handOverTo(TaskDispatcher next) {
+        this.successor = next;
+        drain();
+    }
+
+    private void enqueue(PendingExecution<?> execution) {
+        if (schedulingMode == SchedulingMode.FIFO) {
+            // A mode switch may leave this in the FIFO deque, which is still polled as a fallback
+            pending.offer(execution);
+            return;
+        }
+        Queue<PendingExecution<?>> queue = ordered;
+        queue.offer(execution);
+        // A concurrent mode switch replaces the ordered queue and drains the old one, possibly
+        // before this offer landed; move anything left behind to the current queues
+        if (queue != ordered) {
+            PendingExecution<?> stranded;
+            while ((stranded = queue.poll()) != null) {
+                enqueue(stranded);
+            }
+        }
+    }
+
+    private void drain() {
+        TaskDispatcher next = successor;
+        if (next != null) {
+            PendingExecution<?> execution;
+            while ((execution = poll()) != null) {
+                next.enqueue(execution);
+            }
+            next.drain();
+            return;
+        }
+        // Re-check after releasing an unused slot so a concurrent offer is never stranded
+        while (hasPending() && limiter.tryAcquire()) {
+            PendingExecution<?> execution = poll();
+            if (execution == null) {
+                limiter.release();
+                continue;
+            }
+            if (cannotMeetDeadline(execution)) {
+                limiter.release();
+                drop(execution);
+                continue;
+            }
+            start(execution);
+        }
+    }
+
+    private boolean hasPending() {
+        return !pending.isEmpty() || !ordered.isEmpty();
+    }
+
+    // Polls the queue of the current mode first; the other one only holds stragglers from a mode switch
+    private PendingExecution<?> poll() {
+        PendingExecution<?> execution;
+        if (schedulingMode == SchedulingMode.FIFO) {
+            execution = lifoCondition.getAsBoolean() ? pending.pollLast() : pending.pollFirst();
+            return execution != null ? execution : ordered.poll();
+        }
+        execution = ordered.poll();
+        return execution != null ? execution : pending.pollFirst();
+    }
+
+    private boolean cannotMeetDeadline(PendingExecution<?> execution) {
+        if (schedulingMode == SchedulingMode.FIFO || !execution.task.hasDeadline()) {
+            return false;
+        }
+        long fastestNanos = Math.max(0, limiter.getBaselineLatencyNanos());
+        return System.nanoTime() + fastestNanos - execution.task.getDeadlineNanos() > 0;
+    }
+
+    private void drop(PendingExecution<?> execution) {
+        String reason = "Deadline can no longer be met";
+        if (execution.task.expire(reason)) {
+            dropped.increment();
+        }
+        execution.future.completeExceptionally(new TimeoutException(reason));
+    }
+
+    private <O> void start(PendingExecution<O> execution) {
+        int inFlightAtStart = limiter.getInFlight();
+        long startNanos = System.nanoTime();
+        CompletableFuture<O> running;
+        try {
+            running = execution.task.execute(executor);
+        } catch (RuntimeException e) {
+            limiter.release();
+            execution.future.completeExceptionally(e);
+            return;
+        }
+        running.whenComplete((result, error) -> {
+            limiter.release(System.nanoTime() - startNanos, inFlightAtStart);
+            if (error != null) {
+                execution.future.completeExceptionally(error);
+            } else {
+                execution.future.complete(result);
+            }
+            drain();
+        });
+    }
+
+    // Serve the newest queued task first while the condition holds
+    public void setLifoCondition(BooleanSupplier lifoCondition) {
+        this.lifoCondition = lifoCondition;
+    }
+
+    /**
+     * Switches the order in which queued tasks are started. Tasks already queued are moved
+     * to the queue of the new mode.
+     */
+    public synchronized void setSchedulingMode(SchedulingMode mode) {
+        Queue<PendingExecution<?>> next = new PriorityBlockingQueue<>(16,
+            mode == SchedulingMode.PRIORITY_THEN_DEADLINE ? BY_PRIORITY_THEN_DEADLINE : BY_DEADLINE);
+        Queue<PendingExecution<?>> previous = ordered;
+        this.ordered = next;
+        this.schedulingMode = mode;
+        PendingExecution<?> execution;
+        while ((execution = previous.poll()) != null) {
+            if (mode == SchedulingMode.FIFO) {
+                pending.offer(execution);
+            } else {
+                next.offer(execution);
+            }
+        }
+        if (mode != SchedulingMode.FIFO) {
+            while ((execution = pending.pollFirst()) != null) {
+                next.offer(execution);
+            }
+        }
+        drain();
+    }
+
+    public SchedulingMode getSchedulingMode() {
+        return schedulingMode;
+    }
+
+    // Number of tasks waiting for a concurrency slot
+    public int getQueuedCount() {
+        return pending.size() + ordered.size();
+    }
+
+    // Number of tasks dropped because they could no longer meet their deadline
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    private static final class PendingExecution<O> {
+        private final Task<?, O> task;
+        private final long sequence;
+        private final CompletableFuture<O> future = new CompletableFuture<>();
+
+        PendingExecution(Task<?, O> task, long sequence) {
+            this.task = task;
+            this.sequence = sequence;
+        }
+    }
+}
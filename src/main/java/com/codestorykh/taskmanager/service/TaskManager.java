@@ -1,54 +1,551 @@
 package com.codestorykh.taskmanager.service;
 
+import com.codestorykh.taskmanager.event.OverflowPolicy;
+import com.codestorykh.taskmanager.event.TaskChangeFeed;
+import com.codestorykh.taskmanager.event.TaskEventBus;
+import com.codestorykh.taskmanager.event.TaskEventListener;
+import com.codestorykh.taskmanager.event.TaskEventType;
+import com.codestorykh.taskmanager.event.TaskSubscription;
+import com.codestorykh.taskmanager.event.WaitStrategy;
 import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskDescriptor;
+import com.codestorykh.taskmanager.model.TaskListener;
 import com.codestorykh.taskmanager.model.TaskPriority;
 import com.codestorykh.taskmanager.model.TaskStatus;
+import com.codestorykh.taskmanager.profiling.TaskProfiler;
+import com.codestorykh.taskmanager.query.TaskQuery;
+import com.codestorykh.taskmanager.store.OffHeapTaskTable;
+import com.codestorykh.taskmanager.store.TaskFilter;
+import com.codestorykh.taskmanager.store.TaskRecord;
 
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class TaskManager {
     private final Map<String, Task<?, ?>> tasks;
+    private final TaskEventBus eventBus;
+    private final TaskListener lifecycleListener;
+    private final Map<String, BatchProcessor> batchers = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService batchScheduler;
+    private volatile TaskDispatcher dispatcher;
+    private volatile CoDelAdmissionController admissionController;
+    private volatile TaskProfiler profiler;
+    private volatile OffHeapTaskTable metadataTable;
+    private volatile TaskChangeFeed changeFeed;
+    private volatile ExecutorService workerPool;
+    private volatile SpeculativeExecutor speculativeExecutor;
+    // Worker resources created through this manager, closed on shutdown
+    private final Set<WorkerResource<?>> workerResources = ConcurrentHashMap.newKeySet();
+    private final LongAdder deadlinesMet = new LongAdder();
+    private final LongAdder deadlinesMissed = new LongAdder();
+    private volatile IdempotencyIndex idempotencyIndex = new IdempotencyIndex(10_000, Duration.ofMinutes(5));
 
     public TaskManager() {
+        this(new TaskEventBus());
+    }
+
+    public TaskManager(TaskEventBus eventBus) {
         this.tasks = new ConcurrentHashMap<>();
+        this.eventBus = eventBus;
+        this.lifecycleListener = this::onTaskStatusChange;
     }
 
     // Create and submit a new task
     public <I, O> Task<I, O> submitTask(String name, TaskPriority priority, I input, Function<I, O> processor) {
-        Task<I, O> task = new Task<>(name, priority, input, processor);
-        tasks.put(task.getTaskId(), task);
+        checkAdmission(name, priority);
+        return register(new Task<>(name, priority, input, processor, lifecycleListener));
+    }
+
+    /**
+     * Create and submit a task whose processor reuses a per-worker resource, such as a compiled
+     * matcher or a parser, instead of setting it up for every task.
+     * The resource stays open when this manager shuts down unless it came from
+     * {@link #createWorkerResource}; resources created directly, often shared between
+     * managers, are closed by their creator.
+     */
+    public <R, I, O> Task<I, O> submitTask(String name, TaskPriority priority, I input, WorkerResource<R> resource,
+                                           BiFunction<? super R, ? super I, ? extends O> processor) {
+        return submitTask(name, priority, input, resource.<I, O>bind(processor));
+    }
+
+    // Creates a per-worker resource that needs no cleanup, owned by this manager
+    public <R> WorkerResource<R> createWorkerResource(Supplier<? extends R> factory) {
+        return own(WorkerResource.of(factory));
+    }
+
+    // Creates a per-worker resource owned by this manager, closed with the closer by shutdown()
+    public <R> WorkerResource<R> createWorkerResource(Supplier<? extends R> factory, Consumer<? super R> closer) {
+        return own(WorkerResource.of(factory, closer));
+    }
+
+    private <R> WorkerResource<R> own(WorkerResource<R> resource) {
+        workerResources.add(resource);
+        return resource;
+    }
+
+    // Create and submit a new task that must complete within the given time
+    public <I, O> Task<I, O> submitTask(String name, TaskPriority priority, I input, Function<I, O> processor,
+                                        Duration deadline) {
+        checkAdmission(name, priority);
+        Task<I, O> task = new Task<>(name, priority, input, processor, lifecycleListener);
+        task.setDeadline(deadline);
+        return register(task);
+    }
+
+    /**
+     * Create and submit one task per descriptor, all sharing the same processor.
+     * IDs are assigned from a single random block prefix instead of one UUID per task,
+     * and the registry is pre-sized and filled in one bulk insert.
+     */
+    public <I, O> List<Task<I, O>> submitAll(Collection<TaskDescriptor<I>> descriptors, Function<I, O> processor) {
+        List<Task<I, O>> created = new ArrayList<>(descriptors.size());
+        String idPrefix = UUID.randomUUID() + "-";
+        int index = 0;
+        for (TaskDescriptor<I> descriptor : descriptors) {
+            checkAdmission(descriptor.name(), descriptor.priority());
+            created.add(new Task<>(idPrefix + index++, descriptor.name(), descriptor.priority(),
+                descriptor.input(), processor, lifecycleListener));
+        }
+        registerAll(created);
+        return created;
+    }
+
+    public <I, O> List<Task<I, O>> submitAll(Stream<TaskDescriptor<I>> descriptors, Function<I, O> processor) {
+        return submitAll(descriptors.collect(Collectors.toList()), processor);
+    }
+
+    // Bulk submit and start every task in the same call
+    public <I, O> List<CompletableFuture<O>> submitAllAndExecute(Collection<TaskDescriptor<I>> descriptors,
+                                                                 Function<I, O> processor) {
+        return executeTasksBatch(submitAll(descriptors, processor));
+    }
+
+    /**
+     * Create and submit a new task identified by a client idempotency key. Resubmitting
+     * with the same key while the task is in flight or recently finished returns the
+     * existing task, and executing it again returns the original future instead of rerunning it.
+     */
+    public <I, O> Task<I, O> submitTask(String name, TaskPriority priority, I input, Function<I, O> processor,
+                                        String idempotencyKey) {
+        return idempotencyIndex.getOrRegister(idempotencyKey,
+            () -> submitTask(name, priority, input, processor));
+    }
+
+    /**
+     * Sets how many idempotency keys are kept and how long a key is remembered after its task finished,
+     * or after submission if the task is never executed. Existing keys are forgotten.
+     */
+    public void configureIdempotency(int maxKeys, Duration retention) {
+        this.idempotencyIndex = new IdempotencyIndex(maxKeys, retention);
+    }
+
+    // Number of submissions that were answered with an existing task
+    public long getDuplicateSubmissionCount() {
+        return idempotencyIndex.getDuplicateCount();
+    }
+
+    private <I, O> Task<I, O> register(Task<I, O> task) {
+        registerAll(List.of(task));
         return task;
     }
 
+    // The one place new tasks are wired into the profiler, registry, table, change feed and event bus
+    private void registerAll(List<? extends Task<?, ?>> created) {
+        TaskProfiler currentProfiler = profiler;
+        created.forEach(task -> task.setProfiler(currentProfiler));
+        if (created.size() == 1) {
+            Task<?, ?> task = created.get(0);
+            tasks.put(task.getTaskId(), task);
+        } else {
+            // putAll sizes the table once for the whole batch instead of resizing as it grows
+            tasks.putAll(new TaskIndexView(created));
+        }
+        OffHeapTaskTable table = metadataTable;
+        if (table != null) {
+            created.forEach(table::put);
+        }
+        TaskChangeFeed feed = changeFeed;
+        if (feed != null) {
+            created.forEach(task -> feed.append(task.getTaskId(), task.getName(), task.getPriority(), task.getStatus()));
+        }
+        for (Task<?, ?> task : created) {
+            eventBus.publish(TaskEventType.SUBMITTED, task.getTaskId(), task.getName(), task.getPriority(), true);
+        }
+    }
+
+    // Runs on worker threads, so it must never block: a full ring rejects the event instead
+    private void onTaskStatusChange(Task<?, ?> task, TaskStatus status) {
+        CoDelAdmissionController controller = admissionController;
+        if (controller != null && status == TaskStatus.RUNNING) {
+            controller.recordQueueDelay(task.getQueueDelayNanos());
+        }
+        if (task.hasDeadline() && (status == TaskStatus.COMPLETED || status == TaskStatus.FAILED)) {
+            recordDeadlineOutcome(task, status);
+        }
+        OffHeapTaskTable table = metadataTable;
+        if (table != null && table.update(task)
+            && (status == TaskStatus.COMPLETED || status == TaskStatus.FAILED)) {
+            // The table keeps the finished task's metadata, so the heap object can go
+            tasks.remove(task.getTaskId());
+        }
+        SpeculativeExecutor speculation = speculativeExecutor;
+        if (speculation != null && status == TaskStatus.COMPLETED) {
+            speculation.recordCompletion(task);
+        }
+        TaskChangeFeed feed = changeFeed;
+        if (feed != null) {
+            feed.append(task.getTaskId(), task.getName(), task.getPriority(), status);
+        }
+        eventBus.publish(toEventType(status), task.getTaskId(), task.getName(), task.getPriority(), false);
+    }
+
+    private void recordDeadlineOutcome(Task<?, ?> task, TaskStatus status) {
+        if (task.getStartedAt() == null) {
+            // Dropped before starting, counted by the dispatcher
+            return;
+        }
+        if (status == TaskStatus.COMPLETED && System.nanoTime() - task.getDeadlineNanos() <= 0) {
+            deadlinesMet.increment();
+        } else {
+            deadlinesMissed.increment();
+        }
+    }
+
+    private void checkAdmission(String name, TaskPriority priority) {
+        CoDelAdmissionController controller = admissionController;
+        if (controller != null && !controller.admit(priority)) {
+            throw new RejectedExecutionException(String.format(
+                "Task '%s' with priority %s rejected: queue delay above target", name, priority));
+        }
+    }
+
+    /**
+     * Enables queue-delay based load shedding. While the controller reports overload,
+     * submissions below its minimum priority throw RejectedExecutionException and, when
+     * adaptive concurrency is enabled, queued tasks are started newest first.
+     */
+    public synchronized void enableAdmissionControl(CoDelAdmissionController controller) {
+        controller.setBacklogProbe(() -> {
+            TaskDispatcher current = dispatcher;
+            return current == null ? !ForkJoinPool.commonPool().hasQueuedSubmissions() : current.getQueuedCount() == 0;
+        });
+        this.admissionController = controller;
+        TaskDispatcher current = dispatcher;
+        if (current != null) {
+            current.setLifoCondition(controller::isOverloaded);
+        }
+    }
+
+    public Optional<CoDelAdmissionController> getAdmissionController() {
+        return Optional.ofNullable(admissionController);
+    }
+
+    /**
+     * Measures CPU time and allocated bytes of a sample of the tasks submitted from now on
+     * and emits JFR events for them. Results are available from {@link Task#getResourceUsage()}
+     * and aggregated on the profiler.
+     */
+    public void enableProfiling(TaskProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public Optional<TaskProfiler> getProfiler() {
+        return Optional.ofNullable(profiler);
+    }
+
+    /**
+     * Records the metadata of the tasks already registered, and of every task submitted from
+     * now on, in an off-heap table. Tasks finishing from then on are dropped from the in-memory
+     * registry: getTask, getTasksByStatus and getTasksByPriority rebuild them from the table
+     * without their input or result, and task statistics are counted from it. {@link #query(TaskQuery)} scans the table
+     * without rebuilding a task per row.
+     */
+    public void enableOffHeapMetadata(OffHeapTaskTable table) {
+        this.metadataTable = table;
+        // Backfill after publishing, so a task registered meanwhile is put by one side or both
+        tasks.values().forEach(table::put);
+    }
+
+    public Optional<OffHeapTaskTable> getMetadataTable() {
+        return Optional.ofNullable(metadataTable);
+    }
+
+    /**
+     * Records every status change from now on in a sequenced feed that clients can read
+     * from any sequence, instead of polling getTask or getTasksByStatus.
+     */
+    public TaskChangeFeed enableChangeFeed(int retention) {
+        TaskChangeFeed feed = new TaskChangeFeed(retention);
+        this.changeFeed = feed;
+        return feed;
+    }
+
+    public Optional<TaskChangeFeed> getChangeFeed() {
+        return Optional.ofNullable(changeFeed);
+    }
+
+    /**
+     * Registers a batch processor under a name. Inputs submitted with {@link #submitBatched}
+     * for that name are buffered and passed to the processor together, flushed at
+     * {@code maxBatchSize} items or after {@code maxLinger}. Each flushed batch runs as one
+     * tracked task named after the processor, so items carry no per-task overhead.
+     * The processor must return one output per input, in input order.
+     */
+    public <I, O> MicroBatcher<I, O> registerBatchProcessor(String processorName,
+                                                            Function<List<I>, List<O>> processor,
+                                                            int maxBatchSize, Duration maxLinger) {
+        return registerBatchProcessor(processorName, TaskPriority.MEDIUM, processor, maxBatchSize, maxLinger);
+    }
+
+    // Same as above, with the priority of the batch tasks and of admission checks on their items
+    public <I, O> MicroBatcher<I, O> registerBatchProcessor(String processorName, TaskPriority priority,
+                                                            Function<List<I>, List<O>> processor,
+                                                            int maxBatchSize, Duration maxLinger) {
+        // Items were admitted one by one, so the batch task itself is not checked again
+        MicroBatcher<I, O> batcher = new MicroBatcher<I, O>(processorName,
+            batch -> executeTask(register(new Task<>(processorName, priority, batch, processor, lifecycleListener))),
+            maxBatchSize, maxLinger, batchScheduler());
+        BatchProcessor registration = new BatchProcessor(batcher, priority, UUID.randomUUID() + "-", new AtomicLong());
+        if (batchers.putIfAbsent(processorName, registration) != null) {
+            throw new IllegalArgumentException("Batch processor already registered: " + processorName);
+        }
+        return batcher;
+    }
+
+    /**
+     * Adds an input to the next batch of a registered batch processor and returns the future of
+     * its output. Unlike a task, an item gets no ID, registry entry or events of its own.
+     */
+    public <I, O> CompletableFuture<O> submitBatched(String processorName, I input) {
+        BatchProcessor processor = batchProcessor(processorName);
+        checkAdmission(processorName, processor.priority());
+        return processor.<I, O>typedBatcher().enqueue(input);
+    }
+
+    /**
+     * Creates a task whose input is processed together with others by a registered batch
+     * processor. Executing the task adds its input to the next batch, and the task completes
+     * when that batch does. The task is a lightweight view for callers that work with tasks:
+     * its ID comes from a per-processor block prefix, and it is not registered and publishes
+     * no events, since the batch task carries those.
+     */
+    public <I, O> Task<I, O> submitBatchedTask(String processorName, String name, I input) {
+        BatchProcessor processor = batchProcessor(processorName);
+        checkAdmission(name, processor.priority());
+        MicroBatcher<I, O> batcher = processor.typedBatcher();
+        return Task.deferred(processor.idPrefix() + processor.nextId().getAndIncrement(), name,
+            processor.priority(), input, batcher::enqueue, null);
+    }
+
+    private BatchProcessor batchProcessor(String processorName) {
+        BatchProcessor processor = batchers.get(processorName);
+        if (processor == null) {
+            throw new IllegalArgumentException("No batch processor registered: " + processorName);
+        }
+        return processor;
+    }
+
+    private record BatchProcessor(MicroBatcher<?, ?> batcher, TaskPriority priority, String idPrefix,
+                                  AtomicLong nextId) {
+
+        @SuppressWarnings("unchecked")
+        <I, O> MicroBatcher<I, O> typedBatcher() {
+            return (MicroBatcher<I, O>) batcher;
+        }
+    }
+
+    private ScheduledExecutorService batchScheduler() {
+        ScheduledExecutorService scheduler = batchScheduler;
+        if (scheduler == null) {
+            synchronized (this) {
+                scheduler = batchScheduler;
+                if (scheduler == null) {
+                    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "task-batch-linger");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    batchScheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    // Subscribe to task lifecycle events instead of polling getAllTasks()
+    public TaskSubscription subscribe(TaskEventListener listener) {
+        return eventBus.subscribe(listener);
+    }
+
+    public TaskSubscription subscribe(TaskEventListener listener, WaitStrategy waitStrategy,
+                                      OverflowPolicy overflowPolicy) {
+        return eventBus.subscribe(listener, waitStrategy, overflowPolicy);
+    }
+
+    public TaskEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Create and submit a task with an asynchronous processor, such as a non-blocking I/O call.
+     * The task is RUNNING from execution until the returned stage completes, without holding
+     * a worker thread. Named differently from submitTask because the two processor types
+     * have the same erasure and lambdas would be ambiguous between them.
+     */
+    public <I, O> Task<I, O> submitAsyncTask(String name, TaskPriority priority, I input,
+                                             Function<I, ? extends CompletionStage<O>> processor) {
+        checkAdmission(name, priority);
+        return register(Task.deferred(name, priority, input, processor, lifecycleListener));
+    }
+
+    // Create and submit an asynchronous task under a caller-assigned ID, such as one allocated by a cluster
+    public <I, O> Task<I, O> submitAsyncTask(String taskId, String name, TaskPriority priority, I input,
+                                             Function<I, ? extends CompletionStage<O>> processor) {
+        checkAdmission(name, priority);
+        return register(Task.deferred(taskId, name, priority, input, processor, lifecycleListener));
+    }
+
     // Execute a task and get its future result
     public <I, O> CompletableFuture<O> executeTask(Task<I, O> task) {
-        return task.execute();
+        return idempotencyIndex.execute(task, this::dispatch);
+    }
+
+    private <I, O> CompletableFuture<O> dispatch(Task<I, O> task) {
+        TaskDispatcher current = dispatcher;
+        return current == null ? task.execute() : current.dispatch(task);
     }
 
-    // Get task by ID with type safety
+    /**
+     * Routes task execution through an adaptive concurrency limiter. Tasks beyond the current
+     * limit wait in a queue, and the limit follows measured task latency at runtime.
+     * Tasks run on a dedicated thread pool so the limiter, not the pool size, bounds parallelism.
+     * Calling this again replaces the limiter: the scheduling mode and queued tasks carry over
+     * to the new one and the thread pool is reused.
+     */
+    public synchronized void enableAdaptiveConcurrency(AdaptiveConcurrencyLimiter limiter) {
+        ExecutorService workers = workerPool;
+        if (workers == null) {
+            workers = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "task-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.workerPool = workers;
+        }
+        TaskDispatcher created = new TaskDispatcher(limiter, workers);
+        CoDelAdmissionController controller = admissionController;
+        if (controller != null) {
+            created.setLifoCondition(controller::isOverloaded);
+        }
+        TaskDispatcher previous = dispatcher;
+        if (previous != null) {
+            created.setSchedulingMode(previous.getSchedulingMode());
+        }
+        this.dispatcher = created;
+        if (previous != null) {
+            previous.handOverTo(created);
+        }
+    }
+
+    /**
+     * Orders queued tasks by deadline and drops tasks that can no longer meet theirs.
+     * Enables a fixed concurrency limit of one task per processor if no limiter is active yet.
+     */
+    public synchronized void enableDeadlineScheduling(SchedulingMode mode) {
+        if (dispatcher == null) {
+            int processors = Runtime.getRuntime().availableProcessors();
+            enableAdaptiveConcurrency(new AdaptiveConcurrencyLimiter(processors, processors, processors));
+        }
+        dispatcher.setSchedulingMode(mode);
+    }
+
+    // How many deadline tasks met, missed or were dropped before meeting their deadline
+    public DeadlineStatistics getDeadlineStatistics() {
+        TaskDispatcher current = dispatcher;
+        long dropped = current == null ? 0 : current.getDroppedCount();
+        return new DeadlineStatistics(deadlinesMet.sum(), deadlinesMissed.sum(), dropped);
+    }
+
+    // Current concurrency limit, in-flight count and latency, if adaptive concurrency is enabled
+    public Optional<AdaptiveConcurrencyLimiter.Metrics> getConcurrencyMetrics() {
+        TaskDispatcher current = dispatcher;
+        return current == null ? Optional.empty() : Optional.of(current.getLimiter().getMetrics());
+    }
+
+    // Tasks that can run at once: the concurrency limit if one is enabled, else the common pool's parallelism
+    public int getExecutionCapacity() {
+        TaskDispatcher current = dispatcher;
+        return current == null ? ForkJoinPool.getCommonPoolParallelism() : current.getLimiter().getLimit();
+    }
+
+    // Get task by ID with type safety; finished tasks only kept off-heap come back without input or result
     @SuppressWarnings("unchecked")
     public <I, O> Task<I, O> getTask(String taskId) {
-        return (Task<I, O>) tasks.get(taskId);
+        Task<?, ?> task = tasks.get(taskId);
+        OffHeapTaskTable table = metadataTable;
+        if (task == null && table != null) {
+            task = table.get(taskId).map(TaskRecord::toTask).orElse(null);
+        }
+        return (Task<I, O>) task;
     }
 
     // Get all tasks of a specific status
     public List<Task<?, ?>> getTasksByStatus(TaskStatus status) {
-        return tasks.values().stream()
+        List<Task<?, ?>> found = tasks.values().stream()
             .filter(task -> task.getStatus() == status)
             .collect(Collectors.toList());
+        addOffHeapOnly(found, status, null);
+        return found;
     }
 
     // Get all tasks of a specific priority
     public List<Task<?, ?>> getTasksByPriority(TaskPriority priority) {
-        return tasks.values().stream()
+        List<Task<?, ?>> found = tasks.values().stream()
             .filter(task -> task.getPriority() == priority)
             .collect(Collectors.toList());
+        addOffHeapOnly(found, null, priority);
+        return found;
+    }
+
+    // Adds the matching finished tasks that were dropped from the registry once the table held them
+    private void addOffHeapOnly(List<Task<?, ?>> found, TaskStatus status, TaskPriority priority) {
+        OffHeapTaskTable table = metadataTable;
+        if (table == null) {
+            return;
+        }
+        Set<String> onHeap = found.stream().map(Task::getTaskId).collect(Collectors.toSet());
+        for (TaskRecord record : table.find(status, priority, Integer.MAX_VALUE)) {
+            if (!onHeap.contains(record.taskId()) && !tasks.containsKey(record.taskId())) {
+                found.add(record.toTask());
+            }
+        }
     }
 
     // Execute multiple tasks in parallel
@@ -58,6 +555,54 @@ public class TaskManager {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Tracks run times per task name from now on, so that idempotent tasks executed with
+     * {@link #executeSpeculatively} get a duplicate when they run past the executor's percentile.
+     */
+    public void enableSpeculativeExecution(SpeculativeExecutor executor) {
+        this.speculativeExecutor = executor;
+    }
+
+    /**
+     * Execute an idempotent task, racing a duplicate against it if it straggles, and get
+     * the result of whichever copy succeeds first. Without speculative execution enabled
+     * this is the same as executeTask.
+     */
+    public <I, O> CompletableFuture<O> executeSpeculatively(Task<I, O> task) {
+        SpeculativeExecutor speculation = speculativeExecutor;
+        CompletableFuture<O> original = executeTask(task);
+        return speculation == null ? original : speculation.watch(task, original);
+    }
+
+    // Execute a batch of idempotent tasks in parallel, so that its slowest tasks do not set the batch's total time
+    public <I, O> List<CompletableFuture<O>> executeTasksBatchSpeculatively(List<Task<I, O>> taskList) {
+        return taskList.stream()
+            .map(this::executeSpeculatively)
+            .collect(Collectors.toList());
+    }
+
+    // How many tasks got a duplicate and how much time winning duplicates saved, if enabled
+    public Optional<SpeculationStatistics> getSpeculationStatistics() {
+        SpeculativeExecutor speculation = speculativeExecutor;
+        return speculation == null ? Optional.empty() : Optional.of(speculation.getStatistics());
+    }
+
+    /**
+     * Maps every input and reduces the outputs to one value, instead of executing a batch and
+     * folding the joined results on one thread. Outputs are combined in a fork/join tree as
+     * they are produced, so only a few partial results per worker exist at any time.
+     * The combiner must be associative, with {@code identity} as its identity; it need not
+     * be commutative. The whole reduction is tracked as a single task under the given name.
+     */
+    public <I, O> CompletableFuture<O> mapReduce(String name, TaskPriority priority, List<I> inputs,
+                                                 Function<? super I, ? extends O> mapper,
+                                                 O identity, BinaryOperator<O> combiner) {
+        List<I> indexed = inputs instanceof RandomAccess ? inputs : new ArrayList<>(inputs);
+        Task<List<I>, O> task = submitAsyncTask(name, priority, indexed,
+            list -> TreeReducer.reduce(list, mapper, identity, combiner, ForkJoinPool.commonPool()));
+        return executeTask(task);
+    }
+
     // Get all tasks
     public List<Task<?, ?>> getAllTasks() {
         return new ArrayList<>(tasks.values());
@@ -67,14 +612,132 @@ public class TaskManager {
     public void clearCompletedTasks() {
         tasks.entrySet().removeIf(entry -> 
             entry.getValue().getStatus() == TaskStatus.COMPLETED);
+        OffHeapTaskTable table = metadataTable;
+        if (table != null) {
+            table.remove(TaskStatus.COMPLETED);
+        }
     }
 
     // Get task statistics
     public Map<TaskStatus, Long> getTaskStatistics() {
+        OffHeapTaskTable table = metadataTable;
+        if (table != null) {
+            return table.getStatusCounts();
+        }
         return tasks.values().stream()
             .collect(Collectors.groupingBy(
                 Task::getStatus,
                 Collectors.counting()
             ));
     }
-} 
\ No newline at end of file
+
+    /**
+     * Streams the tasks matching the query, applying its order and limit. With off-heap metadata
+     * enabled the table is scanned in place, which holds every registered task;
+     * otherwise the registry is filtered directly. Only matching tasks are copied into records.
+     * No index narrows the scan beyond the table skipping chunks created outside the query's
+     * time range; use {@link #count(TaskQuery)} when only the number of matches is needed.
+     */
+    public Stream<TaskRecord> query(TaskQuery query) {
+        TaskFilter filter = query.compile(System.currentTimeMillis());
+        OffHeapTaskTable table = metadataTable;
+        Stream<TaskRecord> matches = table != null
+            ? table.scan(filter)
+            : tasks.values().stream().filter(filter::test).map(TaskRecord::of);
+        return query.select(matches);
+    }
+
+    /**
+     * Counts the tasks matching the query, up to its limit; the order is ignored. With off-heap
+     * metadata enabled, a query on status and priority only is counted from the table's state
+     * column without reading any other column or copying records.
+     */
+    public long count(TaskQuery query) {
+        TaskFilter filter = query.compile(System.currentTimeMillis());
+        OffHeapTaskTable table = metadataTable;
+        long count = table != null
+            ? table.count(filter)
+            : tasks.values().stream().filter(filter::test).count();
+        return Math.min(count, query.getLimit());
+    }
+
+    public long count(String query) {
+        return count(TaskQuery.parse(query));
+    }
+
+    // Parses and runs a query such as "status:FAILED priority:HIGH name:import-* created<10m"
+    public Stream<TaskRecord> query(String query) {
+        return query(TaskQuery.parse(query));
+    }
+
+    /**
+     * Closes the worker resources this manager created and stops the threads it started.
+     * Tasks still running finish, but must not depend on the closed resources.
+     */
+    public void shutdown() {
+        workerResources.forEach(WorkerResource::close);
+        workerResources.clear();
+        ExecutorService workers = workerPool;
+        if (workers != null) {
+            workers.shutdown();
+        }
+        ScheduledExecutorService scheduler = batchScheduler;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        SpeculativeExecutor speculation = speculativeExecutor;
+        if (speculation != null) {
+            speculation.close();
+        }
+    }
+
+    // Map view over freshly created tasks, keyed by ID, that lets putAll pre-size the registry
+    private static final class TaskIndexView extends AbstractMap<String, Task<?, ?>> {
+        private final List<? extends Task<?, ?>> created;
+
+        TaskIndexView(List<? extends Task<?, ?>> created) {
+            this.created = created;
+        }
+
+        @Override
+        public int size() {
+            return created.size();
+        }
+
+        @Override
+        public Set<Entry<String, Task<?, ?>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Task<?, ?>>> iterator() {
+                    Iterator<? extends Task<?, ?>> tasks = created.iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return tasks.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Task<?, ?>> next() {
+                            Task<?, ?> task = tasks.next();
+                            return new SimpleImmutableEntry<>(task.getTaskId(), task);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return created.size();
+                }
+            };
+        }
+    }
+
+    private static TaskEventType toEventType(TaskStatus status) {
+        return switch (status) {
+            case PENDING -> TaskEventType.SUBMITTED;
+            case RUNNING -> TaskEventType.STARTED;
+            case COMPLETED -> TaskEventType.COMPLETED;
+            case FAILED -> TaskEventType.FAILED;
+        };
+    }
+}
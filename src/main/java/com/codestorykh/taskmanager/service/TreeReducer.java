@@ -0,0 +1,85 @@
+package com.codestorykh.taskmanager.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Maps a range of inputs and reduces the outputs in a fork/join tree.
+ *
+ * A range is split in halves until it is small enough for one worker, which folds its inputs
+ * into a single partial result as it maps them; two halves are combined as soon as both are
+ * done. No list of outputs is ever built, so only one partial result per open level of the
+ * tree is alive on each worker. The combiner must be associative and {@code identity} must be
+ * its identity, because inputs are grouped differently depending on how the work is split.
+ *
+ * @param <I> The input type
+ * @param <O> The output and result type
+ */
+class TreeReducer<I, O> extends RecursiveTask<O> {
+    private static final long serialVersionUID = 1L;
+    // Leaves per worker, so that stealing can still even out inputs of uneven cost
+    private static final int LEAVES_PER_WORKER = 8;
+
+    // Only run in this JVM and never serialized, so the task's references are not part of its form
+    private final transient List<I> inputs;
+    private final int from;
+    private final int to;
+    private final int leafSize;
+    private final transient Function<? super I, ? extends O> mapper;
+    private final transient O identity;
+    private final transient BinaryOperator<O> combiner;
+
+    private TreeReducer(List<I> inputs, int from, int to, int leafSize, Function<? super I, ? extends O> mapper,
+                        O identity, BinaryOperator<O> combiner) {
+        this.inputs = inputs;
+        this.from = from;
+        this.to = to;
+        this.leafSize = leafSize;
+        this.mapper = mapper;
+        this.identity = identity;
+        this.combiner = combiner;
+    }
+
+    /**
+     * Starts the reduction on the pool and returns its result without blocking the caller.
+     * The inputs must support fast random access.
+     */
+    static <I, O> CompletableFuture<O> reduce(List<I> inputs, Function<? super I, ? extends O> mapper,
+                                              O identity, BinaryOperator<O> combiner, ForkJoinPool pool) {
+        int leaves = pool.getParallelism() * LEAVES_PER_WORKER;
+        int leafSize = Math.max(1, (inputs.size() + leaves - 1) / leaves);
+        TreeReducer<I, O> root = new TreeReducer<>(inputs, 0, inputs.size(), leafSize, mapper, identity, combiner);
+        CompletableFuture<O> result = new CompletableFuture<>();
+        // Invoked from inside the pool, so joins inside the tree steal work instead of blocking
+        pool.execute(() -> {
+            try {
+                result.complete(root.invoke());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    protected O compute() {
+        if (to - from <= leafSize) {
+            O partial = identity;
+            for (int i = from; i < to; i++) {
+                partial = combiner.apply(partial, mapper.apply(inputs.get(i)));
+            }
+            return partial;
+        }
+        int middle = (from + to) >>> 1;
+        TreeReducer<I, O> left = new TreeReducer<>(inputs, from, middle, leafSize, mapper, identity, combiner);
+        TreeReducer<I, O> right = new TreeReducer<>(inputs, middle, to, leafSize, mapper, identity, combiner);
+        left.fork();
+        O rightResult = right.compute();
+        // Left before right: the combiner need not be commutative
+        return combiner.apply(left.join(), rightResult);
+    }
+}
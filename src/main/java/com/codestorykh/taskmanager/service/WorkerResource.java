@@ -0,0 +1,151 @@
+package com.codestorykh.taskmanager.service;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A resource that a processor needs on every call but that is expensive to create, such as a
+ * compiled regex matcher, a JSON parser or a scratch buffer, kept per worker instead of per task.
+ *
+ * On platform threads each worker thread creates its own instance on first use and keeps it.
+ * Virtual threads are created per task, so there the instances are pooled instead: a task
+ * borrows an idle instance and returns it when done, and no more instances exist than tasks
+ * ran at the same time. Either way an instance is used by one thread at a time, so it does
+ * not need to be thread-safe. Instances of worker threads that have died are closed when
+ * the next instance is created; {@link #close()} closes all of them.
+ *
+ * @param <R> The resource type
+ */
+public final class WorkerResource<R> implements AutoCloseable {
+    private final Supplier<? extends R> factory;
+    private final Consumer<? super R> closer;
+    private final ThreadLocal<R> perThread = new ThreadLocal<>();
+    private final Map<Thread, R> threadInstances = new ConcurrentHashMap<>();
+    private final Queue<R> idle = new ConcurrentLinkedQueue<>();
+    // By identity: distinct instances may be equal, such as two empty scratch lists
+    private final Set<R> pooled = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private final LongAdder created = new LongAdder();
+    private volatile boolean closed;
+
+    private WorkerResource(Supplier<? extends R> factory, Consumer<? super R> closer) {
+        this.factory = factory;
+        this.closer = closer;
+    }
+
+    // A resource that needs no cleanup
+    public static <R> WorkerResource<R> of(Supplier<? extends R> factory) {
+        return new WorkerResource<>(factory, resource -> { });
+    }
+
+    public static <R> WorkerResource<R> of(Supplier<? extends R> factory, Consumer<? super R> closer) {
+        return new WorkerResource<>(factory, closer);
+    }
+
+    // A resource released through its own close method
+    public static <R extends AutoCloseable> WorkerResource<R> closeable(Supplier<? extends R> factory) {
+        return new WorkerResource<>(factory, resource -> {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to close worker resource", e);
+            }
+        });
+    }
+
+    /**
+     * Turns a processor that takes the resource as first argument into a plain processor
+     * that can be submitted as a task.
+     */
+    public <I, O> Function<I, O> bind(BiFunction<? super R, ? super I, ? extends O> processor) {
+        return input -> apply(processor, input);
+    }
+
+    private <I, O> O apply(BiFunction<? super R, ? super I, ? extends O> processor, I input) {
+        if (closed) {
+            throw new IllegalStateException("Worker resource is closed");
+        }
+        Thread current = Thread.currentThread();
+        if (!current.isVirtual()) {
+            R resource = perThread.get();
+            if (resource == null) {
+                resource = createFor(current);
+                perThread.set(resource);
+            }
+            return processor.apply(resource, input);
+        }
+        R resource = idle.poll();
+        if (resource == null) {
+            resource = factory.get();
+            created.increment();
+            pooled.add(resource);
+        }
+        try {
+            return processor.apply(resource, input);
+        } finally {
+            if (closed) {
+                release(resource);
+            } else {
+                idle.offer(resource);
+            }
+        }
+    }
+
+    private R createFor(Thread thread) {
+        // Threads of a shrinking pool never come back, so their instances can go
+        threadInstances.entrySet().removeIf(entry -> {
+            if (entry.getKey().isAlive()) {
+                return false;
+            }
+            closeQuietly(entry.getValue());
+            return true;
+        });
+        R resource = factory.get();
+        created.increment();
+        threadInstances.put(thread, resource);
+        return resource;
+    }
+
+    private void release(R resource) {
+        if (pooled.remove(resource)) {
+            closeQuietly(resource);
+        }
+    }
+
+    private void closeQuietly(R resource) {
+        try {
+            closer.accept(resource);
+        } catch (RuntimeException e) {
+            // One failing instance must not keep the others open
+        }
+    }
+
+    // Number of instances created so far; stays at the number of workers while tasks reuse them
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    /**
+     * Closes every instance. Instances borrowed by running tasks are closed when returned;
+     * later calls to a bound processor fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        threadInstances.values().forEach(this::closeQuietly);
+        threadInstances.clear();
+        R resource;
+        while ((resource = idle.poll()) != null) {
+            release(resource);
+        }
+    }
+}
@@ -0,0 +1,628 @@
+package com.codestorykh.taskmanager.store;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Task metadata kept outside the Java heap, one column per field.
+ *
+ * Rows are stored in fixed-size chunks of direct memory. Within a chunk every field is its
+ * own primitive column: the task ID as two longs and a numeric suffix, the interned name as
+ * an int, priority and status packed into one int, and the timestamps as epoch millis.
+ * Scans such as counting by status only touch the state column, and the garbage collector
+ * never sees the rows, so millions of retained records do not lengthen GC pauses.
+ * Task IDs that are not UUID based are copied into an off-heap arena and referenced from
+ * the row; only distinct names are kept on the heap.
+ *
+ * The table only grows: removed rows are just marked in the state column, and the direct
+ * buffers are released only when the table itself is garbage collected. Each row takes
+ * 52 bytes plus 8 to 16 bytes of ID index, and growing the index briefly holds the old and
+ * the new one, so 50 million rows need about 3.5 GB of direct memory. That is above the
+ * JVM's default direct memory limit, which equals the maximum heap size; raise it with
+ * {@code -XX:MaxDirectMemorySize} when sizing for large tables, or allocation fails with
+ * an OutOfMemoryError.
+ *
+ * Rows are appended under a lock. Status updates and lookups by ID run without it, so the
+ * worker threads reporting status changes never wait for an append or an index resize;
+ * a resize builds the new ID index aside and publishes it once complete. Scans also run
+ * without the lock and see every row appended before they started, with a status at least
+ * as recent as the row's timestamps.
+ */
+public class OffHeapTaskTable {
+    private static final int CHUNK_SHIFT = 16;
+    private static final int ROWS_PER_CHUNK = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = ROWS_PER_CHUNK - 1;
+
+    // Column offsets within a chunk
+    private static final int ID_HIGH = 0;
+    private static final int ID_LOW = ID_HIGH + 8 * ROWS_PER_CHUNK;
+    private static final int CREATED = ID_LOW + 8 * ROWS_PER_CHUNK;
+    private static final int STARTED = CREATED + 8 * ROWS_PER_CHUNK;
+    private static final int COMPLETED = STARTED + 8 * ROWS_PER_CHUNK;
+    private static final int ID_SUFFIX = COMPLETED + 8 * ROWS_PER_CHUNK;
+    private static final int NAME = ID_SUFFIX + 4 * ROWS_PER_CHUNK;
+    private static final int STATE = NAME + 4 * ROWS_PER_CHUNK;
+    private static final int CHUNK_BYTES = STATE + 4 * ROWS_PER_CHUNK;
+
+    // Suffix of a plain UUID task ID; block IDs carry their index instead
+    private static final int NO_SUFFIX = -1;
+    // Suffix of an ID kept in the arena: the high column holds its hash, the low column its arena offset
+    private static final int OTHER_ID = -2;
+    private static final int ARENA_CHUNK_BYTES = 1 << 20;
+    // State of a removed row, matched by no status or priority
+    private static final int REMOVED = -1;
+
+    private static final VarHandle INT_VIEW =
+        MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    // Task IDs that are not UUID based, stored as a char count followed by the chars
+    private volatile ByteBuffer[] idArena = new ByteBuffer[0];
+    private int arenaPosition;
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    // Smallest and largest creation time per chunk, so time-bounded scans skip whole chunks
+    private volatile long[] chunkMinCreated = new long[0];
+    private volatile long[] chunkMaxCreated = new long[0];
+    private volatile int size;
+    // Open-addressing index from task ID to row + 1, 0 marks an empty slot; replaced whole on resize
+    private volatile ByteBuffer index = allocate(16 * 4);
+
+    /**
+     * Appends a row for the task, or updates it if the task is already stored.
+     */
+    public synchronized void put(Task<?, ?> task) {
+        String taskId = task.getTaskId();
+        long[] id = encodeId(taskId);
+        int row = findRow(index, id, taskId);
+        if (row < 0) {
+            if (id[2] == OTHER_ID) {
+                id[1] = storeId(taskId);
+            }
+            row = append(id, task);
+        }
+        writeProgress(row, task);
+    }
+
+    /**
+     * Copies the current status and timestamps of a stored task. Returns false if the task
+     * is not in the table. Takes no lock: the task's own put happened before its status
+     * changed, so the row is visible in whichever index is current.
+     */
+    public boolean update(Task<?, ?> task) {
+        int row = lookup(task.getTaskId());
+        if (row < 0) {
+            return false;
+        }
+        writeProgress(row, task);
+        return true;
+    }
+
+    public Optional<TaskRecord> get(String taskId) {
+        int row = lookup(taskId);
+        if (row < 0) {
+            // A put racing with this call may not be visible yet without the lock
+            synchronized (this) {
+                row = lookup(taskId);
+            }
+        }
+        if (row < 0) {
+            return Optional.empty();
+        }
+        ByteBuffer[] current = chunks;
+        return state(current, row) == REMOVED ? Optional.empty() : Optional.of(read(current, row));
+    }
+
+    // Number of rows appended, including removed ones
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Marks every row with the status as removed and returns how many were. Removed rows are
+     * skipped by lookups, counts and scans; a later put of the same task brings its row back.
+     * Their memory is not reclaimed.
+     */
+    public long remove(TaskStatus status) {
+        Rows visible = visibleRows();
+        int rows = visible.count();
+        ByteBuffer[] current = visible.chunks();
+        long removed = 0;
+        for (int row = 0; row < rows; row++) {
+            int state = state(current, row);
+            // Compare-and-set, so a row whose status changes meanwhile is left alone
+            if (state != REMOVED && (state & 0xFF) == status.ordinal()
+                && INT_VIEW.compareAndSet(current[row >>> CHUNK_SHIFT], STATE + (row & CHUNK_MASK) * 4, state, REMOVED)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Counts rows matching the status and priority; a null argument matches any value.
+     */
+    public long count(TaskStatus status, TaskPriority priority) {
+        Rows visible = visibleRows();
+        int rows = visible.count();
+        ByteBuffer[] current = visible.chunks();
+        long count = 0;
+        for (int row = 0; row < rows; row++) {
+            int state = state(current, row);
+            if (matches(state, status, priority)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts rows matching the filter. A filter on status and priority only is answered from the
+     * state column without copying any row to the heap; other filters count a {@link #scan}.
+     */
+    public long count(TaskFilter filter) {
+        if (!filter.filtersStateOnly()) {
+            return scan(filter).count();
+        }
+        Rows visible = visibleRows();
+        int rows = visible.count();
+        ByteBuffer[] current = visible.chunks();
+        long count = 0;
+        for (int row = 0; row < rows; row++) {
+            int state = state(current, row);
+            if (state != REMOVED && filter.matchesState(state >>> 8, state & 0xFF)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Number of rows per status, read from the state column only
+    public Map<TaskStatus, Long> getStatusCounts() {
+        Rows visible = visibleRows();
+        int rows = visible.count();
+        ByteBuffer[] current = visible.chunks();
+        long[] counts = new long[STATUSES.length];
+        for (int row = 0; row < rows; row++) {
+            int state = state(current, row);
+            if (state != REMOVED) {
+                counts[state & 0xFF]++;
+            }
+        }
+        Map<TaskStatus, Long> result = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : STATUSES) {
+            if (counts[status.ordinal()] > 0) {
+                result.put(status, counts[status.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to {@code limit} rows matching the status and priority, oldest first;
+     * a null argument matches any value. Only matching rows are copied to the heap.
+     */
+    public List<TaskRecord> find(TaskStatus status, TaskPriority priority, int limit) {
+        Rows visible = visibleRows();
+        int rows = visible.count();
+        ByteBuffer[] current = visible.chunks();
+        List<TaskRecord> found = new ArrayList<>();
+        for (int row = 0; row < rows && found.size() < limit; row++) {
+            if (matches(state(current, row), status, priority)) {
+                found.add(read(current, row));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Streams the rows matching the filter, oldest first, copying only matching rows to the heap.
+     * The status and priority test reads the state column only; names are matched once per
+     * distinct name rather than per row, and chunks created entirely outside the filter's time
+     * range are skipped without reading their rows.
+     */
+    public Stream<TaskRecord> scan(TaskFilter filter) {
+        Rows visible = visibleRows();
+        int rows = visible.count();
+        ByteBuffer[] current = visible.chunks();
+        long[] minCreated = chunkMinCreated;
+        long[] maxCreated = chunkMaxCreated;
+        boolean[] nameMatches = filter.filtersName() ? matchNames(filter) : null;
+        Spliterator<TaskRecord> rowsMatching = new Spliterators.AbstractSpliterator<>(rows, Spliterator.ORDERED) {
+            private int row;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super TaskRecord> action) {
+                while (row < rows) {
+                    int candidate = row++;
+                    if ((candidate & CHUNK_MASK) == 0 && filter.filtersCreated()) {
+                        int chunkIndex = candidate >>> CHUNK_SHIFT;
+                        if (maxCreated[chunkIndex] < filter.createdFromMillis()
+                            || minCreated[chunkIndex] > filter.createdToMillis()) {
+                            row = Math.min(rows, candidate + ROWS_PER_CHUNK);
+                            continue;
+                        }
+                    }
+                    if (matchesRow(current, candidate, filter, nameMatches)) {
+                        action.accept(read(current, candidate));
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+        return StreamSupport.stream(rowsMatching, false);
+    }
+
+    // Rows a scan may read, with chunks that hold all of them
+    private record Rows(int count, ByteBuffer[] chunks) {
+    }
+
+    /**
+     * Reads the size before the chunks. Appends publish a new chunk before the size that
+     * covers it, so this order always yields chunks holding every counted row; read the other
+     * way round, a scan could reach a row whose chunk it never saw.
+     */
+    private Rows visibleRows() {
+        int count = size;
+        return new Rows(count, chunks);
+    }
+
+    private boolean[] matchNames(TaskFilter filter) {
+        synchronized (this) {
+            boolean[] matches = new boolean[names.size()];
+            for (int id = 0; id < matches.length; id++) {
+                matches[id] = filter.matchesName(names.get(id));
+            }
+            return matches;
+        }
+    }
+
+    private static boolean matchesRow(ByteBuffer[] chunks, int row, TaskFilter filter, boolean[] nameMatches) {
+        int state = state(chunks, row);
+        if (state == REMOVED || !filter.matchesState(state >>> 8, state & 0xFF)) {
+            return false;
+        }
+        ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+        int offset = row & CHUNK_MASK;
+        if (nameMatches != null) {
+            // Names interned after the scan started match no row visible to it
+            int nameId = chunk.getInt(NAME + offset * 4);
+            if (nameId >= nameMatches.length || !nameMatches[nameId]) {
+                return false;
+            }
+        }
+        if (!filter.matchesCreated(chunk.getLong(CREATED + offset * 8))) {
+            return false;
+        }
+        if (!filter.filtersDuration()) {
+            return true;
+        }
+        long started = chunk.getLong(STARTED + offset * 8);
+        long completed = chunk.getLong(COMPLETED + offset * 8);
+        return filter.matchesDuration(started == 0 || completed == 0 ? -1 : completed - started);
+    }
+
+    // Direct memory reserved for rows, the ID index and the ID arena
+    public synchronized long getOffHeapBytes() {
+        long arenaBytes = 0;
+        for (ByteBuffer arenaChunk : idArena) {
+            arenaBytes += arenaChunk.capacity();
+        }
+        return (long) chunks.length * CHUNK_BYTES + index.capacity() + arenaBytes;
+    }
+
+    private int append(long[] id, Task<?, ?> task) {
+        int row = size;
+        int chunkIndex = row >>> CHUNK_SHIFT;
+        if (chunkIndex == chunks.length) {
+            long[] grownMin = Arrays.copyOf(chunkMinCreated, chunkIndex + 1);
+            long[] grownMax = Arrays.copyOf(chunkMaxCreated, chunkIndex + 1);
+            grownMin[chunkIndex] = Long.MAX_VALUE;
+            grownMax[chunkIndex] = Long.MIN_VALUE;
+            chunkMinCreated = grownMin;
+            chunkMaxCreated = grownMax;
+            ByteBuffer[] grown = Arrays.copyOf(chunks, chunkIndex + 1);
+            grown[chunkIndex] = allocate(CHUNK_BYTES);
+            chunks = grown;
+        }
+        ByteBuffer chunk = chunks[chunkIndex];
+        int offset = row & CHUNK_MASK;
+        long created = toMillis(task.getCreatedAt());
+        chunk.putLong(ID_HIGH + offset * 8, id[0]);
+        chunk.putLong(ID_LOW + offset * 8, id[1]);
+        chunk.putInt(ID_SUFFIX + offset * 4, (int) id[2]);
+        chunk.putInt(NAME + offset * 4, internName(task.getName()));
+        chunk.putLong(CREATED + offset * 8, created);
+        chunkMinCreated[chunkIndex] = Math.min(chunkMinCreated[chunkIndex], created);
+        chunkMaxCreated[chunkIndex] = Math.max(chunkMaxCreated[chunkIndex], created);
+        writeProgress(row, task);
+        // Publishing the new size makes the fully written row visible to scans
+        size = row + 1;
+        ByteBuffer current = index;
+        if ((long) size * 2 > slots(current)) {
+            current = resizeIndex(current);
+        }
+        insertIndex(current, row, id[0], id[1], (int) id[2]);
+        return row;
+    }
+
+    private void writeProgress(int row, Task<?, ?> task) {
+        ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+        int offset = row & CHUNK_MASK;
+        chunk.putLong(STARTED + offset * 8, toMillis(task.getStartedAt()));
+        chunk.putLong(COMPLETED + offset * 8, toMillis(task.getCompletedAt()));
+        int state = task.getPriority().ordinal() << 8 | task.getStatus().ordinal();
+        INT_VIEW.setRelease(chunk, STATE + offset * 4, state);
+    }
+
+    private static int state(ByteBuffer[] chunks, int row) {
+        return (int) INT_VIEW.getAcquire(chunks[row >>> CHUNK_SHIFT], STATE + (row & CHUNK_MASK) * 4);
+    }
+
+    private static boolean matches(int state, TaskStatus status, TaskPriority priority) {
+        return state != REMOVED
+            && (status == null || (state & 0xFF) == status.ordinal())
+            && (priority == null || state >>> 8 == priority.ordinal());
+    }
+
+    private TaskRecord read(ByteBuffer[] chunks, int row) {
+        ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+        int offset = row & CHUNK_MASK;
+        int state = state(chunks, row);
+        String taskId = decodeId(chunk.getLong(ID_HIGH + offset * 8), chunk.getLong(ID_LOW + offset * 8),
+            chunk.getInt(ID_SUFFIX + offset * 4));
+        String name;
+        synchronized (this) {
+            name = names.get(chunk.getInt(NAME + offset * 4));
+        }
+        return new TaskRecord(taskId, name, PRIORITIES[state >>> 8], STATUSES[state & 0xFF],
+            chunk.getLong(CREATED + offset * 8), chunk.getLong(STARTED + offset * 8),
+            chunk.getLong(COMPLETED + offset * 8));
+    }
+
+    private int internName(String name) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Encodes a task ID as {high, low, suffix}. Canonical UUIDs, optionally followed by
+     * "-" and a block index, are stored as numbers. Other IDs get their hash in high and
+     * the {@link #OTHER_ID} suffix; their low column is set to the arena offset on append.
+     */
+    private long[] encodeId(String taskId) {
+        if (isCanonicalUuid(taskId)) {
+            int suffix = NO_SUFFIX;
+            if (taskId.length() > 36) {
+                suffix = parseSuffix(taskId);
+            }
+            if (suffix != Integer.MIN_VALUE) {
+                return new long[] {hex(taskId, 0, 8) << 32 | hex(taskId, 9, 13) << 16 | hex(taskId, 14, 18),
+                    hex(taskId, 19, 23) << 48 | hex(taskId, 24, 36), suffix};
+            }
+        }
+        return new long[] {hashId(taskId), 0, OTHER_ID};
+    }
+
+    private static long hashId(String taskId) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < taskId.length(); i++) {
+            h = (h ^ taskId.charAt(i)) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    // Copies the ID into the arena under the lock and returns its chunk index and position packed in a long
+    private long storeId(String taskId) {
+        int bytes = 4 + 2 * taskId.length();
+        ByteBuffer[] arena = idArena;
+        if (arena.length == 0 || arenaPosition + bytes > arena[arena.length - 1].capacity()) {
+            arena = Arrays.copyOf(arena, arena.length + 1);
+            arena[arena.length - 1] = allocate(Math.max(ARENA_CHUNK_BYTES, bytes));
+            arenaPosition = 0;
+            // Published before the row that refers to it, and read after that row's index entry
+            idArena = arena;
+        }
+        ByteBuffer arenaChunk = arena[arena.length - 1];
+        int position = arenaPosition;
+        arenaChunk.putInt(position, taskId.length());
+        for (int i = 0; i < taskId.length(); i++) {
+            arenaChunk.putChar(position + 4 + 2 * i, taskId.charAt(i));
+        }
+        arenaPosition = position + bytes;
+        return (long) (arena.length - 1) << 32 | position;
+    }
+
+    private boolean storedIdEquals(long offset, String taskId) {
+        ByteBuffer arenaChunk = idArena[(int) (offset >>> 32)];
+        int position = (int) offset;
+        if (arenaChunk.getInt(position) != taskId.length()) {
+            return false;
+        }
+        for (int i = 0; i < taskId.length(); i++) {
+            if (arenaChunk.getChar(position + 4 + 2 * i) != taskId.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readStoredId(long offset) {
+        ByteBuffer arenaChunk = idArena[(int) (offset >>> 32)];
+        int position = (int) offset;
+        char[] chars = new char[arenaChunk.getInt(position)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = arenaChunk.getChar(position + 4 + 2 * i);
+        }
+        return new String(chars);
+    }
+
+    private String decodeId(long high, long low, int suffix) {
+        if (suffix == OTHER_ID) {
+            return readStoredId(low);
+        }
+        StringBuilder id = new StringBuilder(48);
+        appendHex(id, high >>> 32, 8).append('-');
+        appendHex(id, high >>> 16, 4).append('-');
+        appendHex(id, high, 4).append('-');
+        appendHex(id, low >>> 48, 4).append('-');
+        appendHex(id, low, 12);
+        if (suffix != NO_SUFFIX) {
+            id.append('-').append(suffix);
+        }
+        return id.toString();
+    }
+
+    private static StringBuilder appendHex(StringBuilder builder, long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            builder.append(Character.forDigit((int) (value >>> shift) & 0xF, 16));
+        }
+        return builder;
+    }
+
+    private static boolean isCanonicalUuid(String id) {
+        if (id.length() < 36 || (id.length() > 36 && id.charAt(36) != '-')) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : !((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Non-negative block index after the UUID, Integer.MIN_VALUE if it does not round-trip
+    private static int parseSuffix(String id) {
+        int length = id.length() - 37;
+        if (length < 1 || length > 9 || (length > 1 && id.charAt(37) == '0')) {
+            return Integer.MIN_VALUE;
+        }
+        int value = 0;
+        for (int i = 37; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static long hex(String id, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value << 4 | Character.digit(id.charAt(i), 16);
+        }
+        return value;
+    }
+
+    // Row of the task ID in the current index, -1 if absent
+    private int lookup(String taskId) {
+        return findRow(index, encodeId(taskId), taskId);
+    }
+
+    private int findRow(ByteBuffer index, long[] id, String taskId) {
+        long high = id[0];
+        long low = id[1];
+        int suffix = (int) id[2];
+        int mask = slots(index) - 1;
+        for (int slot = hash(high, low, suffix) & mask; ; slot = (slot + 1) & mask) {
+            // Acquire pairs with the release in insertIndex, making the row's ID columns visible
+            int entry = (int) INT_VIEW.getAcquire(index, slot * 4);
+            if (entry == 0) {
+                return -1;
+            }
+            int row = entry - 1;
+            ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+            int offset = row & CHUNK_MASK;
+            if (chunk.getLong(ID_HIGH + offset * 8) != high || chunk.getInt(ID_SUFFIX + offset * 4) != suffix) {
+                continue;
+            }
+            long storedLow = chunk.getLong(ID_LOW + offset * 8);
+            if (suffix == OTHER_ID ? storedIdEquals(storedLow, taskId) : storedLow == low) {
+                return row;
+            }
+        }
+    }
+
+    private static int slots(ByteBuffer index) {
+        return index.capacity() / 4;
+    }
+
+    private static void insertIndex(ByteBuffer index, int row, long high, long low, int suffix) {
+        int mask = slots(index) - 1;
+        int slot = hash(high, low, suffix) & mask;
+        while (index.getInt(slot * 4) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        INT_VIEW.setRelease(index, slot * 4, row + 1);
+    }
+
+    /**
+     * Builds an index of twice the capacity and publishes it once every row is in it.
+     * Lookups still probing the old index find every row it held; it gets no further inserts.
+     */
+    private ByteBuffer resizeIndex(ByteBuffer current) {
+        ByteBuffer grown = allocate(slots(current) * 2 * 4);
+        // The row being appended is inserted by the caller
+        for (int row = 0; row < size - 1; row++) {
+            ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+            int offset = row & CHUNK_MASK;
+            insertIndex(grown, row, chunk.getLong(ID_HIGH + offset * 8), chunk.getLong(ID_LOW + offset * 8),
+                chunk.getInt(ID_SUFFIX + offset * 4));
+        }
+        index = grown;
+        return grown;
+    }
+
+    // The arena offset in the low column of other IDs is not known to lookups, so it is left out
+    private static int hash(long high, long low, int suffix) {
+        if (suffix == OTHER_ID) {
+            low = 0;
+        }
+        long h = (high * 0x9E3779B97F4A7C15L) ^ low ^ ((long) suffix * 0xC2B2AE3D27D4EB4FL);
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
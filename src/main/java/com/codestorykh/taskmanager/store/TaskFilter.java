@@ -0,0 +1,97 @@
+package com.codestorykh.taskmanager.store;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+
+/**
+ * Compiled form of a task query: every condition reduced to a primitive comparison, so that
+ * one class tests both heap tasks and off-heap rows without a chain of predicate objects.
+ * Allowed status and priority combinations are one bit each in {@code stateMask}; unused
+ * bounds are set to values every task passes.
+ *
+ * @param stateMask bit {@code priority.ordinal() * 8 + status.ordinal()} set for each allowed combination
+ * @param exactName name a task must have, or null
+ * @param namePrefix prefix a task's name must start with, or null
+ * @param createdFromMillis earliest creation time in epoch millis, inclusive; Long.MIN_VALUE for none
+ * @param createdToMillis latest creation time in epoch millis, inclusive; Long.MAX_VALUE for none
+ * @param minDurationMillis shortest execution time of a finished task, 0 for none
+ * @param maxDurationMillis longest execution time of a finished task, Long.MAX_VALUE for none
+ */
+public record TaskFilter(long stateMask, String exactName, String namePrefix,
+                         long createdFromMillis, long createdToMillis,
+                         long minDurationMillis, long maxDurationMillis) {
+    private static final int STATUS_BITS = 3;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    // Mask allowing the combinations of the given statuses and priorities; an empty set allows any
+    public static long stateMask(Set<TaskStatus> statuses, Set<TaskPriority> priorities) {
+        long mask = 0;
+        for (TaskPriority priority : TaskPriority.values()) {
+            for (TaskStatus status : TaskStatus.values()) {
+                if ((statuses.isEmpty() || statuses.contains(status))
+                    && (priorities.isEmpty() || priorities.contains(priority))) {
+                    mask |= 1L << (priority.ordinal() << STATUS_BITS | status.ordinal());
+                }
+            }
+        }
+        return mask;
+    }
+
+    public boolean matchesState(int priorityOrdinal, int statusOrdinal) {
+        return (stateMask >>> (priorityOrdinal << STATUS_BITS | statusOrdinal) & 1) != 0;
+    }
+
+    public boolean filtersName() {
+        return exactName != null || namePrefix != null;
+    }
+
+    public boolean matchesName(String name) {
+        return (exactName == null || exactName.equals(name))
+            && (namePrefix == null || name.startsWith(namePrefix));
+    }
+
+    public boolean filtersCreated() {
+        return createdFromMillis > Long.MIN_VALUE || createdToMillis < Long.MAX_VALUE;
+    }
+
+    public boolean matchesCreated(long createdMillis) {
+        return createdMillis >= createdFromMillis && createdMillis <= createdToMillis;
+    }
+
+    public boolean filtersDuration() {
+        return minDurationMillis > 0 || maxDurationMillis < Long.MAX_VALUE;
+    }
+
+    // Tasks that have not finished have no duration and never match a duration condition
+    public boolean matchesDuration(long durationMillis) {
+        return !filtersDuration()
+            || durationMillis >= 0 && durationMillis >= minDurationMillis && durationMillis <= maxDurationMillis;
+    }
+
+    // True if only status and priority are constrained, so the state column alone decides a match
+    public boolean filtersStateOnly() {
+        return !filtersName() && !filtersCreated() && !filtersDuration();
+    }
+
+    // Tests a heap task, cheapest conditions first
+    public boolean test(Task<?, ?> task) {
+        if (!matchesState(task.getPriority().ordinal(), task.getStatus().ordinal())) {
+            return false;
+        }
+        if (filtersName() && !matchesName(task.getName())) {
+            return false;
+        }
+        if (filtersCreated()) {
+            LocalDateTime created = task.getCreatedAt();
+            if (!matchesCreated(created.atZone(ZONE).toInstant().toEpochMilli())) {
+                return false;
+            }
+        }
+        return matchesDuration(task.getDurationMillis());
+    }
+}
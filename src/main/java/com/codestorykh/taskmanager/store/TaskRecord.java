@@ -0,0 +1,42 @@
+package com.codestorykh.taskmanager.store;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Heap copy of one row of an {@link OffHeapTaskTable}.
+ * Timestamps are epoch milliseconds, 0 if the task has not reached that point.
+ */
+public record TaskRecord(String taskId, String name, TaskPriority priority, TaskStatus status,
+                         long createdAtMillis, long startedAtMillis, long completedAtMillis) {
+
+    // Snapshot of a heap task in the same form as a table row
+    public static TaskRecord of(Task<?, ?> task) {
+        return new TaskRecord(task.getTaskId(), task.getName(), task.getPriority(), task.getStatus(),
+            toMillis(task.getCreatedAt()), toMillis(task.getStartedAt()), toMillis(task.getCompletedAt()));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Read-only task carrying this row's metadata, without input or result
+    public Task<Object, Object> toTask() {
+        return Task.restored(taskId, name, priority, status, toTime(createdAtMillis),
+            toTime(startedAtMillis), toTime(completedAtMillis));
+    }
+
+    private static LocalDateTime toTime(long millis) {
+        return millis == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    // Execution time in milliseconds, -1 if the task has not finished
+    public long durationMillis() {
+        return startedAtMillis == 0 || completedAtMillis == 0 ? -1 : completedAtMillis - startedAtMillis;
+    }
+}
@@ -0,0 +1,137 @@
+package com.codestorykh.taskmanager.web;
+
+import com.codestorykh.taskmanager.event.TaskChange;
+import com.codestorykh.taskmanager.event.TaskChangeBatch;
+import com.codestorykh.taskmanager.event.TaskChangeFeed;
+import com.codestorykh.taskmanager.service.TaskManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Watch API over task state changes, so clients wait for changes instead of polling tasks.
+ *
+ * {@code GET /api/tasks/changes?since=N} long-polls: it answers as soon as there are changes
+ * after sequence N, or with an empty batch after the timeout; the client passes the returned
+ * lastSequence as the next "since". {@code max} must be positive and {@code timeoutMillis}
+ * at most five minutes, otherwise the request is rejected with 400.
+ * {@code GET /api/tasks/changes/stream} delivers the same changes as server-sent events with
+ * the sequence as event ID, so a reconnecting browser resumes through the Last-Event-ID
+ * header. Each stream is written by its own thread, so a slow client only delays itself.
+ */
+@RestController
+@RequestMapping("/api/tasks/changes")
+public class TaskChangeFeedController {
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final Duration STREAM_POLL_TIMEOUT = Duration.ofSeconds(15);
+    // Long-poll timeouts accepted from clients; longer waits are better served by the stream
+    private static final long MAX_POLL_TIMEOUT_MILLIS = 5 * 60_000;
+
+    private final TaskChangeFeed feed;
+    private final ExecutorService streamWriters = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "task-change-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TaskChangeFeedController(TaskManager taskManager) {
+        this.feed = taskManager.getChangeFeed()
+            .orElseThrow(() -> new IllegalStateException("The task manager has no change feed enabled"));
+    }
+
+    @GetMapping
+    public DeferredResult<TaskChangeBatch> poll(@RequestParam(defaultValue = "0") long since,
+                                                @RequestParam(defaultValue = "500") int max,
+                                                @RequestParam(defaultValue = "30000") long timeoutMillis) {
+        if (max < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "max must be positive: " + max);
+        }
+        if (timeoutMillis < 0 || timeoutMillis > MAX_POLL_TIMEOUT_MILLIS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format(
+                "timeoutMillis must be between 0 and %d: %d", MAX_POLL_TIMEOUT_MILLIS, timeoutMillis));
+        }
+        // The servlet timeout is a backstop; the feed answers with an empty batch first
+        DeferredResult<TaskChangeBatch> result = new DeferredResult<>(timeoutMillis + 5_000);
+        feed.awaitChangesSince(since, max, Duration.ofMillis(timeoutMillis)).whenComplete((batch, error) -> {
+            if (error != null) {
+                result.setErrorResult(error);
+            } else {
+                result.setResult(batch);
+            }
+        });
+        return result;
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) Long since,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        long start = lastEventId != null ? lastEventId : since != null ? since : feed.getLatestSequence();
+        ChangeStream stream = new ChangeStream(emitter);
+        emitter.onCompletion(stream::stop);
+        emitter.onTimeout(stream::stop);
+        emitter.onError(error -> stream.stop());
+        stream.next(start);
+        return emitter;
+    }
+
+    // Pushes batches to one SSE client until it disconnects
+    private final class ChangeStream {
+        private final SseEmitter emitter;
+        private volatile boolean stopped;
+
+        ChangeStream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void next(long since) {
+            if (stopped) {
+                return;
+            }
+            feed.awaitChangesSince(since, STREAM_BATCH_SIZE, STREAM_POLL_TIMEOUT)
+                .thenAcceptAsync(this::send, streamWriters);
+        }
+
+        private void send(TaskChangeBatch batch) {
+            if (stopped) {
+                return;
+            }
+            try {
+                if (batch.gap()) {
+                    emitter.send(SseEmitter.event().name("gap").data(batch.lastSequence()));
+                }
+                for (TaskChange change : batch.changes()) {
+                    emitter.send(SseEmitter.event()
+                        .id(Long.toString(change.sequence()))
+                        .name("task-change")
+                        .data(change, MediaType.APPLICATION_JSON));
+                }
+                if (batch.changes().isEmpty() && !batch.gap()) {
+                    // Keeps proxies from closing an idle connection
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                stop();
+                emitter.completeWithError(e);
+                return;
+            }
+            next(batch.lastSequence());
+        }
+
+        void stop() {
+            stopped = true;
+        }
+    }
+}
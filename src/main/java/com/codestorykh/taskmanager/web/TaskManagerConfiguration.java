@@ -0,0 +1,20 @@
+package com.codestorykh.taskmanager.web;
+
+import com.codestorykh.taskmanager.event.TaskChangeFeed;
+import com.codestorykh.taskmanager.service.TaskManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes a shared TaskManager to the web layer, with its change feed enabled.
+ */
+@Configuration
+public class TaskManagerConfiguration {
+
+    @Bean
+    public TaskManager taskManager() {
+        TaskManager taskManager = new TaskManager();
+        taskManager.enableChangeFeed(TaskChangeFeed.DEFAULT_RETENTION);
+        return taskManager;
+    }
+}
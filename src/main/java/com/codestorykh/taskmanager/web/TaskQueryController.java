@@ -0,0 +1,43 @@
+package com.codestorykh.taskmanager.web;
+
+import com.codestorykh.taskmanager.query.TaskQuery;
+import com.codestorykh.taskmanager.service.TaskManager;
+import com.codestorykh.taskmanager.store.TaskRecord;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Query API over tasks: {@code GET /api/tasks/query?q=status:FAILED priority:HIGH name:import-* created<10m}
+ * returns the matching tasks. Results are capped at {@code max}, or the query's own limit if lower.
+ */
+@RestController
+@RequestMapping("/api/tasks/query")
+public class TaskQueryController {
+    private final TaskManager taskManager;
+
+    public TaskQueryController(TaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    @GetMapping
+    public List<TaskRecord> query(@RequestParam(defaultValue = "") String q,
+                                  @RequestParam(defaultValue = "1000") int max) {
+        if (max < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "max must not be negative: " + max);
+        }
+        TaskQuery query;
+        try {
+            query = TaskQuery.parse(q);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        // Part of the query's limit, so an ordered query keeps the top max instead of sorting every match
+        return taskManager.query(query.limitAtMost(max)).toList();
+    }
+}
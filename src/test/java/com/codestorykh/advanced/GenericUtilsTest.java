@@ -3,9 +3,12 @@ package com.codestorykh.advanced;
 import com.codestorykh.generics.advanced.GenericUtils;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -82,6 +85,69 @@ public class GenericUtilsTest {
         assertEquals(Arrays.asList(1), singleElement);
     }
 
+    @Test
+    void testReverseLinkedList() {
+        // Given
+        List<Integer> list = new LinkedList<>(Arrays.asList(1, 2, 3, 4, 5));
+        
+        // When
+        GenericUtils.reverse(list);
+        
+        // Then
+        assertEquals(Arrays.asList(5, 4, 3, 2, 1), list);
+    }
+
+    @Test
+    void testReverseRange() {
+        // Given
+        List<String> arrayList = new ArrayList<>(Arrays.asList("a", "b", "c", "d", "e"));
+        List<String> linkedList = new LinkedList<>(arrayList);
+        
+        // When
+        GenericUtils.reverseRange(arrayList, 1, 4);
+        GenericUtils.reverseRange(linkedList, 1, 4);
+        
+        // Then
+        assertEquals(Arrays.asList("a", "d", "c", "b", "e"), arrayList);
+        assertEquals(arrayList, linkedList);
+        assertThrows(IndexOutOfBoundsException.class, () -> GenericUtils.reverseRange(arrayList, 2, 6));
+    }
+
+    @Test
+    void testReverseArray() {
+        // Given
+        Integer[] small = {1, 2, 3, 4};
+        Integer[] large = new Integer[(1 << 20) + 3];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = i;
+        }
+        
+        // When
+        GenericUtils.reverse(small);
+        GenericUtils.reverse(large);
+        
+        // Then
+        assertArrayEquals(new Integer[]{4, 3, 2, 1}, small);
+        for (int i = 0; i < large.length; i++) {
+            assertEquals(large.length - 1 - i, large[i].intValue());
+        }
+    }
+
+    @Test
+    void testRotate() {
+        // Given
+        List<Integer> list = new LinkedList<>(Arrays.asList(1, 2, 3, 4, 5));
+        Integer[] array = {1, 2, 3, 4, 5};
+        
+        // When
+        GenericUtils.rotate(list, 2);
+        GenericUtils.rotate(array, -1);
+        
+        // Then
+        assertEquals(Arrays.asList(4, 5, 1, 2, 3), list);
+        assertArrayEquals(new Integer[]{2, 3, 4, 5, 1}, array);
+    }
+
     @Test
     void testSafeCast() {
         // Given
@@ -125,6 +191,90 @@ public class GenericUtilsTest {
         assertThrows(NullPointerException.class, () -> map.put(null, "value"));
     }
 
+    @Test
+    void testTypeSafeMapFindWalksHierarchy() {
+        // Given
+        GenericUtils.TypeSafeMap map = new GenericUtils.TypeSafeMap();
+        map.put(Number.class, 42);
+        map.put(CharSequence.class, "text");
+        
+        // Then
+        assertEquals(Integer.valueOf(42), map.find(Integer.class));
+        assertEquals("text", map.find(String.class));
+        assertNull(map.find(Double.class));
+        assertNull(map.find(Object.class));
+    }
+
+    @Test
+    void testTypeSafeMapFindSeesLaterRegistrations() {
+        // Given
+        GenericUtils.TypeSafeMap map = new GenericUtils.TypeSafeMap();
+        map.put(Number.class, 1);
+        assertEquals(Integer.valueOf(1), map.find(Integer.class));
+        
+        // When
+        map.put(Integer.class, 2);
+        map.put(Number.class, null);
+        
+        // Then
+        assertEquals(Integer.valueOf(2), map.find(Integer.class));
+        assertFalse(map.containsKey(Number.class));
+        assertNull(map.find(Long.class));
+    }
+
+    @Test
+    void testTypeSafeMapsResolveIndependently() {
+        // Given
+        GenericUtils.TypeSafeMap numbers = new GenericUtils.TypeSafeMap();
+        GenericUtils.TypeSafeMap comparables = new GenericUtils.TypeSafeMap();
+        numbers.put(Number.class, 1);
+        comparables.put(Comparable.class, 7);
+        assertEquals(Integer.valueOf(1), numbers.find(Integer.class));
+        assertEquals(Integer.valueOf(7), comparables.find(Integer.class));
+
+        // When
+        numbers.put(Double.class, 2.5);
+        numbers.put(Comparable.class, 3);
+        numbers.put(Number.class, null);
+
+        // Then
+        assertEquals(Integer.valueOf(3), numbers.find(Integer.class));
+        assertEquals(Integer.valueOf(7), comparables.find(Integer.class));
+        assertEquals(Double.valueOf(2.5), numbers.find(Double.class));
+    }
+
+    @Test
+    void testTypeSafeMapConcurrentAccess() throws InterruptedException {
+        // Given
+        GenericUtils.TypeSafeMap map = new GenericUtils.TypeSafeMap();
+        map.put(Number.class, 7);
+        Thread[] readers = new Thread[4];
+        AtomicInteger misses = new AtomicInteger();
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    if (map.find(Integer.class) == null) {
+                        misses.incrementAndGet();
+                    }
+                }
+            });
+        }
+        
+        // When
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        for (int i = 0; i < 1_000; i++) {
+            map.put(String.class, "value-" + i);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        
+        // Then
+        assertEquals(0, misses.get());
+    }
+
     @Test
     void testComplexTransformation() {
         // Given
@@ -0,0 +1,227 @@
+package com.codestorykh.advanced;
+
+import com.codestorykh.generics.advanced.ElementCodec;
+import com.codestorykh.generics.advanced.GenericUtils;
+import com.codestorykh.generics.advanced.OffHeapList;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the off-heap list and its codecs
+ */
+public class OffHeapListTest {
+
+    @Test
+    void testFixedWidthAddGetAndSet() {
+        // Given
+        OffHeapList<Integer> list = new OffHeapList<>(ElementCodec.ints());
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            list.add(i * 3);
+        }
+        Integer previous = list.set(5, -1);
+
+        // Then
+        assertEquals(100_000, list.size());
+        assertEquals(Integer.valueOf(15), previous);
+        assertEquals(Integer.valueOf(-1), list.get(5));
+        assertEquals(Integer.valueOf(299_997), list.get(99_999));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(100_000));
+        assertTrue(list.getOffHeapBytes() >= 400_000);
+    }
+
+    @Test
+    void testVariableWidthStrings() {
+        // Given
+        OffHeapList<String> list = OffHeapList.of(ElementCodec.strings(), List.of("alpha", "", "😀 emoji"));
+
+        // When
+        list.set(0, "a much longer replacement");
+
+        // Then
+        assertEquals(List.of("a much longer replacement", "", "😀 emoji"), new ArrayList<>(list));
+        assertEquals(list, List.of("a much longer replacement", "", "😀 emoji"));
+    }
+
+    @Test
+    void testOnlyAppendingIsSupported() {
+        // Given
+        OffHeapList<Long> list = OffHeapList.of(ElementCodec.longs(), List.of(1L, 2L));
+
+        // Then
+        assertThrows(UnsupportedOperationException.class, () -> list.add(0, 5L));
+        assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+        assertThrows(NullPointerException.class, () -> list.add(null));
+        list.add(2, 3L);
+        assertEquals(List.of(1L, 2L, 3L), list);
+    }
+
+    @Test
+    void testNaturalSortMatchesListSort() {
+        // Given
+        Random random = new Random(7);
+        List<Double> expected = new ArrayList<>();
+        OffHeapList<Double> list = new OffHeapList<>(ElementCodec.doubles());
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextInt(500) - 250.5;
+            expected.add(value);
+            list.add(value);
+        }
+
+        // When
+        list.sort(null);
+        Collections.sort(expected);
+
+        // Then
+        assertEquals(expected, list);
+    }
+
+    @Test
+    void testStringSortFollowsStringCompareTo() {
+        // Given
+        List<String> words = Arrays.asList("pear", "apple", "Ａ", "😀", "app", "Zebra", "apple");
+        OffHeapList<String> list = OffHeapList.of(ElementCodec.strings(), words);
+
+        // When
+        list.sort(null);
+
+        // Then
+        List<String> expected = new ArrayList<>(words);
+        Collections.sort(expected);
+        assertEquals(expected, list);
+    }
+
+    @Test
+    void testComparatorSortIsStable() {
+        // Given: sorted by length only, so equal lengths must keep their order
+        List<String> words = Arrays.asList("ccc", "a", "bb", "aaa", "b", "cc", "bbb", "c", "aa");
+        OffHeapList<String> list = OffHeapList.of(ElementCodec.strings(), words);
+
+        // When
+        list.sort(Comparator.comparingInt(String::length));
+
+        // Then
+        assertEquals(List.of("a", "b", "c", "bb", "cc", "aa", "ccc", "aaa", "bbb"), list);
+    }
+
+    @Test
+    void testReverseThroughGenericUtils() {
+        // Given
+        OffHeapList<String> list = OffHeapList.of(ElementCodec.strings(), List.of("a", "bb", "ccc", "dddd"));
+
+        // When
+        GenericUtils.reverse(list);
+
+        // Then
+        assertEquals(List.of("dddd", "ccc", "bb", "a"), list);
+    }
+
+    @Test
+    void testMergeSortedWithoutDecoding() {
+        // Given
+        OffHeapList<Integer> first = OffHeapList.of(ElementCodec.ints(), List.of(1, 4, 9));
+        OffHeapList<Integer> second = OffHeapList.of(ElementCodec.ints(), List.of(2, 3, 10, 11));
+
+        // When
+        OffHeapList<Integer> merged = OffHeapList.mergeSorted(first, second);
+        List<Integer> heapMerged = GenericUtils.mergeSorted(first, second);
+
+        // Then
+        assertEquals(List.of(1, 2, 3, 4, 9, 10, 11), merged);
+        assertEquals(merged, heapMerged);
+        // GenericUtils keeps returning a mutable heap list
+        assertFalse(heapMerged instanceof OffHeapList);
+        heapMerged.set(0, 0);
+        assertThrows(IllegalArgumentException.class, () -> OffHeapList.mergeSorted(
+            OffHeapList.of(ElementCodec.ints(), List.of(1)), OffHeapList.of(new IntCopyCodec(), List.of(2))));
+    }
+
+    @Test
+    void testFindAndTransformWithFlyweightReads() {
+        // Given
+        PointCodec codec = new PointCodec();
+        OffHeapList<Point> points = new OffHeapList<>(codec);
+        for (int i = 0; i < 1_000; i++) {
+            points.add(new Point(i, i % 10));
+        }
+
+        // When
+        OffHeapList<Integer> xs = points.findAndTransform(point -> point.y == 0, point -> point.x, ElementCodec.ints());
+
+        // Then
+        assertEquals(100, xs.size());
+        assertEquals(Integer.valueOf(990), xs.get(99));
+        assertEquals(1, codec.created, "Flyweight scan should reuse a single instance");
+    }
+
+    // Mutable element type decoded in place by its codec
+    private static final class Point {
+        private int x;
+        private int y;
+
+        private Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static final class PointCodec implements ElementCodec<Point> {
+        private int created;
+
+        @Override
+        public int width() {
+            return 2 * Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Point value, ByteBuffer target, int offset) {
+            target.putInt(offset, value.x);
+            target.putInt(offset + Integer.BYTES, value.y);
+        }
+
+        @Override
+        public Point decode(ByteBuffer source, int offset, int length) {
+            return decodeInto(source, offset, length, null);
+        }
+
+        @Override
+        public Point decodeInto(ByteBuffer source, int offset, int length, Point reuse) {
+            Point point = reuse;
+            if (point == null) {
+                point = new Point(0, 0);
+                created++;
+            }
+            point.x = source.getInt(offset);
+            point.y = source.getInt(offset + Integer.BYTES);
+            return point;
+        }
+    }
+
+    // A second int codec instance, which may not be merged with the standard one
+    private static final class IntCopyCodec implements ElementCodec<Integer> {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer value, ByteBuffer target, int offset) {
+            target.putInt(offset, value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer source, int offset, int length) {
+            return source.getInt(offset);
+        }
+    }
+}
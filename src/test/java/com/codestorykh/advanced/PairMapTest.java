@@ -0,0 +1,137 @@
+package com.codestorykh.advanced;
+
+import com.codestorykh.generics.advanced.PairKey;
+import com.codestorykh.generics.advanced.PairMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the open-addressing map keyed by two components
+ */
+public class PairMapTest {
+
+    @Test
+    void testPutAndGetByComponents() {
+        // Given
+        PairMap<String, Integer, String> map = new PairMap<>();
+
+        // When
+        String previous = map.put("customer", 1, "Alice");
+        map.put("customer", 2, "Bob");
+
+        // Then
+        assertNull(previous);
+        assertEquals("Alice", map.get("customer", 1));
+        assertEquals("Bob", map.get(PairKey.of("customer", 2)));
+        assertNull(map.get("customer", 3));
+        assertEquals("none", map.getOrDefault("order", 1, "none"));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testPutReplacesExistingValue() {
+        // Given
+        PairMap<String, Integer, String> map = new PairMap<>();
+        map.put("a", 1, "first");
+
+        // When
+        String previous = map.put("a", 1, "second");
+
+        // Then
+        assertEquals("first", previous);
+        assertEquals("second", map.get("a", 1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testNullComponentsAndValues() {
+        // Given
+        PairMap<String, String, Integer> map = new PairMap<>();
+
+        // When
+        map.put(null, null, 1);
+        map.put(null, "b", null);
+
+        // Then
+        assertEquals(Integer.valueOf(1), map.get(null, null));
+        assertTrue(map.containsKey(null, "b"));
+        assertNull(map.get(null, "b"));
+        assertFalse(map.containsKey("b", null));
+    }
+
+    @Test
+    void testMergeAggregatesValues() {
+        // Given
+        PairMap<String, String, Integer> totals = new PairMap<>();
+        String[][] rows = {{"eu", "books"}, {"us", "books"}, {"eu", "books"}, {"eu", "games"}};
+
+        // When
+        for (String[] row : rows) {
+            totals.merge(row[0], row[1], 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(Integer.valueOf(2), totals.get("eu", "books"));
+        assertEquals(Integer.valueOf(1), totals.get("us", "books"));
+        assertEquals(Integer.valueOf(1), totals.get("eu", "games"));
+        assertNull(totals.merge("eu", "games", 0, (existing, ignored) -> null));
+        assertFalse(totals.containsKey("eu", "games"));
+        assertEquals(2, totals.size());
+    }
+
+    @Test
+    void testRemoveKeepsOtherEntriesReachable() {
+        // Given
+        PairMap<Integer, Integer, Integer> map = new PairMap<>(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When: interleaved inserts and removals across many resizes
+        for (int i = 0; i < 20_000; i++) {
+            int first = random.nextInt(100);
+            int second = random.nextInt(100);
+            long key = (long) first << 32 | second;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(first, second));
+            } else {
+                assertEquals(expected.put(key, i), map.put(first, second, i));
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) ->
+            assertEquals(value, map.get((int) (key >>> 32), (int) (long) key)));
+        int[] visited = {0};
+        map.forEach((first, second, value) -> {
+            assertEquals(expected.get((long) first << 32 | second), value);
+            visited[0]++;
+        });
+        assertEquals(expected.size(), visited[0]);
+    }
+
+    @Test
+    void testClear() {
+        // Given
+        PairMap<String, Integer, String> map = new PairMap<>();
+        map.put("a", 1, "x");
+
+        // When
+        map.clear();
+
+        // Then
+        assertTrue(map.isEmpty());
+        assertNull(map.get("a", 1));
+        assertEquals("{}", map.toString());
+    }
+
+    @Test
+    void testNegativeExpectedSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PairMap<String, String, String>(-1));
+    }
+}
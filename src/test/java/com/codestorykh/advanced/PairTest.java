@@ -1,8 +1,12 @@
 package com.codestorykh.advanced;
 
 import com.codestorykh.generics.advanced.Pair;
+import com.codestorykh.generics.advanced.PairKey;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -108,4 +112,36 @@ public class PairTest {
         // Then
         assertEquals(pair1, maxPair); // Should return first pair when keys are equal
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testValueEquality() {
+        // Given
+        Pair<String, Integer> pair1 = new Pair<>("A", 1);
+        Pair<String, Integer> pair2 = new Pair<>("A", 1);
+        Pair<String, Integer> pair3 = new Pair<>("A", 2);
+
+        // Then
+        assertEquals(pair1, pair2);
+        assertEquals(pair1.hashCode(), pair2.hashCode());
+        assertNotEquals(pair1, pair3);
+        assertEquals(new Pair<>(null, null), new Pair<>(null, null));
+    }
+
+    @Test
+    void testPairKeyAsCompositeMapKey() {
+        // Given
+        Map<PairKey<String, Integer>, String> map = new HashMap<>();
+        Pair<String, Integer> pair = new Pair<>("order", 7);
+        map.put(pair.toKey(), "shipped");
+
+        // When
+        pair.setValue(8);
+
+        // Then
+        assertEquals("shipped", map.get(PairKey.of("order", 7)));
+        assertNull(map.get(pair.toKey()));
+        assertEquals(pair.toKey().hashCode(), new Pair<>("order", 8).hashCode());
+        assertTrue(PairKey.of("order", 7).matches("order", 7));
+        assertEquals("(order, 7)", PairKey.of("order", 7).toString());
+    }
+}
@@ -0,0 +1,157 @@
+package com.codestorykh.advanced;
+
+import com.codestorykh.generics.advanced.Pair;
+import com.codestorykh.generics.advanced.RadixSort;
+import com.codestorykh.generics.bounded.NumberBox;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for radix sorting of primitive arrays and of objects by primitive keys
+ */
+public class RadixSortTest {
+
+    @Test
+    void testSortIntsWithNegativesAndExtremes() {
+        // Given
+        int[] values = {5, -3, Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -3, 42, 1 << 20};
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+
+        // When
+        RadixSort.sort(values);
+
+        // Then
+        assertArrayEquals(expected, values);
+    }
+
+    @Test
+    void testSortLongs() {
+        // Given
+        Random random = new Random(11);
+        long[] values = random.longs(5_000).toArray();
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+
+        // When
+        RadixSort.sort(values);
+
+        // Then
+        assertArrayEquals(expected, values);
+    }
+
+    @Test
+    void testSortDoublesOrdersLikeDoubleCompare() {
+        // Given
+        double[] values = {3.5, -0.0, Double.NaN, 0.0, Double.NEGATIVE_INFINITY, -2.25, Double.MAX_VALUE,
+            Double.MIN_VALUE, Double.POSITIVE_INFINITY, -Double.MIN_VALUE};
+        double[] expected = values.clone();
+        Arrays.sort(expected);
+
+        // When
+        RadixSort.sort(values);
+
+        // Then
+        assertArrayEquals(expected, values);
+    }
+
+    @Test
+    void testParallelSortsMatchArraysSort() {
+        // Given: small non-negative ints share their upper bytes, which the parallel split must skip
+        Random random = new Random(3);
+        int[] ints = random.ints(RadixSort.PARALLEL_THRESHOLD * 4, 0, 1_000_000).toArray();
+        long[] longs = random.longs(RadixSort.PARALLEL_THRESHOLD * 2).toArray();
+        double[] doubles = random.doubles(RadixSort.PARALLEL_THRESHOLD * 2, -1e6, 1e6).toArray();
+        int[] expectedInts = ints.clone();
+        long[] expectedLongs = longs.clone();
+        double[] expectedDoubles = doubles.clone();
+        Arrays.sort(expectedInts);
+        Arrays.sort(expectedLongs);
+        Arrays.sort(expectedDoubles);
+
+        // When
+        RadixSort.parallelSort(ints);
+        RadixSort.parallelSort(longs);
+        RadixSort.parallelSort(doubles);
+
+        // Then
+        assertArrayEquals(expectedInts, ints);
+        assertArrayEquals(expectedLongs, longs);
+        assertArrayEquals(expectedDoubles, doubles);
+    }
+
+    @Test
+    void testSortByIntKeyIsStable() {
+        // Given
+        List<Pair<Integer, String>> pairs = new ArrayList<>(List.of(
+            Pair.of(2, "first two"), Pair.of(-1, "minus one"), Pair.of(2, "second two"), Pair.of(0, "zero")));
+
+        // When
+        RadixSort.sortByIntKey(pairs, Pair::getKey);
+
+        // Then
+        assertEquals(List.of(Pair.of(-1, "minus one"), Pair.of(0, "zero"),
+            Pair.of(2, "first two"), Pair.of(2, "second two")), pairs);
+    }
+
+    @Test
+    void testSortNumberBoxesByDoubleKeyInLinkedList() {
+        // Given
+        List<NumberBox<Double>> boxes = new LinkedList<>();
+        for (double value : new double[]{2.5, -1.0, 10.0, 0.5}) {
+            boxes.add(new NumberBox<>(value));
+        }
+
+        // When
+        RadixSort.sortByDoubleKey(boxes, box -> box.getNumber());
+
+        // Then
+        List<Double> sorted = new ArrayList<>();
+        boxes.forEach(box -> sorted.add(box.getNumber()));
+        assertEquals(List.of(-1.0, 0.5, 2.5, 10.0), sorted);
+    }
+
+    @Test
+    void testParallelSortByLongKeyMatchesStableListSort() {
+        // Given
+        Random random = new Random(5);
+        List<Pair<Long, Integer>> pairs = new ArrayList<>();
+        for (int i = 0; i < RadixSort.PARALLEL_THRESHOLD * 2; i++) {
+            pairs.add(Pair.of((long) random.nextInt(10_000) - 5_000, i));
+        }
+        List<Pair<Long, Integer>> expected = new ArrayList<>(pairs);
+        expected.sort(Comparator.comparing(Pair::getKey));
+
+        // When
+        RadixSort.parallelSortByLongKey(pairs, Pair::getKey);
+
+        // Then
+        assertEquals(expected, pairs);
+    }
+
+    @Test
+    void testEmptyAndSingleElementInputs() {
+        // Given
+        int[] empty = {};
+        long[] single = {7L};
+        List<String> none = new ArrayList<>();
+
+        // When
+        RadixSort.sort(empty);
+        RadixSort.parallelSort(single);
+        RadixSort.sortByIntKey(none, String::length);
+
+        // Then
+        assertEquals(0, empty.length);
+        assertArrayEquals(new long[]{7L}, single);
+        assertTrue(none.isEmpty());
+    }
+}
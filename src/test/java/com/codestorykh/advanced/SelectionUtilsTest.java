@@ -0,0 +1,143 @@
+package com.codestorykh.advanced;
+
+import com.codestorykh.generics.advanced.SelectionUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for heap and quickselect based selection utilities
+ */
+public class SelectionUtilsTest {
+
+    @Test
+    void testTopKAndBottomK() {
+        // Given
+        List<Integer> numbers = Arrays.asList(5, 1, 9, 3, 7, 9, 2);
+        
+        // When
+        List<Integer> top = SelectionUtils.topK(numbers, 3);
+        List<Integer> bottom = SelectionUtils.bottomK(numbers, 2);
+        
+        // Then
+        assertEquals(Arrays.asList(9, 9, 7), top);
+        assertEquals(Arrays.asList(1, 2), bottom);
+        assertEquals(numbers.size(), SelectionUtils.topK(numbers, 100).size());
+        assertTrue(SelectionUtils.topK(numbers, 0).isEmpty());
+    }
+
+    @Test
+    void testTopKWithComparatorOnNonComparableType() {
+        // Given
+        List<StringBuilder> builders = Arrays.asList(
+            new StringBuilder("a"), new StringBuilder("abc"), new StringBuilder("ab"));
+        
+        // When
+        List<StringBuilder> longest = SelectionUtils.topK(builders, 1, Comparator.comparingInt(StringBuilder::length));
+        
+        // Then
+        assertEquals("abc", longest.get(0).toString());
+    }
+
+    @Test
+    void testTopKWithHugeKOnSmallInput() {
+        // Given: k far larger than the source
+        List<Integer> numbers = Arrays.asList(5, 1, 4);
+        
+        // When
+        List<Integer> top = SelectionUtils.topK(numbers, Integer.MAX_VALUE);
+        
+        // Then
+        assertEquals(Arrays.asList(5, 4, 1), top);
+    }
+
+    @Test
+    void testParallelTopKMatchesSequential() {
+        // Given
+        Random random = new Random(42);
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            numbers.add(random.nextInt());
+        }
+        List<Integer> sorted = new ArrayList<>(numbers);
+        sorted.sort(Collections.reverseOrder());
+        
+        // When
+        List<Integer> parallel = SelectionUtils.topK(numbers.parallelStream(), 100, Comparator.naturalOrder());
+        List<Integer> sequential = SelectionUtils.topK(numbers.stream(), 100, Comparator.naturalOrder());
+        
+        // Then
+        assertEquals(sorted.subList(0, 100), parallel);
+        assertEquals(parallel, sequential);
+    }
+
+    @Test
+    void testStreamingMaxAndMin() {
+        // Given
+        Stream<String> words = Stream.of("pear", "apple", "zucchini", "fig");
+        
+        // When
+        Optional<String> max = SelectionUtils.max(words, Comparator.naturalOrder());
+        Optional<Integer> min = SelectionUtils.min(IntStream.range(0, 1000).boxed().parallel(), Comparator.naturalOrder());
+        
+        // Then
+        assertEquals(Optional.of("zucchini"), max);
+        assertEquals(Optional.of(0), min);
+        assertFalse(SelectionUtils.max(Collections.<Integer>emptyList()).isPresent());
+    }
+
+    @Test
+    void testKthSmallest() {
+        // Given
+        List<Integer> numbers = new ArrayList<>(Arrays.asList(7, 2, 9, 4, 1, 8, 3));
+        List<Integer> linked = new LinkedList<>(numbers);
+        List<Integer> unmodifiable = List.of(7, 2, 9, 4, 1, 8, 3);
+        
+        // Then
+        assertEquals(Integer.valueOf(1), SelectionUtils.kthSmallest(numbers, 0));
+        assertEquals(Integer.valueOf(4), SelectionUtils.kthSmallest(numbers, 3));
+        assertEquals(Integer.valueOf(9), SelectionUtils.kthSmallest(numbers, 6));
+        assertEquals(Integer.valueOf(8), SelectionUtils.kthSmallest(linked, 5));
+        assertEquals(Integer.valueOf(3), SelectionUtils.kthSmallest(unmodifiable, 2));
+        assertEquals(Arrays.asList(7, 2, 9, 4, 1, 8, 3), numbers);
+        assertEquals(Arrays.asList(7, 2, 9, 4, 1, 8, 3), linked);
+        assertThrows(IndexOutOfBoundsException.class, () -> SelectionUtils.kthSmallest(numbers, 7));
+    }
+
+    @Test
+    void testKthSmallestWithManyDuplicatesIsLinear() {
+        // Given: a leaderboard where nearly every score is equal
+        Random random = new Random(9);
+        List<Integer> scores = new ArrayList<>(Collections.nCopies(200_000, 100));
+        for (int i = 0; i < 1_000; i++) {
+            scores.set(random.nextInt(scores.size()), random.nextInt(200));
+        }
+        List<Integer> sorted = new ArrayList<>(scores);
+        Collections.sort(sorted);
+        long[] comparisons = new long[1];
+        Comparator<Integer> counting = (a, b) -> {
+            comparisons[0]++;
+            return Integer.compare(a, b);
+        };
+
+        // When
+        Integer median = SelectionUtils.kthSmallest(scores, 100_000, counting);
+        Integer lowest = SelectionUtils.kthSmallest(new ArrayList<>(Collections.nCopies(200_000, 5)), 0, counting);
+
+        // Then
+        assertEquals(sorted.get(100_000), median);
+        assertEquals(Integer.valueOf(5), lowest);
+        assertTrue(comparisons[0] < 40L * 200_000, () -> comparisons[0] + " comparisons");
+    }
+}
@@ -0,0 +1,95 @@
+package com.codestorykh.basic;
+
+import com.codestorykh.generics.basic.AtomicBox;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the thread-safe AtomicBox container.
+ */
+@DisplayName("AtomicBox Concurrent Container Tests")
+class AtomicBoxTest {
+
+    @Test
+    @DisplayName("Should behave like a Box for basic operations")
+    void shouldBehaveLikeBox() {
+        // Given
+        AtomicBox<String> box = new AtomicBox<>();
+        
+        // When
+        box.setContent("Hello");
+        
+        // Then
+        assertAll(
+            () -> assertEquals("Hello", box.getContent()),
+            () -> assertTrue(box.hasContent()),
+            () -> assertEquals("Hello", box.toString()),
+            () -> assertEquals(5, box.transform(String::length).getContent())
+        );
+        box.clear();
+        assertEquals("empty box", box.toString());
+    }
+
+    @Test
+    @DisplayName("Should only swap content when expectation matches")
+    void shouldCompareAndSet() {
+        // Given
+        AtomicBox<String> box = new AtomicBox<>("first");
+        
+        // Then
+        assertFalse(box.compareAndSet("other", "second"));
+        assertTrue(box.compareAndSet(box.getContent(), "second"));
+        assertEquals("second", box.getAndSet("third"));
+        assertEquals("third", box.getAcquire());
+    }
+
+    @Test
+    @DisplayName("Should return previous and updated content")
+    void shouldUpdateContent() {
+        // Given
+        AtomicBox<Integer> box = new AtomicBox<>(1);
+        
+        // When
+        Integer previous = box.getAndUpdate(n -> n + 1);
+        Integer updated = box.updateAndGet(n -> n * 10);
+        
+        // Then
+        assertEquals(1, previous);
+        assertEquals(20, updated);
+        box.setRelease(5);
+        assertEquals(5, box.getContent());
+    }
+
+    @Test
+    @DisplayName("Should not lose updates under contention")
+    void shouldNotLoseUpdatesUnderContention() throws InterruptedException {
+        // Given
+        AtomicBox<Integer> counter = new AtomicBox<>(0);
+        int threads = 4;
+        int incrementsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < incrementsPerThread; i++) {
+                    counter.getAndUpdate(n -> n + 1);
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        
+        // Then
+        assertEquals(threads * incrementsPerThread, counter.getContent());
+    }
+}
@@ -0,0 +1,98 @@
+package com.codestorykh.basic;
+
+import com.codestorykh.generics.basic.Box;
+import com.codestorykh.generics.basic.BoxPipeline;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for lazily fused Box transformation pipelines.
+ */
+@DisplayName("Box Pipeline Tests")
+class BoxPipelineTest {
+
+    @Test
+    @DisplayName("Should run chained transforms only on terminal access")
+    void shouldRunOnlyOnTerminalAccess() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        Box<String> box = new Box<>("Hello");
+        
+        // When
+        BoxPipeline<String, String> pipeline = box.lazy()
+            .transform(s -> {
+                calls.incrementAndGet();
+                return s.length();
+            })
+            .transform(len -> len * 2)
+            .transform(num -> "Length doubled: " + num);
+        
+        // Then
+        assertEquals(0, calls.get());
+        assertEquals("Length doubled: 10", pipeline.get().getContent());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should match eager transform results")
+    void shouldMatchEagerTransform() {
+        // Given
+        Box<Integer> box = new Box<>(21);
+        
+        // When
+        Box<String> eager = box.transform(n -> n * 2).transform(n -> "Value: " + n);
+        Box<String> lazy = box.lazy().transform(n -> n * 2).transform(n -> "Value: " + n).get();
+        
+        // Then
+        assertEquals(eager.getContent(), lazy.getContent());
+    }
+
+    @Test
+    @DisplayName("Should short-circuit on null like eager transform")
+    void shouldShortCircuitOnNull() {
+        // Given
+        Box<String> box = new Box<>("value");
+        
+        // When
+        Box<Integer> result = box.lazy()
+            .transform(s -> (String) null)
+            .<Integer>transform(s -> {
+                throw new AssertionError("Transformer should not be called for null content");
+            })
+            .get();
+        
+        // Then
+        assertFalse(result.hasContent());
+        assertFalse(new Box<String>().lazy().transform(String::length).get().hasContent());
+    }
+
+    @Test
+    @DisplayName("Should apply one pipeline to many boxes")
+    void shouldApplyInBulk() {
+        // Given
+        BoxPipeline<String, Integer> lengthTimesTen = BoxPipeline.<String>start()
+            .transform(String::length)
+            .transform(len -> len * 10);
+        List<Box<String>> boxes = List.of(new Box<>("a"), new Box<>(), new Box<>("abc"));
+        
+        // When
+        List<Integer> fromList = lengthTimesTen.applyAll(boxes).stream()
+            .map(Box::getContent)
+            .collect(Collectors.toList());
+        List<Integer> fromStream = lengthTimesTen.applyAll(boxes.stream())
+            .map(Box::getContent)
+            .collect(Collectors.toList());
+        
+        // Then
+        assertEquals(Arrays.asList(10, null, 30), fromList);
+        assertEquals(fromList, fromStream);
+        assertThrows(IllegalStateException.class, lengthTimesTen::get);
+    }
+}
@@ -0,0 +1,115 @@
+package com.codestorykh.basic;
+
+import com.codestorykh.generics.basic.LazyBox;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the lazily computed LazyBox container.
+ */
+@DisplayName("LazyBox Deferred Container Tests")
+class LazyBoxTest {
+
+    @Test
+    @DisplayName("Should compute content on first access only")
+    void shouldComputeOnFirstAccessOnly() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        LazyBox<String> box = new LazyBox<>(() -> {
+            calls.incrementAndGet();
+            return "computed";
+        });
+        assertFalse(box.isComputed());
+        assertEquals("lazy box", box.toString());
+        
+        // When
+        String first = box.getContent();
+        String second = box.getContent();
+        
+        // Then
+        assertAll(
+            () -> assertEquals("computed", first),
+            () -> assertSame(first, second),
+            () -> assertEquals(1, calls.get()),
+            () -> assertTrue(box.isComputed()),
+            () -> assertEquals("computed", box.toString())
+        );
+    }
+
+    @Test
+    @DisplayName("Should defer transformation until read")
+    void shouldDeferTransformation() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        LazyBox<String> box = LazyBox.of("Hello");
+        
+        // When
+        LazyBox<Integer> transformed = box.transform(s -> {
+            calls.incrementAndGet();
+            return s.length();
+        });
+        
+        // Then
+        assertEquals(0, calls.get());
+        assertEquals(5, transformed.getContent());
+        assertEquals(1, calls.get());
+        assertEquals(5, transformed.toBox().getContent());
+    }
+
+    @Test
+    @DisplayName("Should keep empty box semantics in transformation")
+    void shouldHandleNullInTransformation() {
+        // Given
+        LazyBox<String> empty = new LazyBox<>(() -> null);
+        
+        // When
+        LazyBox<Integer> transformed = empty.transform(str -> {
+            throw new AssertionError("Transformer should not be called for null content");
+        });
+        
+        // Then
+        assertFalse(transformed.hasContent());
+        assertEquals("empty box", transformed.toString());
+    }
+
+    @Test
+    @DisplayName("Should compute at most once under contention")
+    void shouldComputeAtMostOnceUnderContention() throws InterruptedException {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        LazyBox<Integer> box = new LazyBox<>(calls::incrementAndGet);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    box.getContent();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        
+        // Then
+        assertEquals(1, calls.get());
+        assertEquals(1, box.getContent());
+    }
+}
@@ -0,0 +1,69 @@
+package com.codestorykh.benchmark;
+
+import com.codestorykh.generics.advanced.Pair;
+import com.codestorykh.generics.advanced.RadixSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares {@link RadixSort} with {@link List#sort} on boxed values and with
+ * {@link Arrays#sort} and {@link Arrays#parallelSort} on primitive arrays.
+ * Pass the number of elements as the first argument; the default is 5 million.
+ */
+public class RadixSortBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Random random = new Random(42);
+        int[] ints = random.ints(size).toArray();
+        long[] longs = random.longs(size).toArray();
+        List<Integer> boxed = new ArrayList<>(size);
+        List<Pair<Long, String>> pairs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boxed.add(ints[i]);
+            pairs.add(Pair.of(longs[i], "value"));
+        }
+        System.out.printf("%,d elements, %d processors%n", size, Runtime.getRuntime().availableProcessors());
+
+        // The first round of each measurement doubles as warm-up and is not reported
+        measure("int[] Arrays.sort", () -> Arrays.sort(ints.clone()));
+        measure("int[] Arrays.parallelSort", () -> Arrays.parallelSort(ints.clone()));
+        measure("int[] RadixSort.sort", () -> RadixSort.sort(ints.clone()));
+        measure("int[] RadixSort.parallelSort", () -> RadixSort.parallelSort(ints.clone()));
+
+        measure("long[] Arrays.sort", () -> Arrays.sort(longs.clone()));
+        measure("long[] Arrays.parallelSort", () -> Arrays.parallelSort(longs.clone()));
+        measure("long[] RadixSort.sort", () -> RadixSort.sort(longs.clone()));
+        measure("long[] RadixSort.parallelSort", () -> RadixSort.parallelSort(longs.clone()));
+
+        measure("List<Integer> List.sort", () -> new ArrayList<>(boxed).sort(Comparator.naturalOrder()));
+        measure("List<Integer> RadixSort.sortByIntKey",
+            () -> RadixSort.sortByIntKey(new ArrayList<>(boxed), Integer::intValue));
+
+        measure("List<Pair> List.sort by key", () -> new ArrayList<>(pairs).sort(Comparator.comparing(Pair::getKey)));
+        measure("List<Pair> RadixSort.sortByLongKey",
+            () -> RadixSort.sortByLongKey(new ArrayList<>(pairs), Pair::getKey));
+        measure("List<Pair> RadixSort.parallelSortByLongKey",
+            () -> RadixSort.parallelSortByLongKey(new ArrayList<>(pairs), Pair::getKey));
+    }
+
+    private static void measure(String name, Runnable sort) {
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            sort.run();
+            long elapsed = System.nanoTime() - start;
+            if (round > 0) {
+                best = Math.min(best, elapsed);
+                total += elapsed;
+            }
+        }
+        System.out.printf("%-45s best %8.1f ms   avg %8.1f ms%n", name, best / 1e6, total / 1e6 / ROUNDS);
+    }
+}
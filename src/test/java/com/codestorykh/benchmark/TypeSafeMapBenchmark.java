@@ -0,0 +1,95 @@
+package com.codestorykh.benchmark;
+
+import com.codestorykh.generics.advanced.GenericUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simple lookup latency and contention benchmark for {@link GenericUtils.TypeSafeMap}.
+ * Measures exact lookups, hierarchy-aware lookups and reads under concurrent readers.
+ */
+public class TypeSafeMapBenchmark {
+    private static final int ITERATIONS = 10_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        GenericUtils.TypeSafeMap map = new GenericUtils.TypeSafeMap();
+        map.put(String.class, "service");
+        map.put(Number.class, 42);
+        map.put(Serializable.class, "serializable");
+
+        // Warm up before measuring
+        runExact(map, ITERATIONS);
+        runHierarchy(map, ITERATIONS);
+
+        long start = System.nanoTime();
+        long hits = runExact(map, ITERATIONS);
+        report("exact get", start, ITERATIONS, hits);
+
+        start = System.nanoTime();
+        hits = runHierarchy(map, ITERATIONS);
+        report("hierarchy find", start, ITERATIONS, hits);
+
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            runContended(map, threads);
+        }
+    }
+
+    private static long runExact(GenericUtils.TypeSafeMap map, int iterations) {
+        long hits = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (map.get(String.class) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static long runHierarchy(GenericUtils.TypeSafeMap map, int iterations) {
+        long hits = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (map.find(Integer.class) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static void runContended(GenericUtils.TypeSafeMap map, int threads) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        List<long[]> counts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long[] count = new long[1];
+            counts.add(count);
+            executor.execute(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                count[0] = runHierarchy(map, ITERATIONS / threads);
+            });
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        long hits = counts.stream().mapToLong(c -> c[0]).sum();
+        report("contended find x" + threads, start, (ITERATIONS / threads) * threads, hits);
+    }
+
+    private static void report(String label, long startNanos, long operations, long hits) {
+        long elapsed = System.nanoTime() - startNanos;
+        System.out.printf("%-22s %8.2f ns/op  (%d hits)%n", label, (double) elapsed / operations, hits);
+    }
+}
@@ -0,0 +1,243 @@
+package com.codestorykh.taskmanager.cluster;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+import com.codestorykh.taskmanager.service.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for clusters of nodes running in one JVM
+ */
+public class ClusterNodeTest {
+    private final List<ClusterNode> nodes = new ArrayList<>();
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(ClusterNode::halt);
+        nodes.forEach(node -> node.getTaskManager().shutdown());
+    }
+
+    @Test
+    void testSubmissionsAreForwardedToTheirOwners() throws Exception {
+        // Given
+        ClusterNode first = startNode(0);
+        ClusterNode second = startNode(0, first);
+        ClusterNode third = startNode(0, first);
+        awaitMembers(3, first, second, third);
+
+        // When
+        List<String> ids = submit(first, 30);
+
+        // Then
+        for (String id : ids) {
+            ClusterTaskStatus status = awaitFinished(third, id);
+            assertEquals(TaskStatus.COMPLETED, status.status());
+            assertEquals(first.getRing().ownerOf(id), status.owner());
+            assertEquals("TASK", new String(status.result(), StandardCharsets.UTF_8));
+        }
+        assertTrue(first.getStatistics().forwardedSubmissions() > 0);
+        assertEquals(30, ownedTasks(first, second, third));
+    }
+
+    @Test
+    void testConcurrentJoinsThroughOneSeedConverge() throws Exception {
+        // Given
+        ClusterNode seed = startNode(0);
+        List<CompletableFuture<ClusterNode>> joining = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            joining.add(CompletableFuture.supplyAsync(() -> startNode(0, seed)));
+        }
+
+        // Then
+        List<ClusterNode> all = new ArrayList<>(List.of(seed));
+        for (CompletableFuture<ClusterNode> node : joining) {
+            all.add(node.get(10, TimeUnit.SECONDS));
+        }
+        awaitMembers(4, all.toArray(ClusterNode[]::new));
+    }
+
+    @Test
+    void testJoiningNodeTakesOverItsPartition() throws Exception {
+        // Given
+        ClusterNode first = startNode(0);
+        List<String> ids = submit(first, 40);
+        for (String id : ids) {
+            awaitFinished(first, id);
+        }
+
+        // When
+        ClusterNode second = startNode(0, first);
+        awaitMembers(2, first, second);
+
+        // Then
+        await(() -> second.getStatistics().transferredIn() > 0 && ownedTasks(first, second) == 40);
+        for (String id : ids) {
+            ClusterTaskStatus status = awaitFinished(second, id);
+            assertEquals(TaskStatus.COMPLETED, status.status());
+            assertEquals(second.getRing().ownerOf(id), status.owner());
+        }
+    }
+
+    @Test
+    void testLostNodeIsDroppedAndSubmissionsContinue() throws Exception {
+        // Given
+        ClusterNode first = startNode(0);
+        ClusterNode second = startNode(0, first);
+        ClusterNode lost = startNode(0, first);
+        awaitMembers(3, first, second, lost);
+
+        // When
+        lost.halt();
+
+        // Then
+        awaitMembers(2, first, second);
+        assertFalse(first.getRing().contains(lost.getAddress()));
+        for (String id : submit(second, 20)) {
+            assertEquals(TaskStatus.COMPLETED, awaitFinished(first, id).status());
+        }
+    }
+
+    @Test
+    void testDroppedNodeRejoinsOnceReachable() throws Exception {
+        // Given
+        ClusterNode first = startNode(0);
+        ClusterNode second = startNode(0, first);
+        ClusterNode lost = startNode(0, first);
+        awaitMembers(3, first, second, lost);
+        lost.halt();
+        awaitMembers(2, first, second);
+
+        // When
+        ClusterNode restarted = startNode(lost.getAddress().port());
+
+        // Then
+        awaitMembers(3, first, second, restarted);
+    }
+
+    @Test
+    void testTasksLentToLostThiefAreRequeued() throws Exception {
+        // Given: an owner whose workers are held, and a thief with room that never finishes
+        ClusterNode owner = startNode(0);
+        ClusterNode thief = startNode(0, 64, owner);
+        awaitMembers(2, owner, thief);
+        CountDownLatch ownerGate = new CountDownLatch(1);
+        CountDownLatch thiefGate = new CountDownLatch(1);
+        owner.registerProcessor("gated", input -> hold(ownerGate, input));
+        thief.registerProcessor("gated", input -> hold(thiefGate, input));
+        List<String> owned = new ArrayList<>();
+        for (int i = 0; i < 40 && owner.getStatistics().stolenByPeers() == 0; i++) {
+            String id = owner.submit("gated-" + i, TaskPriority.MEDIUM, "gated", new byte[] {1})
+                .get(10, TimeUnit.SECONDS);
+            if (owner.getAddress().equals(owner.getRing().ownerOf(id))) {
+                owned.add(id);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(150));
+        }
+        assertTrue(owner.getStatistics().stolenByPeers() > 0);
+
+        // When
+        thief.halt();
+        awaitMembers(1, owner);
+        ownerGate.countDown();
+
+        // Then: the owner ran the stolen tasks itself instead of failing them
+        for (String id : owned) {
+            assertEquals(TaskStatus.COMPLETED, awaitFinished(owner, id).status());
+        }
+    }
+
+    private static byte[] hold(CountDownLatch gate, byte[] input) {
+        try {
+            gate.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        }
+        return input;
+    }
+
+    private ClusterNode startNode(int port, ClusterNode... seeds) {
+        return startNode(port, 2, seeds);
+    }
+
+    private ClusterNode startNode(int port, int maxRunning, ClusterNode... seeds) {
+        ClusterNode node = new ClusterNode(new NodeAddress("127.0.0.1", port), new TaskManager(), maxRunning);
+        node.registerProcessor("upper", input ->
+            new String(input, StandardCharsets.UTF_8).toUpperCase().getBytes(StandardCharsets.UTF_8));
+        try {
+            List<NodeAddress> seedAddresses = new ArrayList<>();
+            for (ClusterNode seed : seeds) {
+                seedAddresses.add(seed.getAddress());
+            }
+            node.start(seedAddresses);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        synchronized (nodes) {
+            nodes.add(node);
+        }
+        return node;
+    }
+
+    private static List<String> submit(ClusterNode node, int count) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(node.submit("task-" + i, TaskPriority.MEDIUM, "upper", "task".getBytes(StandardCharsets.UTF_8))
+                .get(10, TimeUnit.SECONDS));
+        }
+        return ids;
+    }
+
+    private static ClusterTaskStatus awaitFinished(ClusterNode node, String id) {
+        ClusterTaskStatus[] last = new ClusterTaskStatus[1];
+        await(() -> {
+            Optional<ClusterTaskStatus> status = node.getStatus(id).join();
+            last[0] = status.orElse(null);
+            return last[0] != null
+                && (last[0].status() == TaskStatus.COMPLETED || last[0].status() == TaskStatus.FAILED);
+        });
+        return last[0];
+    }
+
+    private static int ownedTasks(ClusterNode... nodes) {
+        int owned = 0;
+        for (ClusterNode node : nodes) {
+            owned += node.getStatistics().ownedTasks();
+        }
+        return owned;
+    }
+
+    private static void awaitMembers(int members, ClusterNode... nodes) {
+        await(() -> {
+            for (ClusterNode node : nodes) {
+                if (node.getRing().getMembers().size() != members) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 20 seconds");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.codestorykh.taskmanager.event;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the sequenced task change feed
+ */
+public class TaskChangeFeedTest {
+
+    @Test
+    void testReadersResumeFromTheirOwnSequence() {
+        // Given
+        TaskChangeFeed feed = new TaskChangeFeed(8);
+        for (int i = 1; i <= 5; i++) {
+            feed.append("task-" + i, "job", TaskPriority.MEDIUM, TaskStatus.PENDING);
+        }
+
+        // When
+        TaskChangeBatch first = feed.changesSince(0, 3);
+        TaskChangeBatch rest = feed.changesSince(first.lastSequence(), 10);
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L), sequences(first));
+        assertEquals(3, first.lastSequence());
+        assertEquals(List.of(4L, 5L), sequences(rest));
+        assertFalse(rest.gap());
+        assertEquals("task-5", rest.changes().get(1).taskId());
+        assertEquals(5, feed.changesSince(5, 10).lastSequence());
+        assertTrue(feed.changesSince(5, 10).changes().isEmpty());
+    }
+
+    @Test
+    void testReaderBehindRetentionIsToldAboutTheGap() {
+        // Given
+        TaskChangeFeed feed = new TaskChangeFeed(4);
+        for (int i = 1; i <= 10; i++) {
+            feed.append("task-" + i, "job", TaskPriority.LOW, TaskStatus.COMPLETED);
+        }
+
+        // When
+        TaskChangeBatch batch = feed.changesSince(2, 100);
+
+        // Then
+        assertTrue(batch.gap());
+        assertEquals(List.of(7L, 8L, 9L, 10L), sequences(batch));
+        assertThrows(IllegalArgumentException.class, () -> new TaskChangeFeed(6));
+    }
+
+    @Test
+    void testLongPollCompletesOnAppend() throws Exception {
+        // Given
+        TaskChangeFeed feed = new TaskChangeFeed(16);
+        CompletableFuture<TaskChangeBatch> poll = feed.awaitChangesSince(0, 10, Duration.ofSeconds(10));
+        assertFalse(poll.isDone());
+
+        // When
+        feed.append("task-1", "job", TaskPriority.HIGH, TaskStatus.RUNNING);
+
+        // Then
+        TaskChangeBatch batch = poll.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(1L), sequences(batch));
+        assertEquals(TaskStatus.RUNNING, batch.changes().get(0).status());
+        assertEquals(0, feed.getWaitingCount());
+    }
+
+    @Test
+    void testTimedOutLongPollsAreNotRetained() throws Exception {
+        // Given
+        TaskChangeFeed feed = new TaskChangeFeed(16);
+        List<CompletableFuture<TaskChangeBatch>> polls = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            polls.add(feed.awaitChangesSince(0, 10, Duration.ofMillis(20)));
+        }
+        CompletableFuture<TaskChangeBatch> cancelled = feed.awaitChangesSince(0, 10, Duration.ofSeconds(10));
+        cancelled.cancel(false);
+
+        // Then
+        for (CompletableFuture<TaskChangeBatch> poll : polls) {
+            TaskChangeBatch batch = poll.get(5, TimeUnit.SECONDS);
+            assertTrue(batch.changes().isEmpty());
+            assertEquals(0, batch.lastSequence());
+        }
+        assertEquals(0, feed.getWaitingCount());
+    }
+
+    private static List<Long> sequences(TaskChangeBatch batch) {
+        return batch.changes().stream().map(TaskChange::sequence).toList();
+    }
+}
@@ -0,0 +1,157 @@
+package com.codestorykh.taskmanager.event;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the ring-buffer task event bus
+ */
+public class TaskEventBusTest {
+
+    @Test
+    void testSubscriberReceivesEventsInOrder() {
+        // Given
+        TaskEventBus bus = new TaskEventBus(8);
+        List<String> received = new CopyOnWriteArrayList<>();
+        bus.subscribe(event -> received.add(event.getSequence() + ":" + event.getType() + ":"
+            + event.getTaskId() + ":" + event.getTaskName() + ":" + event.getPriority()));
+
+        // When
+        bus.publish(TaskEventType.SUBMITTED, "t1", "first", TaskPriority.HIGH, true);
+        bus.publish(TaskEventType.STARTED, "t1", "first", TaskPriority.HIGH, true);
+        bus.publish(TaskEventType.COMPLETED, "t1", "first", TaskPriority.HIGH, true);
+
+        // Then
+        await(() -> received.size() == 3);
+        assertEquals(List.of("0:SUBMITTED:t1:first:HIGH", "1:STARTED:t1:first:HIGH", "2:COMPLETED:t1:first:HIGH"),
+            received);
+        assertEquals(2, bus.getCursor());
+        bus.close();
+    }
+
+    @Test
+    void testPublishWithoutSubscribersIsDropped() {
+        // Given
+        TaskEventBus bus = new TaskEventBus(4);
+
+        // Then
+        assertFalse(bus.publish(TaskEventType.SUBMITTED, "t1", "task", TaskPriority.LOW, true));
+        assertEquals(-1, bus.getCursor());
+        assertThrows(IllegalArgumentException.class, () -> new TaskEventBus(6));
+    }
+
+    @Test
+    void testLappedDropSubscriberSkipsAheadWithoutBlockingPublishers() throws InterruptedException {
+        // Given: a subscriber stuck in its first event while the ring wraps several times
+        TaskEventBus bus = new TaskEventBus(4);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> sequences = new CopyOnWriteArrayList<>();
+        TaskSubscription subscription = bus.subscribe(event -> {
+            sequences.add(event.getSequence());
+            if (event.getSequence() == 0) {
+                awaitLatch(release);
+            }
+        });
+
+        // When
+        bus.publish(TaskEventType.SUBMITTED, "t0", "task", TaskPriority.LOW, false);
+        await(() -> sequences.size() == 1);
+        for (int i = 1; i < 20; i++) {
+            assertTrue(bus.publish(TaskEventType.SUBMITTED, "t" + i, "task", TaskPriority.LOW, false));
+        }
+        release.countDown();
+
+        // Then: it resumes within the last ring and accounts for everything it missed
+        await(() -> subscription.getSequence() == 19);
+        assertTrue(subscription.getDroppedCount() > 0);
+        assertEquals(20, sequences.size() + subscription.getDroppedCount());
+        assertEquals(0, bus.getRejectedCount());
+        bus.close();
+    }
+
+    @Test
+    void testBlockSubscriberGatesPublishersAndRejectsNonBlockingOnes() throws InterruptedException {
+        // Given
+        TaskEventBus bus = new TaskEventBus(4);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> sequences = new CopyOnWriteArrayList<>();
+        TaskSubscription subscription = bus.subscribe(event -> {
+            awaitLatch(release);
+            sequences.add(event.getSequence());
+        }, WaitStrategy.YIELDING, OverflowPolicy.BLOCK);
+
+        // When: the ring fills behind the stalled subscriber
+        for (int i = 0; i < 4; i++) {
+            assertTrue(bus.publish(TaskEventType.SUBMITTED, "t" + i, "task", TaskPriority.LOW, false));
+        }
+        boolean workerPublished = bus.publish(TaskEventType.STARTED, "t4", "task", TaskPriority.LOW, false);
+        Thread blockedPublisher = new Thread(() -> {
+            for (int i = 5; i < 12; i++) {
+                bus.publish(TaskEventType.SUBMITTED, "t" + i, "task", TaskPriority.LOW, true);
+            }
+        });
+        blockedPublisher.start();
+        Thread.sleep(50);
+        boolean publisherWaited = blockedPublisher.isAlive();
+        release.countDown();
+        blockedPublisher.join(5_000);
+
+        // Then: nothing the subscriber gated was lost
+        assertFalse(workerPublished);
+        assertEquals(1, bus.getRejectedCount());
+        assertTrue(publisherWaited);
+        await(() -> sequences.size() == 11);
+        for (int i = 0; i < 11; i++) {
+            assertEquals(Long.valueOf(i), sequences.get(i));
+        }
+        assertEquals(0, subscription.getDroppedCount());
+        bus.close();
+    }
+
+    @Test
+    void testClosedSubscriptionStopsDelivery() {
+        // Given
+        TaskEventBus bus = new TaskEventBus(8);
+        List<Long> sequences = new CopyOnWriteArrayList<>();
+        TaskSubscription subscription = bus.subscribe(event -> sequences.add(event.getSequence()));
+        bus.publish(TaskEventType.SUBMITTED, "t1", "task", TaskPriority.LOW, true);
+        await(() -> sequences.size() == 1);
+
+        // When
+        subscription.close();
+        bus.close();
+
+        // Then
+        assertFalse(subscription.isActive());
+        assertEquals(0, bus.getSubscriberCount());
+        assertFalse(bus.publish(TaskEventType.STARTED, "t1", "task", TaskPriority.LOW, true));
+        assertThrows(IllegalStateException.class, () -> bus.subscribe(event -> { }));
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+}
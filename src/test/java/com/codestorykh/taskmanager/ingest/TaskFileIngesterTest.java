@@ -0,0 +1,165 @@
+package com.codestorykh.taskmanager.ingest;
+
+import com.codestorykh.taskmanager.model.TaskDescriptor;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.service.AdaptiveConcurrencyLimiter;
+import com.codestorykh.taskmanager.service.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for memory-mapped bulk ingestion of task files
+ */
+public class TaskFileIngesterTest {
+    private final TaskManager manager = new TaskManager();
+    private Path file;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        manager.shutdown();
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testNdjsonLinesAreIngestedOnceEach() throws Exception {
+        // Given: CRLF endings, blank lines and no trailing newline
+        file = write("a,HIGH,1\r\n\nb,LOW,2\n   \nc,CRITICAL,3".getBytes(StandardCharsets.UTF_8));
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(3);
+
+        // When
+        IngestionReport report = new TaskFileIngester(manager, 2, 10, 2).ingest(file, RecordFormat.NDJSON,
+            TaskFileIngesterTest::parseCsv, input -> {
+                processed.add(input);
+                done.countDown();
+                return input;
+            });
+
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Set.of("1", "2", "3"), processed);
+        assertEquals(3, report.records());
+        assertEquals(1, manager.getTasksByPriority(TaskPriority.CRITICAL).size());
+    }
+
+    @Test
+    void testLengthPrefixedFileIsSplitIntoParallelChunks() throws Exception {
+        // Given: enough records for several record-aligned chunks
+        int count = 100_000;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < count; i++) {
+            bytes.write(BinaryRecordParser.encode("task-" + i, TaskPriority.MEDIUM,
+                ByteBuffer.allocate(4).putInt(i).array()));
+        }
+        file = write(bytes.toByteArray());
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(count);
+
+        // When
+        IngestionReport report = new TaskFileIngester(manager, 4, 5_000, 500).ingest(file,
+            RecordFormat.LENGTH_PREFIXED, new BinaryRecordParser<>(ByteBuffer::getInt), input -> {
+                processed.add(input);
+                done.countDown();
+                return input;
+            });
+
+        // Then
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(count, processed.size());
+        assertEquals(count, report.records());
+        assertTrue(report.chunks() > 1, () -> report.chunks() + " chunks");
+        assertEquals(bytes.size(), report.bytes());
+    }
+
+    @Test
+    void testTruncatedAndInvalidRecordsAreReported() throws Exception {
+        // Given
+        byte[] record = BinaryRecordParser.encode("task", TaskPriority.LOW, new byte[8]);
+        TaskFileIngester ingester = new TaskFileIngester(manager, 1, 10, 1);
+
+        // When
+        file = write(Arrays.copyOf(record, record.length - 3));
+        IOException truncated = assertThrows(IOException.class, () -> ingester.ingest(file,
+            RecordFormat.LENGTH_PREFIXED, new BinaryRecordParser<>(ByteBuffer::remaining), input -> input));
+        Files.delete(file);
+        file = write("a,HIGH,1\nb,URGENT,2\n".getBytes(StandardCharsets.UTF_8));
+        IOException invalid = assertThrows(IOException.class, () -> ingester.ingest(file, RecordFormat.NDJSON,
+            TaskFileIngesterTest::parseCsv, input -> input));
+
+        // Then
+        assertTrue(truncated.getMessage().contains("Truncated"));
+        assertTrue(invalid.getMessage().contains("offset 9"), invalid::getMessage);
+        assertThrows(IllegalArgumentException.class, () -> new TaskFileIngester(manager, 1, 5, 10));
+    }
+
+    @Test
+    void testDefaultBackpressureFollowsExecutionCapacity() {
+        // Given
+        TaskManager limited = new TaskManager();
+        limited.enableAdaptiveConcurrency(new AdaptiveConcurrencyLimiter(100, 100, 100));
+
+        // When
+        TaskFileIngester ingester = new TaskFileIngester(limited);
+
+        // Then
+        assertEquals(100, limited.getExecutionCapacity());
+        assertEquals(6_400, ingester.getMaxInFlight());
+        assertTrue(new TaskFileIngester(manager).getMaxInFlight() >= 1_000);
+        limited.shutdown();
+    }
+
+    @Test
+    void testBinaryParserRejectsUnknownPriority() {
+        // Given
+        ByteBuffer record = ByteBuffer.wrap(new byte[]{9, 0, 0});
+
+        // Then
+        assertThrows(IOException.class, () -> new BinaryRecordParser<>(ByteBuffer::remaining).parse(record));
+    }
+
+    @Test
+    void testJsonParserBindsInputAndDefaultsPriority() throws IOException {
+        // Given
+        JsonRecordParser<Integer> parser = new JsonRecordParser<>(Integer.class);
+
+        // When
+        TaskDescriptor<Integer> explicit = parser.parse(utf8("{\"name\": \"resize\", \"priority\": \"HIGH\", \"input\": 42}"));
+        TaskDescriptor<Integer> defaulted = parser.parse(utf8("{\"name\": \"resize\", \"input\": 7}"));
+
+        // Then
+        assertEquals(TaskDescriptor.of("resize", TaskPriority.HIGH, 42), explicit);
+        assertEquals(TaskPriority.MEDIUM, defaulted.priority());
+        assertThrows(IOException.class, () -> parser.parse(utf8("[1, 2]")));
+    }
+
+    private static ByteBuffer utf8(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TaskDescriptor<String> parseCsv(ByteBuffer record) {
+        String[] fields = StandardCharsets.UTF_8.decode(record).toString().split(",");
+        return TaskDescriptor.of(fields[0], TaskPriority.valueOf(fields[1]), fields[2]);
+    }
+
+    private static Path write(byte[] content) throws IOException {
+        Path path = Files.createTempFile("tasks", ".dat");
+        Files.write(path, content);
+        return path;
+    }
+}
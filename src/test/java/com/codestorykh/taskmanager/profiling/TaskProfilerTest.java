@@ -0,0 +1,73 @@
+package com.codestorykh.taskmanager.profiling;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.service.TaskManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for sampled per-task CPU and allocation profiling
+ */
+public class TaskProfilerTest {
+
+    @Test
+    void testSampledTaskReportsItsAllocations() throws Exception {
+        // Given
+        TaskManager manager = new TaskManager();
+        TaskProfiler profiler = new TaskProfiler(1.0);
+        manager.enableProfiling(profiler);
+        Task<Integer, Integer> task = manager.submitTask("allocate", TaskPriority.MEDIUM, 1_000_000,
+            size -> new byte[size].length);
+
+        // When
+        manager.executeTask(task).get(5, TimeUnit.SECONDS);
+
+        // Then
+        TaskResourceUsage usage = task.getResourceUsage();
+        assertNotNull(usage);
+        if (usage.allocatedBytes() >= 0) {
+            assertTrue(usage.allocatedBytes() >= 1_000_000, () -> usage.allocatedBytes() + " bytes");
+        }
+        assertTrue(usage.wallNanos() > 0);
+        assertEquals(1, profiler.getSampledCount());
+        assertNotNull(profiler.getAverageUsage());
+        manager.shutdown();
+    }
+
+    @Test
+    void testFailedTaskIsMeasuredToo() {
+        // Given
+        TaskManager manager = new TaskManager();
+        TaskProfiler profiler = new TaskProfiler(1.0);
+        manager.enableProfiling(profiler);
+        Task<String, String> task = manager.submitTask("failing", TaskPriority.MEDIUM, "input", input -> {
+            throw new IllegalStateException("boom");
+        });
+
+        // When
+        assertThrows(Exception.class, () -> manager.executeTask(task).get(5, TimeUnit.SECONDS));
+
+        // Then
+        assertNotNull(task.getResourceUsage());
+        assertEquals(1, profiler.getSampledCount());
+        manager.shutdown();
+    }
+
+    @Test
+    void testZeroSampleRateMeasuresNothing() {
+        // Given
+        TaskProfiler profiler = new TaskProfiler(0);
+        Task<String, String> task = new Task<>("unsampled", TaskPriority.LOW, "input", input -> input);
+
+        // Then
+        assertNull(profiler.begin(task));
+        assertNull(profiler.getAverageUsage());
+        assertThrows(IllegalArgumentException.class, () -> new TaskProfiler(1.5));
+        assertEquals(-1, new TaskResourceUsage(-1, 0, 10).cpuRatio());
+        assertEquals(0.5, new TaskResourceUsage(5, 0, 10).cpuRatio());
+    }
+}
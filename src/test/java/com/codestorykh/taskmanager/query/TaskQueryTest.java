@@ -0,0 +1,184 @@
+package com.codestorykh.taskmanager.query;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+import com.codestorykh.taskmanager.service.TaskManager;
+import com.codestorykh.taskmanager.store.OffHeapTaskTable;
+import com.codestorykh.taskmanager.store.TaskFilter;
+import com.codestorykh.taskmanager.store.TaskRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the task query DSL and its compiled filters
+ */
+public class TaskQueryTest {
+
+    @Test
+    void testParseCompilesEveryCondition() {
+        // Given
+        long now = 1_000_000_000L;
+
+        // When
+        TaskFilter filter = TaskQuery.parse("status:FAILED,completed priority:HIGH name:import-* created<10m duration>2s")
+            .compile(now);
+
+        // Then
+        assertTrue(filter.matchesState(TaskPriority.HIGH.ordinal(), TaskStatus.FAILED.ordinal()));
+        assertTrue(filter.matchesState(TaskPriority.HIGH.ordinal(), TaskStatus.COMPLETED.ordinal()));
+        assertFalse(filter.matchesState(TaskPriority.LOW.ordinal(), TaskStatus.FAILED.ordinal()));
+        assertFalse(filter.matchesState(TaskPriority.HIGH.ordinal(), TaskStatus.RUNNING.ordinal()));
+        assertTrue(filter.matchesName("import-csv"));
+        assertFalse(filter.matchesName("export-csv"));
+        assertEquals(now - Duration.ofMinutes(10).toMillis(), filter.createdFromMillis());
+        assertEquals(Long.MAX_VALUE, filter.createdToMillis());
+        assertTrue(filter.matchesDuration(2_000));
+        assertFalse(filter.matchesDuration(1_999));
+        assertFalse(filter.matchesDuration(-1));
+    }
+
+    @Test
+    void testEmptyQueryMatchesEverything() {
+        // Given
+        TaskFilter filter = TaskQuery.parse("  ").compile(0);
+
+        // Then
+        for (TaskPriority priority : TaskPriority.values()) {
+            for (TaskStatus status : TaskStatus.values()) {
+                assertTrue(filter.matchesState(priority.ordinal(), status.ordinal()));
+            }
+        }
+        assertFalse(filter.filtersName());
+        assertFalse(filter.filtersCreated());
+        assertFalse(filter.filtersDuration());
+        assertTrue(filter.matchesDuration(-1));
+    }
+
+    @Test
+    void testParseRejectsMalformedConditions() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("owner:alice"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("status:DONE"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("status:"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("created<10y"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("duration>fast"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("order:random"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("limit:-1"));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse("limit:many"));
+    }
+
+    @Test
+    void testSelectAppliesOrderAndLimit() {
+        // Given
+        List<TaskRecord> records = List.of(record("a", 30), record("b", 10), record("c", 50), record("d", 20));
+
+        // When
+        List<TaskRecord> newest = TaskQuery.parse("order:newest limit:2").select(records.stream()).toList();
+        List<TaskRecord> oldest = TaskQuery.parse("order:oldest").select(records.stream()).toList();
+        List<TaskRecord> firstTwo = TaskQuery.parse("limit:2").select(records.stream()).toList();
+
+        // Then
+        assertEquals(List.of("c", "a"), names(newest));
+        assertEquals(List.of("b", "d", "a", "c"), names(oldest));
+        assertEquals(List.of("a", "b"), names(firstTwo));
+    }
+
+    @Test
+    void testLimitAtMostNeverRaisesTheLimit() {
+        // Given
+        List<TaskRecord> records = List.of(record("a", 1), record("b", 2), record("c", 3), record("d", 4));
+
+        // When
+        List<TaskRecord> capped = TaskQuery.parse("order:newest").limitAtMost(3).select(records.stream()).toList();
+        List<TaskRecord> ownLimit = TaskQuery.parse("order:newest limit:1").limitAtMost(3)
+            .select(records.stream()).toList();
+
+        // Then
+        assertEquals(List.of("d", "c", "b"), names(capped));
+        assertEquals(List.of("d"), names(ownLimit));
+    }
+
+    @Test
+    void testTableScanAndRegistryAgree() throws Exception {
+        // Given
+        TaskManager heap = new TaskManager();
+        TaskManager offHeap = new TaskManager();
+        offHeap.enableOffHeapMetadata(new OffHeapTaskTable());
+        for (TaskManager manager : List.of(heap, offHeap)) {
+            for (int i = 0; i < 6; i++) {
+                TaskPriority priority = i % 2 == 0 ? TaskPriority.HIGH : TaskPriority.LOW;
+                Task<Integer, Integer> task = manager.submitTask((i < 4 ? "import-" : "export-") + i, priority, i,
+                    input -> {
+                        if (input == 2) {
+                            throw new IllegalStateException("bad row");
+                        }
+                        return input;
+                    });
+                if (i < 5) {
+                    try {
+                        manager.executeTask(task).get(5, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        // Task 2 fails on purpose
+                    }
+                }
+            }
+        }
+
+        // When
+        for (String text : List.of("name:import-*", "status:FAILED", "priority:HIGH status:COMPLETED",
+            "status:PENDING", "created<1h order:newest", "name:export-4", "created>1h")) {
+            List<String> fromHeap = names(heap.query(text).toList());
+            List<String> fromTable = names(offHeap.query(text).toList());
+
+            // Then
+            assertEquals(fromHeap.stream().sorted().toList(), fromTable.stream().sorted().toList(), text);
+        }
+        assertEquals(List.of("import-0", "import-1", "import-2", "import-3"), names(offHeap.query("name:import-*").toList()));
+        assertEquals(List.of("import-2"), names(offHeap.query("status:FAILED").toList()));
+        assertEquals(List.of("export-5"), names(offHeap.query("status:PENDING").toList()));
+        assertTrue(offHeap.query("created>1h").toList().isEmpty());
+        for (String text : List.of("status:COMPLETED", "priority:HIGH status:COMPLETED,FAILED", "name:import-*",
+            "status:COMPLETED limit:2", "")) {
+            assertEquals(heap.count(text), offHeap.count(text), text);
+            assertEquals(offHeap.query(text).count(), offHeap.count(text), text);
+        }
+        assertEquals(2, offHeap.count("priority:HIGH status:COMPLETED"));
+        heap.shutdown();
+        offHeap.shutdown();
+    }
+
+    @Test
+    void testTableScanSkipsChunksOutsideTheTimeRange() {
+        // Given
+        OffHeapTaskTable table = new OffHeapTaskTable();
+        for (int i = 0; i < 100; i++) {
+            table.put(new Task<>("task-" + i, TaskPriority.MEDIUM, i, input -> input));
+        }
+        long now = System.currentTimeMillis();
+
+        // When
+        long recent = table.scan(TaskQuery.tasks().createdWithin(Duration.ofHours(1)).compile(now)).count();
+        long old = table.scan(TaskQuery.tasks().olderThan(Duration.ofHours(1)).compile(now)).count();
+        Stream<TaskRecord> named = table.scan(TaskQuery.tasks().named("task-42").compile(now));
+
+        // Then
+        assertEquals(100, recent);
+        assertEquals(0, old);
+        assertEquals(List.of("task-42"), names(named.toList()));
+    }
+
+    private static TaskRecord record(String name, long createdAtMillis) {
+        return new TaskRecord(name, name, TaskPriority.MEDIUM, TaskStatus.COMPLETED, createdAtMillis, 0, 0);
+    }
+
+    private static List<String> names(List<TaskRecord> records) {
+        return records.stream().map(TaskRecord::name).toList();
+    }
+}
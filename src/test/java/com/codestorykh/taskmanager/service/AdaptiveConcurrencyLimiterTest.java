@@ -0,0 +1,89 @@
+package com.codestorykh.taskmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the gradient-based concurrency limiter
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void testSlotsAreBoundedByLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        // When
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+        limiter.release();
+        boolean afterRelease = limiter.tryAcquire();
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertTrue(afterRelease);
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void testRisingLatencyShrinksLimitToMinimum() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100);
+        limiter.tryAcquire();
+        limiter.release(1_000, 50);
+
+        // When: every later task takes four times the baseline
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(4_000, 50);
+        }
+
+        // Then
+        assertEquals(5, limiter.getLimit());
+        assertEquals(1_000, limiter.getBaselineLatencyNanos());
+        assertTrue(limiter.getMetrics().limitDecreases() > 0);
+    }
+
+    @Test
+    void testLimitGrowsOnlyWhenUsed() {
+        // Given
+        AdaptiveConcurrencyLimiter idle = new AdaptiveConcurrencyLimiter(10, 1, 50);
+        AdaptiveConcurrencyLimiter busy = new AdaptiveConcurrencyLimiter(10, 1, 50);
+
+        // When: latency stays at the baseline
+        for (int i = 0; i < 200; i++) {
+            idle.tryAcquire();
+            idle.release(1_000, 1);
+            busy.tryAcquire();
+            busy.release(1_000, busy.getLimit());
+        }
+
+        // Then
+        assertEquals(10, idle.getLimit());
+        assertEquals(50, busy.getLimit());
+        assertEquals(-1, new AdaptiveConcurrencyLimiter().getBaselineLatencyNanos());
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 6, 10));
+    }
+
+    @Test
+    void testBaselineResetIgnoresZeroLatency() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 50);
+        for (int i = 0; i < 999; i++) {
+            limiter.tryAcquire();
+            limiter.release(1_000, 1);
+        }
+
+        // When: the sample that resets the baseline was too fast for the clock
+        limiter.tryAcquire();
+        limiter.release(0, 1);
+
+        // Then
+        assertEquals(1, limiter.getBaselineLatencyNanos());
+        assertEquals(10, limiter.getLimit());
+    }
+}
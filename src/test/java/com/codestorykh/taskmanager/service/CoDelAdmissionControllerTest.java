@@ -0,0 +1,91 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for queue-delay based admission control
+ */
+public class CoDelAdmissionControllerTest {
+    private static final long TARGET_NANOS = Duration.ofMillis(5).toNanos();
+
+    @Test
+    void testShortBurstDoesNotShedLoad() {
+        // Given
+        CoDelAdmissionController controller = controller(Duration.ofSeconds(10));
+
+        // When
+        controller.recordQueueDelay(TARGET_NANOS * 10);
+        controller.recordQueueDelay(TARGET_NANOS * 10);
+
+        // Then
+        assertFalse(controller.isOverloaded());
+        assertTrue(controller.admit(TaskPriority.LOW));
+    }
+
+    @Test
+    void testSustainedDelayShedsLowPriorityWork() throws InterruptedException {
+        // Given
+        CoDelAdmissionController controller = overloadedController();
+
+        // Then
+        assertTrue(controller.isOverloaded());
+        assertFalse(controller.admit(TaskPriority.LOW));
+        assertFalse(controller.admit(TaskPriority.MEDIUM));
+        assertTrue(controller.admit(TaskPriority.HIGH));
+        assertTrue(controller.admit(TaskPriority.CRITICAL));
+        assertEquals(1, controller.getRejectedCount(TaskPriority.LOW));
+        assertEquals(1, controller.getAdmittedCount(TaskPriority.HIGH));
+    }
+
+    @Test
+    void testOverloadEndsAfterDelayStaysBelowTarget() throws InterruptedException {
+        // Given
+        CoDelAdmissionController controller = overloadedController();
+
+        // When
+        controller.recordQueueDelay(0);
+        Thread.sleep(30);
+        controller.recordQueueDelay(0);
+
+        // Then
+        assertFalse(controller.isOverloaded());
+        assertTrue(controller.admit(TaskPriority.LOW));
+    }
+
+    @Test
+    void testOverloadEndsWhenQueueDrainsWithoutNewStarts() throws InterruptedException {
+        // Given
+        CoDelAdmissionController controller = overloadedController();
+        AtomicBoolean queueEmpty = new AtomicBoolean(false);
+        controller.setBacklogProbe(queueEmpty::get);
+
+        // When: no task starts for an interval, first with work still queued, then drained
+        Thread.sleep(30);
+        boolean admittedWhileQueued = controller.admit(TaskPriority.LOW);
+        queueEmpty.set(true);
+        boolean admittedAfterDrain = controller.admit(TaskPriority.LOW);
+
+        // Then
+        assertFalse(admittedWhileQueued);
+        assertTrue(admittedAfterDrain);
+        assertFalse(controller.isOverloaded());
+    }
+
+    private static CoDelAdmissionController overloadedController() throws InterruptedException {
+        CoDelAdmissionController controller = controller(Duration.ofMillis(20));
+        controller.recordQueueDelay(TARGET_NANOS * 10);
+        Thread.sleep(30);
+        controller.recordQueueDelay(TARGET_NANOS * 10);
+        return controller;
+    }
+
+    private static CoDelAdmissionController controller(Duration interval) {
+        return new CoDelAdmissionController(Duration.ofNanos(TARGET_NANOS), interval, TaskPriority.HIGH);
+    }
+}
@@ -0,0 +1,139 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for deduplicating submissions by idempotency key
+ */
+public class IdempotencyIndexTest {
+
+    @Test
+    void testDuplicateSubmissionReturnsSameTaskAndFuture() throws Exception {
+        // Given
+        IdempotencyIndex index = new IdempotencyIndex(10, Duration.ofMinutes(1));
+        AtomicInteger runs = new AtomicInteger();
+        Task<String, Integer> first = index.getOrRegister("order-1", () -> task(runs));
+
+        // When
+        Task<String, Integer> second = index.getOrRegister("order-1", () -> task(runs));
+        CompletableFuture<Integer> firstRun = index.execute(first, Task::execute);
+        CompletableFuture<Integer> secondRun = index.execute(second, Task::execute);
+
+        // Then
+        assertSame(first, second);
+        assertSame(firstRun, secondRun);
+        assertEquals(Integer.valueOf(1), firstRun.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+        assertEquals(1, index.getDuplicateCount());
+    }
+
+    @Test
+    void testSlowFactoryBlocksOnlyItsOwnKey() throws Exception {
+        // Given: the factory for one key is stuck, as a blocking submission would be
+        IdempotencyIndex index = new IdempotencyIndex(10, Duration.ofMinutes(1));
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Task<String, Integer> slowTask = task(new AtomicInteger());
+        CompletableFuture<Task<String, Integer>> slow = CompletableFuture.supplyAsync(
+            () -> index.getOrRegister("slow", () -> {
+                entered.countDown();
+                TaskDispatcherTest.await(release);
+                return slowTask;
+            }));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // When
+        Task<String, Integer> other = CompletableFuture.supplyAsync(
+            () -> index.getOrRegister("other", () -> task(new AtomicInteger()))).get(1, TimeUnit.SECONDS);
+        CompletableFuture<Task<String, Integer>> duplicate = CompletableFuture.supplyAsync(
+            () -> index.getOrRegister("slow", () -> task(new AtomicInteger())));
+        Thread.sleep(20);
+        boolean duplicateWaited = !duplicate.isDone();
+        release.countDown();
+
+        // Then
+        assertNotNull(other);
+        assertTrue(duplicateWaited);
+        assertSame(slowTask, slow.get(5, TimeUnit.SECONDS));
+        assertSame(slowTask, duplicate.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFailedFactoryReleasesKey() {
+        // Given
+        IdempotencyIndex index = new IdempotencyIndex(10, Duration.ofMinutes(1));
+
+        // When
+        assertThrows(IllegalStateException.class, () -> index.getOrRegister("key", () -> {
+            throw new IllegalStateException("rejected");
+        }));
+        Task<String, Integer> retried = index.getOrRegister("key", () -> task(new AtomicInteger()));
+
+        // Then
+        assertNotNull(retried);
+        assertEquals(0, index.getDuplicateCount());
+    }
+
+    @Test
+    void testOnlyRunningKeysOutliveRetention() throws Exception {
+        // Given: a key whose task never ran, one still running and one that finished
+        IdempotencyIndex index = new IdempotencyIndex(10, Duration.ofMillis(10));
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        Task<String, Integer> neverRun = index.getOrRegister("never-run", () -> task(runs));
+        Task<String, Integer> running = index.getOrRegister("running",
+            () -> Task.deferred("running", TaskPriority.LOW, "input", input -> pending, null));
+        index.execute(running, Task::execute);
+        Task<String, Integer> finished = index.getOrRegister("finished", () -> task(runs));
+        index.execute(finished, Task::execute).get(5, TimeUnit.SECONDS);
+
+        // When
+        Thread.sleep(30);
+        Task<String, Integer> resubmitted = index.getOrRegister("finished", () -> task(runs));
+        Task<String, Integer> abandoned = index.getOrRegister("never-run", () -> task(runs));
+        Task<String, Integer> stillRunning = index.getOrRegister("running", () -> task(runs));
+
+        // Then
+        assertNotSame(finished, resubmitted);
+        assertNotSame(neverRun, abandoned);
+        assertSame(running, stillRunning);
+        assertEquals(3, index.size());
+        assertEquals(Integer.valueOf(2), index.execute(neverRun, Task::execute).get(5, TimeUnit.SECONDS));
+        pending.complete(1);
+    }
+
+    @Test
+    void testCapacityEvictsFinishedKeysButNeverInFlightOnes() throws Exception {
+        // Given
+        IdempotencyIndex index = new IdempotencyIndex(2, Duration.ofMinutes(1));
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        Task<String, Integer> inFlight = index.getOrRegister("in-flight",
+            () -> Task.deferred("in-flight", TaskPriority.LOW, "input", input -> pending, null));
+        index.execute(inFlight, Task::execute);
+        Task<String, Integer> done = index.getOrRegister("done", () -> task(new AtomicInteger()));
+        index.execute(done, Task::execute).get(5, TimeUnit.SECONDS);
+
+        // When: more keys than the index holds
+        index.getOrRegister("third", () -> task(new AtomicInteger()));
+        index.getOrRegister("fourth", () -> task(new AtomicInteger()));
+
+        // Then
+        assertSame(inFlight, index.getOrRegister("in-flight", () -> task(new AtomicInteger())));
+        assertNotSame(done, index.getOrRegister("done", () -> task(new AtomicInteger())));
+        pending.complete(1);
+    }
+
+    private static Task<String, Integer> task(AtomicInteger runs) {
+        return new Task<>("keyed", TaskPriority.MEDIUM, "input", input -> runs.incrementAndGet());
+    }
+}
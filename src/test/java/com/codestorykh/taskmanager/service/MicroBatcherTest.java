@@ -0,0 +1,141 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for coalescing small inputs into batched processor calls
+ */
+public class MicroBatcherTest {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testFullBatchIsFlushedAndResultsMatchInputs() throws Exception {
+        // Given
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        MicroBatcher<Integer, String> batcher = new MicroBatcher<>("square", batch -> {
+            batches.add(batch);
+            return batch.stream().map(value -> "#" + value * value).toList();
+        }, 3, Duration.ofMinutes(1), Runnable::run, scheduler);
+
+        // When
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            futures.add(batcher.enqueue(i));
+        }
+
+        // Then
+        assertEquals(List.of(List.of(1, 2, 3), List.of(4, 5, 6)), batches);
+        assertEquals("#1", futures.get(0).get(1, TimeUnit.SECONDS));
+        assertEquals("#36", futures.get(5).get(1, TimeUnit.SECONDS));
+        assertEquals(2, batcher.getBatchCount());
+        assertEquals(3.0, batcher.getAverageBatchSize());
+    }
+
+    @Test
+    void testPartialBatchIsFlushedAfterLinger() throws Exception {
+        // Given
+        MicroBatcher<Integer, Integer> batcher = new MicroBatcher<>("double",
+            batch -> batch.stream().map(value -> value * 2).toList(), 100, Duration.ofMillis(20), Runnable::run, scheduler);
+
+        // When
+        CompletableFuture<Integer> first = batcher.enqueue(1);
+        CompletableFuture<Integer> second = batcher.enqueue(2);
+
+        // Then
+        assertEquals(Integer.valueOf(2), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(4), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, batcher.getBatchCount());
+    }
+
+    @Test
+    void testProcessorFailureAndSizeMismatchFailEveryItem() {
+        // Given
+        MicroBatcher<Integer, Integer> failing = new MicroBatcher<>("failing", batch -> {
+            throw new IllegalStateException("backend down");
+        }, 2, Duration.ofMinutes(1), Runnable::run, scheduler);
+        MicroBatcher<Integer, Integer> truncating = new MicroBatcher<>("short",
+            batch -> List.of(), 2, Duration.ofMinutes(1), Runnable::run, scheduler);
+
+        // When
+        CompletableFuture<Integer> failed = failing.enqueue(1);
+        failing.enqueue(2);
+        CompletableFuture<Integer> mismatched = truncating.enqueue(1);
+        truncating.flush();
+
+        // Then
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> failed.get(1, TimeUnit.SECONDS));
+        assertEquals("backend down", failure.getCause().getMessage());
+        ExecutionException mismatch = assertThrows(ExecutionException.class, () -> mismatched.get(1, TimeUnit.SECONDS));
+        assertTrue(mismatch.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testTaskManagerTracksOneTaskPerBatch() throws Exception {
+        // Given
+        TaskManager manager = new TaskManager();
+        manager.registerBatchProcessor("lengths", (List<String> batch) -> batch.stream().map(String::length).toList(),
+            4, Duration.ofMillis(20));
+
+        // When
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (String word : List.of("a", "bb", "ccc", "dddd", "eeeee")) {
+            futures.add(manager.submitBatched("lengths", word));
+        }
+        List<Integer> lengths = new ArrayList<>();
+        for (CompletableFuture<Integer> future : futures) {
+            lengths.add(future.get(5, TimeUnit.SECONDS));
+        }
+
+        // Then: five items ran as two tasks, one full batch and one flushed by the linger timer
+        assertEquals(List.of(1, 2, 3, 4, 5), lengths);
+        List<Task<?, ?>> tasks = manager.getAllTasks();
+        assertEquals(2, tasks.size());
+        assertTrue(tasks.stream().allMatch(task -> task.getName().equals("lengths")));
+        assertTrue(tasks.stream().allMatch(task -> task.getStatus() == TaskStatus.COMPLETED));
+        assertThrows(IllegalArgumentException.class, () -> manager.submitBatched("unknown", "x"));
+        manager.shutdown();
+    }
+
+    @Test
+    void testBatchedTaskIsOneUnregisteredTaskPerCaller() throws Exception {
+        // Given
+        TaskManager manager = new TaskManager();
+        manager.registerBatchProcessor("lengths", (List<String> batch) -> batch.stream().map(String::length).toList(),
+            2, Duration.ofMinutes(1));
+
+        // When
+        Task<String, Integer> first = manager.submitBatchedTask("lengths", "first", "abc");
+        Task<String, Integer> second = manager.submitBatchedTask("lengths", "second", "de");
+        CompletableFuture<Integer> firstResult = first.execute();
+        CompletableFuture<Integer> secondResult = second.execute();
+
+        // Then: each caller has its own task, while only the batch is registered
+        assertEquals(Integer.valueOf(3), firstResult.get(5, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(2), secondResult.get(5, TimeUnit.SECONDS));
+        assertEquals(TaskStatus.COMPLETED, first.getStatus());
+        assertEquals(Integer.valueOf(2), second.getResult());
+        assertNotEquals(first.getTaskId(), second.getTaskId());
+        assertEquals(1, manager.getAllTasks().size());
+        manager.shutdown();
+    }
+}
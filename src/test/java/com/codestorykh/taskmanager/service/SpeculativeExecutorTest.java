@@ -0,0 +1,144 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for straggler detection and speculative re-execution
+ */
+public class SpeculativeExecutorTest {
+    private final TaskManager manager = new TaskManager();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        manager.shutdown();
+    }
+
+    @Test
+    void testStragglerIsRacedByDuplicate() throws Exception {
+        // Given
+        SpeculativeExecutor executor = new SpeculativeExecutor(0.5, 5);
+        manager.enableSpeculativeExecution(executor);
+        Function<String, String> processor = firstSlowCallBlocks();
+        runQuickTasks(5, processor);
+
+        // When
+        CompletableFuture<String> result = manager.executeSpeculatively(
+            manager.submitTask("job", TaskPriority.MEDIUM, "slow", processor));
+
+        // Then
+        assertEquals("SLOW", result.get(5, TimeUnit.SECONDS));
+        assertTrue(executor.getThresholdNanos("job") >= 0);
+        assertEquals(1, executor.getStatistics().speculated());
+        awaitDuplicateWin(executor);
+    }
+
+    @Test
+    void testTaskWaitsForEnoughSamplesBeforeSpeculation() throws Exception {
+        // Given
+        SpeculativeExecutor executor = new SpeculativeExecutor(0.5, 3);
+        manager.enableSpeculativeExecution(executor);
+        Function<String, String> processor = firstSlowCallBlocks();
+        CompletableFuture<String> result = manager.executeSpeculatively(
+            manager.submitTask("job", TaskPriority.MEDIUM, "slow", processor));
+        Thread.sleep(50);
+        assertFalse(result.isDone());
+        assertEquals(0, executor.getStatistics().speculated());
+        assertEquals(-1, executor.getThresholdNanos("job"));
+
+        // When
+        runQuickTasks(3, processor);
+
+        // Then
+        assertEquals("SLOW", result.get(5, TimeUnit.SECONDS));
+        awaitDuplicateWin(executor);
+    }
+
+    @Test
+    void testFailedOriginalAndDuplicateFailResult() {
+        // Given
+        SpeculativeExecutor executor = new SpeculativeExecutor(0.9, 1);
+        manager.enableSpeculativeExecution(executor);
+
+        // When
+        CompletableFuture<String> result = manager.executeSpeculatively(
+            manager.submitTask("failing", TaskPriority.MEDIUM, "input", input -> {
+                throw new IllegalStateException("boom");
+            }));
+
+        // Then
+        assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getStatistics().speculated());
+        assertThrows(IllegalArgumentException.class, () -> new SpeculativeExecutor(1.0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new SpeculativeExecutor(0.5, 0));
+    }
+
+    @Test
+    void testDuplicatesAreCappedAtMaxDuplicates() throws Exception {
+        // Given: one duplicate thread, and slow calls that all block
+        SpeculativeExecutor executor = new SpeculativeExecutor(0.5, 3, 1);
+        manager.enableSpeculativeExecution(executor);
+        Function<String, String> processor = input -> {
+            if (input.equals("slow")) {
+                TaskDispatcherTest.await(release);
+            }
+            return input.toUpperCase();
+        };
+        runQuickTasks(3, processor);
+
+        // When
+        CompletableFuture<String> first = manager.executeSpeculatively(
+            manager.submitTask("job", TaskPriority.MEDIUM, "slow", processor));
+        CompletableFuture<String> second = manager.executeSpeculatively(
+            manager.submitTask("job", TaskPriority.MEDIUM, "slow", processor));
+        Thread.sleep(100);
+
+        // Then: the second straggler found the only duplicate thread busy
+        assertEquals(1, executor.getStatistics().speculated());
+        release.countDown();
+        assertEquals("SLOW", first.get(5, TimeUnit.SECONDS));
+        assertEquals("SLOW", second.get(5, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new SpeculativeExecutor(0.5, 3, 0));
+    }
+
+    // Upper-cases its input; the first call with input "slow" blocks until the test ends
+    private Function<String, String> firstSlowCallBlocks() {
+        AtomicInteger slowCalls = new AtomicInteger();
+        return input -> {
+            if (input.equals("slow") && slowCalls.getAndIncrement() == 0) {
+                TaskDispatcherTest.await(release);
+            }
+            return input.toUpperCase();
+        };
+    }
+
+    // The win is counted just after the result completes
+    private static void awaitDuplicateWin(SpeculativeExecutor executor) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getStatistics().duplicateWins() == 0) {
+            assertTrue(System.nanoTime() < deadline, "Duplicate win not counted");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertEquals(1, executor.getStatistics().duplicateWins());
+    }
+
+    private void runQuickTasks(int count, Function<String, String> processor) throws Exception {
+        for (int i = 0; i < count; i++) {
+            Task<String, String> task = manager.submitTask("job", TaskPriority.MEDIUM, "quick", processor);
+            assertEquals("QUICK", manager.executeSpeculatively(task).get(5, TimeUnit.SECONDS));
+        }
+    }
+}
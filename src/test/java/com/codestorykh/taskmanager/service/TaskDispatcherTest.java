@@ -0,0 +1,232 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for limiter-gated task dispatching
+ */
+public class TaskDispatcherTest {
+    private final ExecutorService workers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void testTasksBeyondLimitAreQueuedUntilSlotsFree() throws Exception {
+        // Given
+        TaskDispatcher dispatcher = new TaskDispatcher(new AdaptiveConcurrencyLimiter(2, 2, 2), workers);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // When
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(dispatcher.dispatch(new Task<Integer, Integer>("blocking", TaskPriority.MEDIUM, i, value -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                started.countDown();
+                await(release);
+                running.decrementAndGet();
+                return value;
+            })));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+        int queuedWhileBlocked = dispatcher.getQueuedCount();
+        release.countDown();
+
+        // Then
+        for (int i = 0; i < 6; i++) {
+            assertEquals(Integer.valueOf(i), futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(4, queuedWhileBlocked);
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, dispatcher.getQueuedCount());
+    }
+
+    @Test
+    void testHandOverForwardsQueuedTasksToNewDispatcher() throws Exception {
+        // Given
+        TaskDispatcher previous = new TaskDispatcher(new AdaptiveConcurrencyLimiter(1, 1, 1), workers);
+        TaskDispatcher next = new TaskDispatcher(new AdaptiveConcurrencyLimiter(4, 4, 4), workers);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> blocking = previous.dispatch(new Task<String, String>("blocking", TaskPriority.LOW,
+            "first", value -> {
+                await(release);
+                return value;
+            }));
+        CompletableFuture<String> queued = previous.dispatch(new Task<>("queued", TaskPriority.LOW, "second",
+            value -> value));
+
+        // When
+        previous.handOverTo(next);
+        CompletableFuture<String> late = previous.dispatch(new Task<>("late", TaskPriority.LOW, "third",
+            value -> value));
+
+        // Then: queued and late work run on the new limiter while the old slot is still held
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+        assertEquals("third", late.get(5, TimeUnit.SECONDS));
+        assertFalse(blocking.isDone());
+        release.countDown();
+        assertEquals("first", blocking.get(5, TimeUnit.SECONDS));
+        assertEquals(0, previous.getQueuedCount());
+    }
+
+    @Test
+    void testDeadlineModesOrderQueuedTasks() throws Exception {
+        // Given: one slot, held while the queue fills
+        TaskDispatcher dispatcher = new TaskDispatcher(new AdaptiveConcurrencyLimiter(1, 1, 1), workers);
+        dispatcher.setSchedulingMode(SchedulingMode.PRIORITY_THEN_DEADLINE);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<String> blocking = dispatcher.dispatch(new Task<String, String>("blocking",
+            TaskPriority.LOW, "blocking", value -> {
+                await(release);
+                return value;
+            }));
+
+        // When
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        futures.add(dispatcher.dispatch(recording(order, "low-soon", TaskPriority.LOW, Duration.ofSeconds(5))));
+        futures.add(dispatcher.dispatch(recording(order, "high-late", TaskPriority.HIGH, Duration.ofSeconds(60))));
+        futures.add(dispatcher.dispatch(recording(order, "high-soon", TaskPriority.HIGH, Duration.ofSeconds(10))));
+        futures.add(dispatcher.dispatch(recording(order, "no-deadline", TaskPriority.HIGH, null)));
+        release.countDown();
+        blocking.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<String> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        // Then
+        assertEquals(List.of("high-soon", "high-late", "no-deadline", "low-soon"), order);
+    }
+
+    @Test
+    void testExpiredDeadlineIsDroppedWithoutRunning() throws Exception {
+        // Given
+        TaskDispatcher dispatcher = new TaskDispatcher(new AdaptiveConcurrencyLimiter(1, 1, 1), workers);
+        dispatcher.setSchedulingMode(SchedulingMode.EARLIEST_DEADLINE_FIRST);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<String> blocking = dispatcher.dispatch(new Task<String, String>("blocking",
+            TaskPriority.LOW, "blocking", value -> {
+                await(release);
+                return value;
+            }));
+        Task<String, String> expiring = recording(order, "expiring", TaskPriority.LOW, Duration.ofMillis(10));
+
+        // When
+        CompletableFuture<String> dropped = dispatcher.dispatch(expiring);
+        Thread.sleep(30);
+        release.countDown();
+        blocking.get(5, TimeUnit.SECONDS);
+
+        // Then
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> dropped.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof TimeoutException);
+        assertTrue(order.isEmpty());
+        assertEquals(TaskStatus.FAILED, expiring.getStatus());
+        assertEquals(1, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    void testTaskIsEitherExpiredOrStartedNeverBoth() throws Exception {
+        // Given
+        AtomicInteger ran = new AtomicInteger();
+        int expired = 0;
+
+        // When: expiry races with a worker picking up the same task
+        for (int i = 0; i < 1_000; i++) {
+            Task<Integer, Integer> task = new Task<>("race", TaskPriority.LOW, i, value -> {
+                ran.incrementAndGet();
+                return value;
+            });
+            CompletableFuture<Integer> execution = task.execute(workers);
+            if (task.expire("deadline")) {
+                expired++;
+                assertThrows(ExecutionException.class, () -> execution.get(5, TimeUnit.SECONDS));
+                assertEquals(TaskStatus.FAILED, task.getStatus());
+            } else {
+                execution.get(5, TimeUnit.SECONDS);
+                assertEquals(TaskStatus.COMPLETED, task.getStatus());
+            }
+        }
+
+        // Then
+        assertEquals(1_000, ran.get() + expired);
+    }
+
+    @Test
+    void testModeSwitchesNeverStrandDispatchedTasks() throws Exception {
+        // Given
+        TaskDispatcher dispatcher = new TaskDispatcher(new AdaptiveConcurrencyLimiter(2, 2, 2), workers);
+        int perThread = 2_000;
+        List<CompletableFuture<Integer>> futures = new CopyOnWriteArrayList<>();
+        Runnable submitter = () -> {
+            for (int i = 0; i < perThread; i++) {
+                Task<Integer, Integer> task = new Task<>("task", TaskPriority.MEDIUM, i, value -> value);
+                task.setDeadline(Duration.ofMinutes(1));
+                futures.add(dispatcher.dispatch(task));
+            }
+        };
+
+        // When: modes change while two threads dispatch
+        Thread first = new Thread(submitter);
+        Thread second = new Thread(submitter);
+        first.start();
+        second.start();
+        SchedulingMode[] modes = SchedulingMode.values();
+        for (int i = 0; first.isAlive() || second.isAlive(); i++) {
+            dispatcher.setSchedulingMode(modes[i % modes.length]);
+        }
+        first.join();
+        second.join();
+
+        // Then
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        assertEquals(2 * perThread, futures.size());
+        assertEquals(0, dispatcher.getQueuedCount());
+    }
+
+    private static Task<String, String> recording(List<String> order, String name, TaskPriority priority,
+                                                  Duration deadline) {
+        Task<String, String> task = new Task<>(name, priority, name, value -> {
+            order.add(value);
+            return value;
+        });
+        if (deadline != null) {
+            task.setDeadline(deadline);
+        }
+        return task;
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
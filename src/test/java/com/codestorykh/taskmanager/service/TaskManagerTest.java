@@ -0,0 +1,123 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskDescriptor;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for task submission and execution through the task manager
+ */
+public class TaskManagerTest {
+    private final TaskManager manager = new TaskManager();
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void testAsyncTaskRunsUntilItsStageCompletes() throws Exception {
+        // Given
+        CompletableFuture<String> response = new CompletableFuture<>();
+        Task<String, String> task = manager.submitAsyncTask("lookup", TaskPriority.MEDIUM, "key", key -> response);
+
+        // When
+        CompletableFuture<String> result = manager.executeTask(task);
+
+        // Then
+        assertEquals(TaskStatus.RUNNING, task.getStatus());
+        assertFalse(result.isDone());
+        response.complete("value");
+        assertEquals("value", result.get(1, TimeUnit.SECONDS));
+        assertEquals(TaskStatus.COMPLETED, task.getStatus());
+        assertEquals("value", task.getResult());
+    }
+
+    @Test
+    void testAsyncTaskFailureIsUnwrapped() {
+        // Given
+        Task<String, String> failing = manager.submitAsyncTask("lookup", TaskPriority.MEDIUM, "key",
+            key -> CompletableFuture.supplyAsync(() -> {
+                throw new IllegalStateException("not found");
+            }));
+        Task<String, String> nullStage = manager.submitAsyncTask("lookup", TaskPriority.MEDIUM, "key", key -> null);
+
+        // When
+        ExecutionException failure = assertThrows(ExecutionException.class,
+            () -> manager.executeTask(failing).get(1, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> manager.executeTask(nullStage).get(1, TimeUnit.SECONDS));
+
+        // Then
+        assertTrue(failure.getCause().getCause() instanceof IllegalStateException);
+        assertEquals(TaskStatus.FAILED, failing.getStatus());
+        assertEquals("not found", failing.getErrorMessage());
+        assertEquals(TaskStatus.FAILED, nullStage.getStatus());
+    }
+
+    @Test
+    void testReenablingConcurrencyKeepsDeadlineOrder() throws Exception {
+        // Given: deadline scheduling, then a new limiter that admits one task at a time
+        manager.enableDeadlineScheduling(SchedulingMode.EARLIEST_DEADLINE_FIRST);
+        manager.enableAdaptiveConcurrency(new AdaptiveConcurrencyLimiter(1, 1, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        Task<String, String> blocking = manager.submitTask("blocking", TaskPriority.LOW, "blocking", value -> {
+            TaskDispatcherTest.await(release);
+            return value;
+        });
+        Task<String, String> relaxed = manager.submitTask("relaxed", TaskPriority.LOW, "relaxed",
+            value -> record(order, value), Duration.ofSeconds(30));
+        Task<String, String> urgent = manager.submitTask("urgent", TaskPriority.LOW, "urgent",
+            value -> record(order, value), Duration.ofSeconds(10));
+
+        // When
+        CompletableFuture<String> first = manager.executeTask(blocking);
+        CompletableFuture<String> second = manager.executeTask(relaxed);
+        CompletableFuture<String> third = manager.executeTask(urgent);
+        release.countDown();
+        CompletableFuture.allOf(first, second, third).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(List.of("urgent", "relaxed"), order);
+        assertEquals(1, manager.getConcurrencyMetrics().orElseThrow().limit());
+    }
+
+    @Test
+    void testSubmitAllRegistersEveryTaskWithDistinctIds() throws Exception {
+        // Given
+        List<TaskDescriptor<Integer>> descriptors = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            descriptors.add(new TaskDescriptor<>("bulk-" + i, TaskPriority.values()[i % 4], i));
+        }
+
+        // When
+        List<Task<Integer, Integer>> tasks = manager.submitAll(descriptors, value -> value * 2);
+        List<CompletableFuture<Integer>> results = manager.executeTasksBatch(tasks);
+
+        // Then
+        assertEquals(1_000, tasks.stream().map(Task::getTaskId).distinct().count());
+        assertEquals(1_000, manager.getAllTasks().size());
+        assertSame(tasks.get(7), manager.getTask(tasks.get(7).getTaskId()));
+        assertEquals(250, manager.getTasksByPriority(TaskPriority.CRITICAL).size());
+        assertEquals(Integer.valueOf(1_998), results.get(999).get(5, TimeUnit.SECONDS));
+    }
+
+    private static String record(List<String> order, String value) {
+        order.add(value);
+        return value;
+    }
+}
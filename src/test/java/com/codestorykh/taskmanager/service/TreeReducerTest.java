@@ -0,0 +1,84 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.TaskPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for fork/join map-reduce
+ */
+public class TreeReducerTest {
+
+    @Test
+    void testNonCommutativeCombinerKeepsInputOrder() throws Exception {
+        // Given
+        List<Integer> inputs = IntStream.range(0, 1_000).boxed().collect(Collectors.toList());
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        // When
+        String joined = TreeReducer.reduce(inputs, String::valueOf, "", (left, right) ->
+            left.isEmpty() ? right : right.isEmpty() ? left : left + "," + right, pool).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(inputs.stream().map(String::valueOf).collect(Collectors.joining(",")), joined);
+        pool.shutdown();
+    }
+
+    @Test
+    void testEmptyInputsReduceToIdentity() throws Exception {
+        // Given
+        List<Integer> inputs = Collections.emptyList();
+
+        // When
+        Long sum = TreeReducer.reduce(inputs, Integer::longValue, 0L, Long::sum, ForkJoinPool.commonPool())
+            .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(0L, sum);
+    }
+
+    @Test
+    void testMapperFailureFailsTheResult() {
+        // Given
+        List<Integer> inputs = new ArrayList<>(IntStream.range(0, 100).boxed().toList());
+
+        // When
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> TreeReducer.reduce(inputs,
+            input -> {
+                if (input == 42) {
+                    throw new IllegalArgumentException("bad input");
+                }
+                return input;
+            }, 0, Integer::sum, ForkJoinPool.commonPool()).get(5, TimeUnit.SECONDS));
+
+        // Then
+        assertTrue(failure.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void testMapReduceIsTrackedAsOneTask() throws Exception {
+        // Given
+        TaskManager manager = new TaskManager();
+        List<Integer> inputs = IntStream.rangeClosed(1, 10_000).boxed().toList();
+
+        // When
+        long sum = manager.mapReduce("sum", TaskPriority.LOW, inputs, Integer::longValue, 0L, Long::sum)
+            .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(50_005_000L, sum);
+        assertEquals(1, manager.getAllTasks().size());
+        assertEquals("sum", manager.getAllTasks().get(0).getName());
+        manager.shutdown();
+    }
+}
@@ -0,0 +1,104 @@
+package com.codestorykh.taskmanager.service;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for per-worker resources
+ */
+public class WorkerResourceTest {
+
+    @Test
+    void testWorkerThreadReusesItsInstance() throws Exception {
+        // Given
+        AtomicInteger closed = new AtomicInteger();
+        WorkerResource<StringBuilder> buffers = WorkerResource.of(StringBuilder::new, buffer -> closed.incrementAndGet());
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            worker.submit(() -> buffers.bind((StringBuilder buffer, Integer input) -> buffer.append(input)).apply(value))
+                .get(5, TimeUnit.SECONDS);
+        }
+        worker.shutdown();
+        buffers.close();
+
+        // Then
+        assertEquals(1, buffers.getCreatedCount());
+        assertEquals(1, closed.get());
+        assertThrows(IllegalStateException.class,
+            () -> buffers.bind((StringBuilder buffer, String input) -> input).apply("late"));
+    }
+
+    @Test
+    void testPooledInstancesAreTrackedByIdentity() throws Exception {
+        // Given
+        List<List<String>> closed = new ArrayList<>();
+        WorkerResource<List<String>> scratch = WorkerResource.of(ArrayList::new, list -> {
+            synchronized (closed) {
+                closed.add(list);
+            }
+        });
+        CountDownLatch bothBorrowed = new CountDownLatch(2);
+        Runnable borrow = () -> scratch.bind((List<String> list, String input) -> {
+            bothBorrowed.countDown();
+            TaskDispatcherTest.await(bothBorrowed);
+            return input;
+        }).apply("input");
+
+        // When
+        Thread first = Thread.ofVirtual().start(borrow);
+        Thread second = Thread.ofVirtual().start(borrow);
+        first.join();
+        second.join();
+        scratch.close();
+
+        // Then: the two instances are equal empty lists, and both are closed
+        assertEquals(2, scratch.getCreatedCount());
+        assertEquals(2, closed.size());
+        assertNotSame(closed.get(0), closed.get(1));
+    }
+
+    @Test
+    void testShutdownClosesOnlyResourcesTheManagerCreated() throws Exception {
+        // Given
+        TaskManager manager = new TaskManager();
+        AtomicInteger sharedClosed = new AtomicInteger();
+        AtomicInteger ownedClosed = new AtomicInteger();
+        WorkerResource<StringBuilder> shared = WorkerResource.of(StringBuilder::new, buffer -> sharedClosed.incrementAndGet());
+        WorkerResource<StringBuilder> owned = manager.createWorkerResource(StringBuilder::new,
+            buffer -> ownedClosed.incrementAndGet());
+        Task<String, Integer> sharedTask = manager.submitTask("shared", TaskPriority.MEDIUM, "abc", shared,
+            (buffer, input) -> buffer.append(input).length());
+        Task<String, Integer> ownedTask = manager.submitTask("owned", TaskPriority.MEDIUM, "abc", owned,
+            (buffer, input) -> buffer.append(input).length());
+        manager.executeTask(sharedTask).get(5, TimeUnit.SECONDS);
+        manager.executeTask(ownedTask).get(5, TimeUnit.SECONDS);
+
+        // When
+        manager.shutdown();
+
+        // Then
+        assertEquals(0, sharedClosed.get());
+        assertEquals(1, ownedClosed.get());
+        TaskManager next = new TaskManager();
+        Task<String, Integer> reused = next.submitTask("shared", TaskPriority.MEDIUM, "de", shared,
+            (buffer, input) -> input.length());
+        assertEquals(2, next.executeTask(reused).get(5, TimeUnit.SECONDS));
+        next.shutdown();
+        shared.close();
+        assertTrue(sharedClosed.get() > 0);
+    }
+}
@@ -0,0 +1,210 @@
+package com.codestorykh.taskmanager.store;
+
+import com.codestorykh.taskmanager.model.Task;
+import com.codestorykh.taskmanager.model.TaskPriority;
+import com.codestorykh.taskmanager.model.TaskStatus;
+import com.codestorykh.taskmanager.service.TaskManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the off-heap task metadata table
+ */
+public class OffHeapTaskTableTest {
+
+    @Test
+    void testRowsRoundTripThroughColumns() {
+        // Given
+        OffHeapTaskTable table = new OffHeapTaskTable();
+        Task<String, String> uuidTask = new Task<>("report", TaskPriority.HIGH, "input", input -> input);
+        Task<String, String> blockTask = new Task<>(uuidTask.getTaskId() + "-7", "report", TaskPriority.LOW,
+            "input", input -> input, null);
+        Task<String, String> customTask = new Task<>("order-42", "import", TaskPriority.MEDIUM, "input",
+            input -> input, null);
+
+        // When
+        table.put(uuidTask);
+        table.put(blockTask);
+        table.put(customTask);
+
+        // Then
+        assertEquals(3, table.size());
+        TaskRecord record = table.get(uuidTask.getTaskId()).orElseThrow();
+        assertEquals("report", record.name());
+        assertEquals(TaskPriority.HIGH, record.priority());
+        assertEquals(TaskStatus.PENDING, record.status());
+        assertEquals(TaskRecord.of(uuidTask).createdAtMillis(), record.createdAtMillis());
+        assertEquals(blockTask.getTaskId(), table.get(blockTask.getTaskId()).orElseThrow().taskId());
+        assertEquals("import", table.get("order-42").orElseThrow().name());
+        assertTrue(table.get("unknown").isEmpty());
+    }
+
+    @Test
+    void testUpdateCopiesStatusAndTimestamps() throws Exception {
+        // Given
+        OffHeapTaskTable table = new OffHeapTaskTable();
+        Task<String, String> task = new Task<>("echo", TaskPriority.MEDIUM, "input", input -> input);
+        Task<String, String> unknown = new Task<>("echo", TaskPriority.MEDIUM, "input", input -> input);
+        table.put(task);
+        task.execute().get(5, TimeUnit.SECONDS);
+
+        // When
+        boolean updated = table.update(task);
+
+        // Then
+        assertTrue(updated);
+        assertFalse(table.update(unknown));
+        TaskRecord record = table.get(task.getTaskId()).orElseThrow();
+        assertEquals(TaskStatus.COMPLETED, record.status());
+        assertTrue(record.durationMillis() >= 0);
+        assertEquals(1, table.count(TaskStatus.COMPLETED, null));
+        assertEquals(Map.of(TaskStatus.COMPLETED, 1L), table.getStatusCounts());
+    }
+
+    @Test
+    void testUpdatesFindRowsWhileIndexGrows() throws InterruptedException {
+        // Given
+        OffHeapTaskTable table = new OffHeapTaskTable();
+        List<Task<String, String>> first = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Task<String, String> task = new Task<>("task-" + (i % 10), TaskPriority.LOW, "input", input -> input);
+            table.put(task);
+            first.add(task);
+        }
+        AtomicInteger missed = new AtomicInteger();
+        Thread updater = new Thread(() -> {
+            for (int round = 0; round < 20; round++) {
+                for (Task<String, String> task : first) {
+                    if (!table.update(task)) {
+                        missed.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        // When
+        updater.start();
+        for (int i = 0; i < 20_000; i++) {
+            table.put(new Task<>("more", TaskPriority.HIGH, "input", input -> input));
+        }
+        updater.join();
+
+        // Then
+        assertEquals(0, missed.get());
+        assertEquals(21_000, table.size());
+        assertEquals(1_000, table.count(null, TaskPriority.LOW));
+        for (Task<String, String> task : first) {
+            assertTrue(table.get(task.getTaskId()).isPresent());
+        }
+    }
+
+    @Test
+    void testFindReturnsOldestMatchesUpToLimit() {
+        // Given
+        OffHeapTaskTable table = new OffHeapTaskTable();
+        List<String> highIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            TaskPriority priority = i % 2 == 0 ? TaskPriority.HIGH : TaskPriority.LOW;
+            Task<String, String> task = new Task<>("task-" + i, priority, "input", input -> input);
+            table.put(task);
+            if (priority == TaskPriority.HIGH) {
+                highIds.add(task.getTaskId());
+            }
+        }
+
+        // When
+        List<TaskRecord> found = table.find(null, TaskPriority.HIGH, 3);
+
+        // Then
+        assertEquals(highIds.subList(0, 3), found.stream().map(TaskRecord::taskId).toList());
+        assertEquals(5, table.find(TaskStatus.PENDING, TaskPriority.LOW, 100).size());
+    }
+
+    @Test
+    void testManagerAnswersFinishedTasksFromTable() throws Exception {
+        // Given
+        TaskManager manager = new TaskManager();
+        manager.enableOffHeapMetadata(new OffHeapTaskTable());
+        Task<String, String> done = manager.submitTask("done", TaskPriority.HIGH, "input", input -> input);
+        Task<String, String> failed = manager.submitTask("failed", TaskPriority.HIGH, "input", input -> {
+            throw new IllegalStateException("boom");
+        });
+        Task<String, String> pending = manager.submitTask("pending", TaskPriority.HIGH, "input", input -> input);
+
+        // When
+        manager.executeTask(done).get(5, TimeUnit.SECONDS);
+        assertThrows(Exception.class, () -> manager.executeTask(failed).get(5, TimeUnit.SECONDS));
+
+        // Then
+        Task<Object, Object> restored = manager.getTask(done.getTaskId());
+        assertNotNull(restored);
+        assertNotSame(done, restored);
+        assertEquals(TaskStatus.COMPLETED, restored.getStatus());
+        assertEquals("done", restored.getName());
+        assertNotNull(restored.getCompletedAt());
+        assertSame(pending, manager.getTask(pending.getTaskId()));
+        assertEquals(List.of(done.getTaskId()), ids(manager.getTasksByStatus(TaskStatus.COMPLETED)));
+        assertEquals(List.of(failed.getTaskId()), ids(manager.getTasksByStatus(TaskStatus.FAILED)));
+        assertEquals(3, manager.getTasksByPriority(TaskPriority.HIGH).size());
+        assertEquals(1, manager.getAllTasks().size());
+        manager.shutdown();
+    }
+
+    @Test
+    void testCustomIdsAreKeptOffHeap() {
+        // Given
+        OffHeapTaskTable table = new OffHeapTaskTable();
+        List<Task<String, String>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            tasks.add(new Task<>("node-3/order-" + i, "import", TaskPriority.LOW, "input", input -> input, null));
+        }
+        long emptyBytes = table.getOffHeapBytes();
+
+        // When
+        tasks.forEach(table::put);
+        tasks.forEach(table::put);
+
+        // Then: the IDs went into the arena, and each one still finds its own row
+        assertEquals(100_000, table.size());
+        assertTrue(table.getOffHeapBytes() - emptyBytes > 100_000L * 2 * "node-3/order-0".length());
+        assertEquals("node-3/order-99999", table.get("node-3/order-99999").orElseThrow().taskId());
+        assertTrue(table.update(tasks.get(42)));
+        assertTrue(table.get("node-3/order-100000").isEmpty());
+        assertTrue(table.get("node-3/order-").isEmpty());
+    }
+
+    @Test
+    void testManagerBackfillsTableAndClearsCompletedRows() throws Exception {
+        // Given: tasks that finished before the table was enabled
+        TaskManager manager = new TaskManager();
+        Task<String, String> early = manager.submitTask("early", TaskPriority.LOW, "input", input -> input);
+        manager.executeTask(early).get(5, TimeUnit.SECONDS);
+        manager.submitTask("queued", TaskPriority.LOW, "input", input -> input);
+
+        // When
+        manager.enableOffHeapMetadata(new OffHeapTaskTable());
+        Task<String, String> late = manager.submitTask("late", TaskPriority.LOW, "input", input -> input);
+        manager.executeTask(late).get(5, TimeUnit.SECONDS);
+        Map<TaskStatus, Long> beforeClear = manager.getTaskStatistics();
+        manager.clearCompletedTasks();
+
+        // Then
+        assertEquals(Map.of(TaskStatus.COMPLETED, 2L, TaskStatus.PENDING, 1L), beforeClear);
+        assertEquals(Map.of(TaskStatus.PENDING, 1L), manager.getTaskStatistics());
+        assertNull(manager.getTask(late.getTaskId()));
+        assertTrue(manager.getTasksByStatus(TaskStatus.COMPLETED).isEmpty());
+        assertEquals(1, manager.query("status:PENDING").count());
+        manager.shutdown();
+    }
+
+    private static List<String> ids(List<Task<?, ?>> tasks) {
+        return tasks.stream().map(Task::getTaskId).toList();
+    }
+}